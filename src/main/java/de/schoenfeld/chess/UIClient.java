@@ -211,13 +211,15 @@ public class UIClient {
                 label.setForeground(darkColor);
             });
 
-            // Update with new state
-            event.newState().chessBoard().getPieces().forEach((piece) -> {
-                Position pos = event.newState().chessBoard().getPiecePosition(piece);
-                JLabel square = boardSquares.get(pos);
+            // Update with new state, square by square, since equal pieces share one instance
+            var board = event.newState().chessBoard();
+            for (int index = 0; index < board.getBounds().squareCount(); index++) {
+                ChessPiece piece = board.getPieceAt(index);
+                if (piece == null) continue;
+                JLabel square = boardSquares.get(board.getBounds().toPosition(index));
                 square.setText(getPieceSymbol(piece));
                 square.setForeground(piece.isWhite() ? pieceWhite : pieceBlack);
-            });
+            }
 
             // Force immediate repaint
             frame.revalidate();
@@ -0,0 +1,294 @@
+package de.schoenfeld.chess.board;
+
+import de.schoenfeld.chess.model.ChessBoardBounds;
+import de.schoenfeld.chess.model.ChessPiece;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A compact {@link ImmutableChessBoard} for arbitrary {@link ChessBoardBounds}.
+ * <p>
+ * Every square is stored as a single byte piece code in a flat array of
+ * {@link ChessBoardBounds#squareCount()} entries, where {@code 0} marks an empty square.
+ * Codes refer to a small piece table that is shared between boards derived from each other
+ * and only copied when a piece is added that the table does not know yet.
+ * Modifications therefore copy one byte per square instead of one reference per square,
+ * and update the Zobrist key and the {@link PieceSquares} index incrementally.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public final class ArrayChessBoard implements ImmutableChessBoard {
+    @Serial
+    private static final long serialVersionUID = -3204915520913618270L;
+    /**
+     * Codes are stored as unsigned bytes, {@code 0} being reserved for empty squares.
+     */
+    private static final int MAX_PIECE_CODES = 255;
+    private static final byte EMPTY = 0;
+
+    private final byte[] squares;
+    private final ChessPiece[] pieceTable;
+    private final ChessBoardBounds bounds;
+    private final long zobristKey;
+    private final PieceSquares pieceSquares;
+
+    private ArrayChessBoard(byte[] squares, ChessPiece[] pieceTable, ChessBoardBounds bounds,
+                            long zobristKey, PieceSquares pieceSquares) {
+        this.squares = squares;
+        this.pieceTable = pieceTable;
+        this.bounds = bounds;
+        this.zobristKey = zobristKey;
+        this.pieceSquares = pieceSquares;
+    }
+
+    public ArrayChessBoard(ChessBoardBounds bounds) {
+        this(new byte[Objects.requireNonNull(bounds, "Bounds cannot be null").squareCount()],
+                new ChessPiece[0], bounds, 0L, PieceSquares.EMPTY);
+    }
+
+    private ChessPiece decode(byte code) {
+        return code == EMPTY ? null : pieceTable[(code & 0xFF) - 1];
+    }
+
+    private int findCode(ChessPiece piece) {
+        for (int i = 0; i < pieceTable.length; i++)
+            if (pieceTable[i].equals(piece)) return i + 1;
+        return EMPTY;
+    }
+
+    private int calculateIndex(Position position) {
+        if (!bounds.contains(position)) {
+            throw new IndexOutOfBoundsException("Position out of bounds: " + position);
+        }
+        return bounds.toIndex(position);
+    }
+
+    /**
+     * Returns a board with the given piece written to the square at {@code index} of {@code newSquares}.
+     * The piece table is only extended if it does not contain the piece yet.
+     * The given key and piece index must already account for the change.
+     */
+    private ArrayChessBoard withCode(ChessPiece piece, int index, byte[] newSquares,
+                                     long newKey, PieceSquares newPieceSquares) {
+        int code = findCode(piece);
+        ChessPiece[] newTable = pieceTable;
+
+        if (code == EMPTY) {
+            if (pieceTable.length == MAX_PIECE_CODES) {
+                ArrayChessBoard compacted = new ArrayChessBoard(newSquares, pieceTable, bounds,
+                        newKey, newPieceSquares).compacted();
+                if (compacted.pieceTable.length == MAX_PIECE_CODES)
+                    throw new IllegalStateException("ArrayChessBoard supports at most "
+                            + MAX_PIECE_CODES + " distinct pieces");
+                return compacted.withCode(piece, index, compacted.squares, newKey, newPieceSquares);
+            }
+            newTable = Arrays.copyOf(pieceTable, pieceTable.length + 1);
+            newTable[pieceTable.length] = piece;
+            code = newTable.length;
+        }
+
+        newSquares[index] = (byte) code;
+        return new ArrayChessBoard(newSquares, newTable, bounds, newKey, newPieceSquares);
+    }
+
+    /**
+     * Returns an equal board whose piece table only contains the pieces that are on the board.
+     */
+    private ArrayChessBoard compacted() {
+        List<ChessPiece> table = new ArrayList<>();
+        byte[] newSquares = new byte[squares.length];
+
+        for (int i = 0; i < squares.length; i++) {
+            ChessPiece piece = decode(squares[i]);
+            if (piece == null) continue;
+            int code = table.indexOf(piece) + 1;
+            if (code == 0) {
+                table.add(piece);
+                code = table.size();
+            }
+            newSquares[i] = (byte) code;
+        }
+
+        return new ArrayChessBoard(newSquares, table.toArray(ChessPiece[]::new), bounds,
+                zobristKey, pieceSquares);
+    }
+
+    private List<ChessPiece> piecesAt(List<Position> positions) {
+        List<ChessPiece> pieces = new ArrayList<>(positions.size());
+        for (Position position : positions) pieces.add(decode(squares[bounds.toIndex(position)]));
+        return pieces;
+    }
+
+    @Override
+    public ChessPiece getPieceAt(Position position) {
+        return decode(squares[calculateIndex(position)]);
+    }
+
+    @Override
+    public ChessPiece getPieceAt(int square) {
+        return decode(squares[square]);
+    }
+
+    @Override
+    public Position getPiecePosition(ChessPiece chessPiece) {
+        int code = findCode(chessPiece);
+        if (code == EMPTY) return null;
+
+        for (Position position : pieceSquares.positionsOf(chessPiece.pieceType(), chessPiece.isWhite()))
+            if ((squares[bounds.toIndex(position)] & 0xFF) == code) return position;
+        return null;
+    }
+
+    @Override
+    public ChessBoardBounds getBounds() {
+        return bounds;
+    }
+
+    @Override
+    public List<ChessPiece> getPiecesOfColour(boolean isWhite) {
+        return piecesAt(pieceSquares.positionsOf(isWhite));
+    }
+
+    @Override
+    public List<ChessPiece> getPieces() {
+        return piecesAt(pieceSquares.positions());
+    }
+
+    @Override
+    public List<ChessPiece> getPiecesOfType(PieceType pieceType, boolean isWhite) {
+        return piecesAt(pieceSquares.positionsOf(pieceType, isWhite));
+    }
+
+    @Override
+    public List<Position> getPiecePositions(PieceType pieceType, boolean isWhite) {
+        return pieceSquares.positionsOf(pieceType, isWhite);
+    }
+
+    @Override
+    public String toFen() {
+        return BoardUtility.toFen(this);
+    }
+
+    @Override
+    public ArrayChessBoard withPieceAt(ChessPiece piece, Position position) {
+        Objects.requireNonNull(piece, "piece cannot be null");
+        int index = calculateIndex(position);
+        ChessPiece replaced = decode(squares[index]);
+        long key = zobristKey ^ Zobrist.pieceKey(replaced, position) ^ Zobrist.pieceKey(piece, position);
+        return withCode(piece, index, squares.clone(), key,
+                pieceSquares.without(replaced, position).with(piece, position));
+    }
+
+    @Override
+    public ArrayChessBoard withoutPieceAt(Position position) {
+        int index = calculateIndex(position);
+        if (squares[index] == EMPTY) return this;
+
+        ChessPiece removed = decode(squares[index]);
+        byte[] newSquares = squares.clone();
+        newSquares[index] = EMPTY;
+        return new ArrayChessBoard(newSquares, pieceTable, bounds,
+                zobristKey ^ Zobrist.pieceKey(removed, position), pieceSquares.without(removed, position));
+    }
+
+    @Override
+    public ArrayChessBoard withPieceMoved(Position from, Position to) {
+        return withPieceMoved(calculateIndex(from), calculateIndex(to));
+    }
+
+    @Override
+    public ArrayChessBoard withPieceMoved(int fromIndex, int toIndex) {
+        Position from = bounds.toPosition(fromIndex);
+        Position to = bounds.toPosition(toIndex);
+        ChessPiece piece = decode(squares[fromIndex]);
+        if (piece == null) throw new IllegalArgumentException("No piece at " + from);
+
+        ChessPiece captured = decode(squares[toIndex]);
+        long key = zobristKey ^ Zobrist.pieceKey(piece, from)
+                ^ Zobrist.pieceKey(captured, to) ^ Zobrist.pieceKey(piece, to);
+        PieceSquares newPieceSquares = pieceSquares.without(piece, from)
+                .without(captured, to)
+                .with(piece, to);
+
+        byte[] newSquares = squares.clone();
+        newSquares[toIndex] = squares[fromIndex];
+        newSquares[fromIndex] = EMPTY;
+        return new ArrayChessBoard(newSquares, pieceTable, bounds, key, newPieceSquares);
+    }
+
+    @Override
+    public ArrayChessBoard withAllPieces(Map<Position, ChessPiece> pieces) {
+        ArrayChessBoard board = withoutPieces();
+        for (var entry : pieces.entrySet()) {
+            int index = calculateIndex(entry.getKey());
+            ChessPiece replaced = board.decode(board.squares[index]);
+            long key = board.zobristKey ^ Zobrist.pieceKey(replaced, entry.getKey())
+                    ^ Zobrist.pieceKey(entry.getValue(), entry.getKey());
+            board = board.withCode(entry.getValue(), index, board.squares, key,
+                    board.pieceSquares.without(replaced, entry.getKey()).with(entry.getValue(), entry.getKey()));
+        }
+        return board;
+    }
+
+    @Override
+    public ArrayChessBoard withoutPieces() {
+        return new ArrayChessBoard(new byte[squares.length], pieceTable, bounds, 0L, PieceSquares.EMPTY);
+    }
+
+    @Override
+    public ArrayChessBoard withBounds(ChessBoardBounds newBounds) {
+        byte[] newSquares = new byte[newBounds.squareCount()];
+        long key = 0L;
+        PieceSquares newPieceSquares = PieceSquares.EMPTY;
+
+        for (int i = 0; i < squares.length; i++) {
+            if (squares[i] == EMPTY) continue;
+            Position position = bounds.toPosition(i);
+            if (newBounds.contains(position)) {
+                newSquares[newBounds.toIndex(position)] = squares[i];
+                key ^= Zobrist.pieceKey(decode(squares[i]), position);
+                newPieceSquares = newPieceSquares.with(decode(squares[i]), position);
+            }
+        }
+
+        return new ArrayChessBoard(newSquares, pieceTable, newBounds, key, newPieceSquares);
+    }
+
+    @Override
+    public long zobristKey() {
+        return zobristKey;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (!(object instanceof ArrayChessBoard that)) return false;
+        if (!bounds.equals(that.bounds)) return false;
+        for (int i = 0; i < squares.length; i++)
+            if (!Objects.equals(decode(squares[i]), that.decode(that.squares[i]))) return false;
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = bounds.hashCode();
+        for (byte code : squares) result = 31 * result + Objects.hashCode(decode(code));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ArrayChessBoard{" +
+                "fen=" + toFen() +
+                ", bounds=" + bounds +
+                '}';
+    }
+}
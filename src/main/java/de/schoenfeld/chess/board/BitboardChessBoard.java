@@ -0,0 +1,348 @@
+package de.schoenfeld.chess.board;
+
+import de.schoenfeld.chess.model.ChessBoardBounds;
+import de.schoenfeld.chess.model.ChessPiece;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An {@link ImmutableChessBoard} backed by bitboards, intended for standard 8x8 play.
+ * <p>
+ * Every piece type has one {@code long} in which bit {@code y * 8 + x} is set if a piece of that type
+ * occupies {@code (x, y)}. Two further bitboards hold the squares occupied by white and black pieces.
+ * Lookups and updates therefore run in constant time, and every modification allocates nothing but
+ * the new record. The {@code zobristKey} is updated incrementally along with the bitboards.
+ * </p>
+ * <p>
+ * Since the board only stores bits, the {@link ChessPiece} instances it hands out are the canonical
+ * pieces of {@link ChessPiece#of(PieceType, boolean)}.
+ * Only the six standard {@link PieceType}s are supported, and the bounds must not exceed 8x8.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public record BitboardChessBoard(
+        long pawns,
+        long knights,
+        long bishops,
+        long rooks,
+        long queens,
+        long kings,
+        long whitePieces,
+        long blackPieces,
+        long zobristKey,
+        ChessBoardBounds bounds
+) implements ImmutableChessBoard {
+    private static final List<PieceType> PIECE_TYPES = List.of(
+            PieceType.PAWN, PieceType.KNIGHT, PieceType.BISHOP,
+            PieceType.ROOK, PieceType.QUEEN, PieceType.KING
+    );
+    /**
+     * The canonical pieces, indexed by {@code typeIndex * 2} for white and {@code typeIndex * 2 + 1} for black.
+     */
+    private static final ChessPiece[] PIECES = createPieces();
+
+    public BitboardChessBoard {
+        Objects.requireNonNull(bounds, "Bounds cannot be null");
+        if (bounds.rows() > 8 || bounds.columns() > 8)
+            throw new IllegalArgumentException("BitboardChessBoard supports at most 8x8 bounds");
+    }
+
+    public BitboardChessBoard(ChessBoardBounds bounds) {
+        this(0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, bounds);
+    }
+
+    public BitboardChessBoard() {
+        this(new ChessBoardBounds(8, 8));
+    }
+
+    private static ChessPiece[] createPieces() {
+        ChessPiece[] pieces = new ChessPiece[PIECE_TYPES.size() * 2];
+        for (int type = 0; type < PIECE_TYPES.size(); type++) {
+            pieces[type * 2] = ChessPiece.of(PIECE_TYPES.get(type), true);
+            pieces[type * 2 + 1] = ChessPiece.of(PIECE_TYPES.get(type), false);
+        }
+        return pieces;
+    }
+
+    private static int typeIndex(ChessPiece piece) {
+        int index = piece.index() >> 1;
+        if (index >= PIECE_TYPES.size())
+            throw new IllegalArgumentException("Unsupported piece type: " + piece.pieceType());
+        return index;
+    }
+
+    private static int square(Position position) {
+        return position.y() * 8 + position.x();
+    }
+
+    /**
+     * Converts a square index of the bounds, see {@link ChessBoardBounds#toIndex(int, int)},
+     * into a bit index, which coincide on boards with 8 rows.
+     */
+    private int square(int index) {
+        return bounds.rows() == 8 ? index : square(bounds.toPosition(index));
+    }
+
+    private static Position position(int square) {
+        return Position.of(square & 7, square >>> 3);
+    }
+
+    /**
+     * Moves the bit at {@code from} to {@code to} if it is set, otherwise clears the bit at {@code to}.
+     */
+    private static long move(long bitboard, long from, long to) {
+        if ((bitboard & from) != 0) return (bitboard & ~from) | to;
+        return bitboard & ~to;
+    }
+
+    /**
+     * Returns the bitboard of all occupied squares.
+     *
+     * @return The occupancy bitboard
+     */
+    public long occupied() {
+        return whitePieces | blackPieces;
+    }
+
+    /**
+     * Returns the bitboard of all squares occupied by pieces of the given colour.
+     *
+     * @param isWhite Whether to return the white or the black pieces
+     * @return The occupancy bitboard of the given colour
+     */
+    public long piecesOfColour(boolean isWhite) {
+        return isWhite ? whitePieces : blackPieces;
+    }
+
+    /**
+     * Returns the bitboard of all squares occupied by pieces of the given type, regardless of colour.
+     *
+     * @param pieceType The piece type
+     * @return The bitboard of the given type, or {@code 0} if the type is not supported
+     */
+    public long piecesOfType(PieceType pieceType) {
+        int index = PIECE_TYPES.indexOf(pieceType);
+        return index == -1 ? 0L : bitboard(index);
+    }
+
+    private long bitboard(int typeIndex) {
+        return switch (typeIndex) {
+            case 0 -> pawns;
+            case 1 -> knights;
+            case 2 -> bishops;
+            case 3 -> rooks;
+            case 4 -> queens;
+            case 5 -> kings;
+            default -> throw new IllegalArgumentException("Invalid type index: " + typeIndex);
+        };
+    }
+
+    private ChessPiece pieceAt(int square) {
+        long bit = 1L << square;
+        if ((occupied() & bit) == 0) return null;
+
+        int type = 0;
+        while ((bitboard(type) & bit) == 0) type++;
+
+        return PIECES[type * 2 + ((whitePieces & bit) != 0 ? 0 : 1)];
+    }
+
+    private long keyAt(int square) {
+        return Zobrist.pieceKey(pieceAt(square), position(square));
+    }
+
+    private BitboardChessBoard withKeyOfPieces() {
+        return new BitboardChessBoard(pawns, knights, bishops, rooks, queens, kings,
+                whitePieces, blackPieces, Zobrist.keyOf(this), bounds);
+    }
+
+    private List<ChessPiece> piecesOf(long bitboard) {
+        List<ChessPiece> pieces = new ArrayList<>(Long.bitCount(bitboard));
+        while (bitboard != 0) {
+            pieces.add(pieceAt(Long.numberOfTrailingZeros(bitboard)));
+            bitboard &= bitboard - 1;
+        }
+        return pieces;
+    }
+
+    @Override
+    public ChessPiece getPieceAt(Position position) {
+        if (!bounds.contains(position)) return null;
+        return pieceAt(square(position));
+    }
+
+    @Override
+    public ChessPiece getPieceAt(int index) {
+        return pieceAt(square(index));
+    }
+
+    @Override
+    public Position getPiecePosition(ChessPiece chessPiece) {
+        if (chessPiece == null) return null;
+
+        int index = PIECE_TYPES.indexOf(chessPiece.pieceType());
+        if (index == -1) return null;
+        long candidates = bitboard(index) & piecesOfColour(chessPiece.isWhite());
+        return candidates == 0 ? null : position(Long.numberOfTrailingZeros(candidates));
+    }
+
+    @Override
+    public ChessBoardBounds getBounds() {
+        return bounds;
+    }
+
+    @Override
+    public List<ChessPiece> getPiecesOfColour(boolean isWhite) {
+        return piecesOf(piecesOfColour(isWhite));
+    }
+
+    @Override
+    public List<ChessPiece> getPieces() {
+        return piecesOf(occupied());
+    }
+
+    @Override
+    public List<ChessPiece> getPiecesOfType(PieceType pieceType, boolean isWhite) {
+        return piecesOf(piecesOfType(pieceType) & piecesOfColour(isWhite));
+    }
+
+    @Override
+    public List<Position> getPiecePositions(PieceType pieceType, boolean isWhite) {
+        long bitboard = piecesOfType(pieceType) & piecesOfColour(isWhite);
+        List<Position> positions = new ArrayList<>(Long.bitCount(bitboard));
+        while (bitboard != 0) {
+            positions.add(position(Long.numberOfTrailingZeros(bitboard)));
+            bitboard &= bitboard - 1;
+        }
+        return positions;
+    }
+
+    @Override
+    public String toFen() {
+        return BoardUtility.toFen(this);
+    }
+
+    @Override
+    public BitboardChessBoard withPieceAt(ChessPiece piece, Position position) {
+        if (!bounds.contains(position))
+            throw new IllegalArgumentException("position must be in bounds");
+        int type = typeIndex(piece);
+        int square = square(position);
+        long bit = 1L << square;
+        long clear = ~bit;
+        long key = zobristKey ^ keyAt(square) ^ Zobrist.pieceKey(piece, position);
+
+        return new BitboardChessBoard(
+                (pawns & clear) | (type == 0 ? bit : 0L),
+                (knights & clear) | (type == 1 ? bit : 0L),
+                (bishops & clear) | (type == 2 ? bit : 0L),
+                (rooks & clear) | (type == 3 ? bit : 0L),
+                (queens & clear) | (type == 4 ? bit : 0L),
+                (kings & clear) | (type == 5 ? bit : 0L),
+                (whitePieces & clear) | (piece.isWhite() ? bit : 0L),
+                (blackPieces & clear) | (piece.isWhite() ? 0L : bit),
+                key,
+                bounds
+        );
+    }
+
+    @Override
+    public BitboardChessBoard withoutPieceAt(Position position) {
+        if (!bounds.contains(position)) return this;
+        int square = square(position);
+        long clear = ~(1L << square);
+
+        return new BitboardChessBoard(
+                pawns & clear, knights & clear, bishops & clear,
+                rooks & clear, queens & clear, kings & clear,
+                whitePieces & clear, blackPieces & clear,
+                zobristKey ^ keyAt(square),
+                bounds
+        );
+    }
+
+    @Override
+    public BitboardChessBoard withPieceMoved(Position from, Position to) {
+        if (!bounds.contains(from) || !bounds.contains(to))
+            throw new IllegalArgumentException("positions must be in bounds");
+        return movedBetween(square(from), square(to));
+    }
+
+    @Override
+    public BitboardChessBoard withPieceMoved(int from, int to) {
+        return movedBetween(square(from), square(to));
+    }
+
+    private BitboardChessBoard movedBetween(int fromSquare, int toSquare) {
+        Position from = position(fromSquare);
+        Position to = position(toSquare);
+        long fromBit = 1L << fromSquare;
+        long toBit = 1L << toSquare;
+        ChessPiece piece = pieceAt(fromSquare);
+        if (piece == null)
+            throw new IllegalArgumentException("No piece at " + from);
+
+        long key = zobristKey ^ Zobrist.pieceKey(piece, from) ^ keyAt(toSquare)
+                ^ Zobrist.pieceKey(piece, to);
+
+        return new BitboardChessBoard(
+                move(pawns, fromBit, toBit),
+                move(knights, fromBit, toBit),
+                move(bishops, fromBit, toBit),
+                move(rooks, fromBit, toBit),
+                move(queens, fromBit, toBit),
+                move(kings, fromBit, toBit),
+                move(whitePieces, fromBit, toBit),
+                move(blackPieces, fromBit, toBit),
+                key,
+                bounds
+        );
+    }
+
+    @Override
+    public BitboardChessBoard withAllPieces(Map<Position, ChessPiece> pieces) {
+        long[] types = new long[PIECE_TYPES.size()];
+        long white = 0L, black = 0L;
+
+        for (var entry : pieces.entrySet()) {
+            Position position = entry.getKey();
+            ChessPiece piece = entry.getValue();
+            if (!bounds.contains(position))
+                throw new IllegalArgumentException("position must be in bounds");
+
+            long bit = 1L << square(position);
+            types[typeIndex(piece)] |= bit;
+            if (piece.isWhite()) white |= bit;
+            else black |= bit;
+        }
+
+        return new BitboardChessBoard(types[0], types[1], types[2], types[3], types[4], types[5],
+                white, black, 0L, bounds).withKeyOfPieces();
+    }
+
+    @Override
+    public BitboardChessBoard withoutPieces() {
+        return new BitboardChessBoard(bounds);
+    }
+
+    @Override
+    public BitboardChessBoard withBounds(ChessBoardBounds newBounds) {
+        long mask = 0L;
+        for (int y = 0; y < 8; y++)
+            for (int x = 0; x < 8; x++)
+                if (newBounds.contains(Position.of(x, y))) mask |= 1L << (y * 8 + x);
+
+        return new BitboardChessBoard(
+                pawns & mask, knights & mask, bishops & mask,
+                rooks & mask, queens & mask, kings & mask,
+                whitePieces & mask, blackPieces & mask,
+                0L, newBounds
+        ).withKeyOfPieces();
+    }
+}
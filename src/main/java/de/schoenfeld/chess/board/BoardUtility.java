@@ -2,15 +2,29 @@ package de.schoenfeld.chess.board;
 
 import de.schoenfeld.chess.model.*;
 
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 public final class BoardUtility {
     private BoardUtility() {
     }
 
     public static ImmutableChessBoard fromFen(String fen) {
+        return fromFen(fen, MapChessBoard::new);
+    }
+
+    /**
+     * Parses the piece placement of the given FEN into a board created by the given factory.
+     *
+     * @param fen          The FEN string
+     * @param boardFactory Creates an empty board for the given bounds,
+     *                     e.g. {@code BitboardChessBoard::new} or {@code ListChessBoard::new}
+     * @return The board holding the pieces described by the FEN
+     * @throws IllegalArgumentException if the FEN is invalid
+     */
+    public static ImmutableChessBoard fromFen(String fen,
+                                              Function<ChessBoardBounds, ? extends ImmutableChessBoard> boardFactory) {
         Map<Position, ChessPiece> positions = new HashMap<>();
         String[] fenParts = fen.split("\\s+");
         String[] ranks = fenParts[0].split("/");
@@ -44,10 +58,7 @@ public final class BoardUtility {
             );
         }
 
-        return new MapChessBoard(
-                Collections.unmodifiableMap(positions),
-                new ChessBoardBounds(8, 8)
-        );
+        return boardFactory.apply(new ChessBoardBounds(8, 8)).withAllPieces(positions);
     }
 
     private static ChessPiece createPieceFromFenChar(char c) {
@@ -66,11 +77,50 @@ public final class BoardUtility {
             );
         };
 
-        return new ChessPiece(type, isWhite);
+        return ChessPiece.of(type, isWhite);
     }
 
     public static ImmutableChessBoard getDefaultBoard() {
-        return fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR");
+        return getDefaultBoard(MapChessBoard::new);
+    }
+
+    public static ImmutableChessBoard getDefaultBoard(
+            Function<ChessBoardBounds, ? extends ImmutableChessBoard> boardFactory) {
+        return fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR", boardFactory);
+    }
+
+    /**
+     * Serializes the piece placement of the given board into FEN notation.
+     *
+     * @param board The board to serialize
+     * @return The piece placement part of the FEN
+     */
+    public static String toFen(ImmutableChessBoard board) {
+        ChessBoardBounds bounds = board.getBounds();
+        StringBuilder fen = new StringBuilder();
+        for (int y = bounds.columns() - 1; y >= 0; y--) {
+            int emptyCounter = 0;
+
+            for (int x = 0; x < bounds.rows(); x++) {
+                ChessPiece piece = board.getPieceAt(Position.of(x, y));
+
+                if (piece == null) {
+                    emptyCounter++;
+                } else {
+                    if (emptyCounter > 0) {
+                        fen.append(emptyCounter);
+                        emptyCounter = 0;
+                    }
+                    String symbol = piece.pieceType().symbol().isEmpty()
+                            ? "p" : piece.pieceType().symbol().toLowerCase();
+                    fen.append(piece.isWhite() ? symbol.toUpperCase() : symbol);
+                }
+            }
+
+            if (emptyCounter > 0) fen.append(emptyCounter);
+            if (y > 0) fen.append('/');
+        }
+        return fen.toString();
     }
 
     public static GameState fromPgn(String pgn) {
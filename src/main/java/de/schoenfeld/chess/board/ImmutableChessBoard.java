@@ -6,12 +6,33 @@ import de.schoenfeld.chess.model.PieceType;
 import de.schoenfeld.chess.model.Position;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 public interface ImmutableChessBoard extends Serializable {
     ChessPiece getPieceAt(Position position);
 
+    /**
+     * Returns the piece on the square with the given index, see {@link ChessBoardBounds#toIndex(int, int)}.
+     * Implementations backed by flat arrays override this to avoid the detour through {@link Position}.
+     *
+     * @param square The index of the square within the bounds of this board
+     * @return The piece on the square, or {@code null} if it is empty
+     */
+    default ChessPiece getPieceAt(int square) {
+        return getPieceAt(getBounds().toPosition(square));
+    }
+
+    /**
+     * Returns the position of a piece equal to the given one.
+     * Equal pieces are the same instance, see {@link ChessPiece#of(PieceType, boolean)}, so if several of them
+     * stand on the board, any of their positions may be returned; the result is only meaningful for pieces that
+     * are unique on the board, such as kings. Use {@link #getPiecePositions(PieceType, boolean)} otherwise.
+     *
+     * @param chessPiece The piece
+     * @return The position of a matching piece, or {@code null} if there is none
+     */
     Position getPiecePosition(ChessPiece chessPiece);
 
     ChessBoardBounds getBounds();
@@ -22,6 +43,26 @@ public interface ImmutableChessBoard extends Serializable {
 
     List<ChessPiece> getPiecesOfType(PieceType pieceType, boolean isWhite);
 
+    /**
+     * Returns the positions of all pieces of the given type and colour.
+     * Boards that index their pieces by type answer this in O(k) for the k matching pieces;
+     * the default implementation scans all squares.
+     *
+     * @param pieceType The piece type
+     * @param isWhite   The colour of the pieces
+     * @return The positions of the matching pieces
+     */
+    default List<Position> getPiecePositions(PieceType pieceType, boolean isWhite) {
+        ChessBoardBounds bounds = getBounds();
+        List<Position> positions = new ArrayList<>();
+        for (int i = 0; i < bounds.squareCount(); i++) {
+            ChessPiece piece = getPieceAt(i);
+            if (piece != null && piece.isWhite() == isWhite && pieceType.equals(piece.pieceType()))
+                positions.add(bounds.toPosition(i));
+        }
+        return positions;
+    }
+
     String toFen();
 
     ImmutableChessBoard withPieceAt(ChessPiece piece, Position position);
@@ -30,9 +71,33 @@ public interface ImmutableChessBoard extends Serializable {
 
     ImmutableChessBoard withPieceMoved(Position from, Position to);
 
+    /**
+     * Returns a board on which the piece on square {@code from} has been moved to square {@code to}.
+     * Squares are indexed as in {@link #getPieceAt(int)}.
+     *
+     * @param from The index of the square of the piece to move
+     * @param to   The index of the target square
+     * @return The resulting board
+     */
+    default ImmutableChessBoard withPieceMoved(int from, int to) {
+        ChessBoardBounds bounds = getBounds();
+        return withPieceMoved(bounds.toPosition(from), bounds.toPosition(to));
+    }
+
     ImmutableChessBoard withAllPieces(Map<Position, ChessPiece> pieces);
 
     ImmutableChessBoard withoutPieces();
 
     ImmutableChessBoard withBounds(ChessBoardBounds bounds);
+
+    /**
+     * Returns the Zobrist key of the pieces on this board, see {@link Zobrist}.
+     * Implementations are expected to keep the key up to date incrementally;
+     * the default implementation computes it from scratch.
+     *
+     * @return The 64-bit Zobrist key of this board
+     */
+    default long zobristKey() {
+        return Zobrist.keyOf(this);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package de.schoenfeld.chess.board;
+
+/**
+ * Knight, king and pawn attacks on 8x8 bitboards, precomputed for every square.
+ * <p>
+ * Squares are the bit indices of {@link BitboardChessBoard}, {@code y * 8 + x}. Ranks and files are provided as
+ * masks for set-wise generation, e.g. to shift all pawns of a side at once without wrapping around the board edge.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public final class LeaperBitboards {
+    /**
+     * The squares with {@code x == 0}.
+     */
+    public static final long FILE_A = 0x0101_0101_0101_0101L;
+    /**
+     * The squares with {@code x == 7}.
+     */
+    public static final long FILE_H = FILE_A << 7;
+    /**
+     * The squares with {@code y == 0}.
+     */
+    public static final long RANK_1 = 0xFFL;
+    /**
+     * The squares with {@code y == 2}, reached by a single step of white pawns from their start rank.
+     */
+    public static final long RANK_3 = RANK_1 << 16;
+    /**
+     * The squares with {@code y == 5}, reached by a single step of black pawns from their start rank.
+     */
+    public static final long RANK_6 = RANK_1 << 40;
+    /**
+     * The squares with {@code y == 7}.
+     */
+    public static final long RANK_8 = RANK_1 << 56;
+
+    private static final int SQUARES = 64;
+    private static final int[][] KNIGHT_OFFSETS = {
+            {1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}
+    };
+    private static final int[][] KING_OFFSETS = {
+            {1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}
+    };
+    private static final long[] KNIGHT_ATTACKS = attacks(KNIGHT_OFFSETS);
+    private static final long[] KING_ATTACKS = attacks(KING_OFFSETS);
+    private static final long[] WHITE_PAWN_ATTACKS = attacks(new int[][]{{-1, 1}, {1, 1}});
+    private static final long[] BLACK_PAWN_ATTACKS = attacks(new int[][]{{-1, -1}, {1, -1}});
+
+    private LeaperBitboards() {
+    }
+
+    private static long[] attacks(int[][] offsets) {
+        long[] attacks = new long[SQUARES];
+        for (int square = 0; square < SQUARES; square++) {
+            int x = square & 7, y = square >>> 3;
+            for (int[] offset : offsets) {
+                int targetX = x + offset[0], targetY = y + offset[1];
+                if (targetX >= 0 && targetX < 8 && targetY >= 0 && targetY < 8)
+                    attacks[square] |= 1L << (targetY * 8 + targetX);
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Returns the squares a knight on the given square attacks.
+     *
+     * @param square The square of the knight
+     * @return The attacked squares
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * Returns the squares a king on the given square attacks.
+     *
+     * @param square The square of the king
+     * @return The attacked squares
+     */
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * Returns the squares a pawn of the given colour on the given square attacks.
+     *
+     * @param square  The square of the pawn
+     * @param isWhite The colour of the pawn
+     * @return The attacked squares
+     */
+    public static long pawnAttacks(int square, boolean isWhite) {
+        return isWhite ? WHITE_PAWN_ATTACKS[square] : BLACK_PAWN_ATTACKS[square];
+    }
+}
@@ -10,7 +10,9 @@ import java.util.stream.IntStream;
 
 public record ListChessBoard(
         List<ChessPiece> pieces,
-        ChessBoardBounds bounds
+        PieceSquares pieceSquares,
+        ChessBoardBounds bounds,
+        long zobristKey
 ) implements ImmutableChessBoard {
 
     public ListChessBoard {
@@ -22,8 +24,35 @@ public record ListChessBoard(
         validateBoardSize(bounds, pieces);
     }
 
+    public ListChessBoard(List<ChessPiece> pieces, ChessBoardBounds bounds) {
+        this(pieces, indexPieces(pieces, bounds), bounds, computeKey(pieces, bounds));
+    }
+
     public ListChessBoard(ChessBoardBounds bounds) {
-        this(createEmptyList(bounds), bounds);
+        this(createEmptyList(bounds), PieceSquares.EMPTY, bounds, 0L);
+    }
+
+    private static long computeKey(List<ChessPiece> pieces, ChessBoardBounds bounds) {
+        long key = 0L;
+        for (int i = 0; i < pieces.size(); i++) {
+            ChessPiece piece = pieces.get(i);
+            if (piece != null)
+                key ^= Zobrist.pieceKey(piece, Position.of(i % bounds.columns(), i / bounds.columns()));
+        }
+        return key;
+    }
+
+    private static PieceSquares indexPieces(List<ChessPiece> pieces, ChessBoardBounds bounds) {
+        PieceSquares pieceSquares = PieceSquares.EMPTY;
+        for (int i = 0; i < pieces.size(); i++)
+            pieceSquares = pieceSquares.with(pieces.get(i), Position.of(i % bounds.columns(), i / bounds.columns()));
+        return pieceSquares;
+    }
+
+    private List<ChessPiece> piecesAt(List<Position> positions) {
+        List<ChessPiece> result = new ArrayList<>(positions.size());
+        for (Position position : positions) result.add(pieces.get(calculateIndex(position)));
+        return result;
     }
 
     private static List<ChessPiece> createEmptyList(ChessBoardBounds bounds) {
@@ -57,16 +86,10 @@ public record ListChessBoard(
 
     @Override
     public Position getPiecePosition(ChessPiece chessPiece) {
-        int index = IntStream.range(0, pieces.size())
-                .filter(i -> chessPiece.equals(pieces.get(i)))
-                .findFirst()
-                .orElse(-1);
-
-        if (index == -1) return null;
-
-        int y = index / bounds.columns();
-        int x = index % bounds.columns();
-        return new Position(x, y);
+        if (chessPiece == null) return null;
+        for (Position position : pieceSquares.positionsOf(chessPiece.pieceType(), chessPiece.isWhite()))
+            if (chessPiece.equals(getPieceAt(position))) return position;
+        return null;
     }
 
     @Override
@@ -76,32 +99,34 @@ public record ListChessBoard(
 
     @Override
     public List<ChessPiece> getPiecesOfColour(boolean isWhite) {
-        return pieces.stream()
-                .filter(Objects::nonNull)
-                .filter(p -> p.isWhite() == isWhite)
-                .toList();
+        return piecesAt(pieceSquares.positionsOf(isWhite));
     }
 
     @Override
     public List<ChessPiece> getPiecesOfType(PieceType pieceType, boolean colour) {
-        return pieces.stream()
-                .filter(Objects::nonNull)
-                .filter(p -> p.pieceType().equals(pieceType) && p.isWhite() == colour)
-                .toList();
+        return piecesAt(pieceSquares.positionsOf(pieceType, colour));
+    }
+
+    @Override
+    public List<Position> getPiecePositions(PieceType pieceType, boolean isWhite) {
+        return pieceSquares.positionsOf(pieceType, isWhite);
     }
 
     @Override
     public ListChessBoard withPieceAt(ChessPiece piece, Position position) {
         List<ChessPiece> newPieces = new ArrayList<>(pieces);
-        newPieces.set(calculateIndex(position), piece);
-        return new ListChessBoard(newPieces, bounds);
+        ChessPiece replaced = newPieces.set(calculateIndex(position), piece);
+        long key = zobristKey ^ Zobrist.pieceKey(replaced, position) ^ Zobrist.pieceKey(piece, position);
+        return new ListChessBoard(newPieces, pieceSquares.without(replaced, position).with(piece, position),
+                bounds, key);
     }
 
     @Override
     public ListChessBoard withoutPieceAt(Position position) {
         List<ChessPiece> newPieces = new ArrayList<>(pieces);
-        newPieces.set(calculateIndex(position), null);
-        return new ListChessBoard(newPieces, bounds);
+        ChessPiece removed = newPieces.set(calculateIndex(position), null);
+        return new ListChessBoard(newPieces, pieceSquares.without(removed, position),
+                bounds, zobristKey ^ Zobrist.pieceKey(removed, position));
     }
 
     @Override
@@ -109,8 +134,13 @@ public record ListChessBoard(
         ChessPiece piece = getPieceAt(from);
         List<ChessPiece> newPieces = new ArrayList<>(pieces);
         newPieces.set(calculateIndex(from), null);
-        newPieces.set(calculateIndex(to), piece.withMoved(true));
-        return new ListChessBoard(newPieces, bounds);
+        ChessPiece captured = newPieces.set(calculateIndex(to), piece);
+        long key = zobristKey ^ Zobrist.pieceKey(piece, from)
+                ^ Zobrist.pieceKey(captured, to) ^ Zobrist.pieceKey(piece, to);
+        PieceSquares newPieceSquares = pieceSquares.without(piece, from)
+                .without(captured, to)
+                .with(piece, to);
+        return new ListChessBoard(newPieces, newPieceSquares, bounds, key);
     }
 
     @Override
@@ -124,14 +154,12 @@ public record ListChessBoard(
 
     @Override
     public List<ChessPiece> getPieces() {
-        return pieces.stream()
-                .filter(Objects::nonNull)
-                .toList();
+        return piecesAt(pieceSquares.positions());
     }
 
     @Override
     public ListChessBoard withoutPieces() {
-        return new ListChessBoard(createEmptyList(bounds), bounds);
+        return new ListChessBoard(bounds);
     }
 
     @Override
@@ -0,0 +1,161 @@
+package de.schoenfeld.chess.board;
+
+/**
+ * Sliding piece attacks on 8x8 bitboards, looked up in tables indexed by magic multiplication.
+ * <p>
+ * For every square, the occupancy of the squares a rook or bishop could be blocked on (its mask) is
+ * multiplied by a magic number, and the top bits of the product index a table of precomputed attack sets.
+ * The magic numbers were found once by a search over sparse random candidates and are stored below,
+ * so loading the class only fills the tables, about 100k entries, and verifies each number on the way.
+ * </p>
+ * <p>
+ * Squares are the bit indices of {@link BitboardChessBoard}, {@code y * 8 + x}.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public final class MagicBitboards {
+    private static final int SQUARES = 64;
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+    private static final long[] ROOK_MAGICS = {
+            0x0A80_0040_0080_1220L, 0x8040_0040_1000_2008L, 0x2080_2000_1000_8008L, 0x1100_1000_0821_0004L,
+            0xC200_2090_8402_0008L, 0x2100_0100_0400_0208L, 0x0400_0810_0082_2421L, 0x0200_0104_2204_8844L,
+            0x0800_8000_8040_0024L, 0x0001_4020_0040_1000L, 0x3000_8010_0080_2001L, 0x4400_8008_0010_0083L,
+            0x0904_8024_0248_0080L, 0x4040_8004_0002_0080L, 0x0018_8080_4200_0100L, 0x4040_8000_8000_4100L,
+            0x0040_0480_0145_8024L, 0x00A0_0040_0020_5000L, 0x3100_8080_1000_2000L, 0x4825_0100_1000_0820L,
+            0x5004_8080_0800_0401L, 0x2024_8180_0400_0A00L, 0x0005_8080_0200_0100L, 0x2100_0600_0480_6104L,
+            0x0080_4008_8000_8421L, 0x4062_2206_0041_0280L, 0x010A_004A_0010_8022L, 0x0000_1000_8008_0080L,
+            0x0021_0005_0008_0010L, 0x0044_0002_0200_1008L, 0x0000_1004_0008_0102L, 0xC020_1282_0004_0545L,
+            0x0080_0020_0040_0040L, 0x0000_8040_0080_2004L, 0x0000_1200_2200_4080L, 0x010A_3861_0300_1001L,
+            0x9010_0800_8080_0400L, 0x8440_0200_8080_0400L, 0x0004_2288_2400_1001L, 0x0000_0049_0A00_0084L,
+            0x0080_0020_0050_4000L, 0x2000_2000_5000_C000L, 0x0012_0880_2042_0010L, 0x0010_0100_8008_0800L,
+            0x0085_0010_0801_0004L, 0x0002_0002_0400_8080L, 0x0040_4130_0204_0008L, 0x0000_3040_8102_0004L,
+            0x0080_2040_0080_0080L, 0x3008_8040_0029_0100L, 0x1010_1000_8020_0080L, 0x2008_1002_0802_8080L,
+            0x5000_8508_0091_0100L, 0x8402_0190_0468_0200L, 0x0120_9110_2802_0400L, 0x0000_0080_4401_0200L,
+            0x0020_8502_0024_4012L, 0x0020_8502_0024_4012L, 0x0000_1020_0104_0841L, 0x1409_0004_0A10_0021L,
+            0x0002_0028_2410_A102L, 0x0002_0028_2410_A102L, 0x0002_0028_2410_A102L, 0x4048_2400_4380_2106L
+    };
+    private static final long[] BISHOP_MAGICS = {
+            0x4010_6000_A116_0020L, 0x0020_0102_5081_0120L, 0x2010_0102_2028_0081L, 0x0028_0600_4050_C040L,
+            0x0002_0210_1800_0000L, 0x2001_1120_1000_0400L, 0x0881_0101_2021_8080L, 0x1030_8201_1001_0500L,
+            0x0000_1202_2204_2400L, 0x2000_0204_0404_0044L, 0x8000_4800_9420_8000L, 0x0003_422A_0200_0001L,
+            0x000A_2202_1010_0040L, 0x8004_8202_0222_6000L, 0x0018_2348_5410_0800L, 0x0100_0040_4210_1040L,
+            0x0004_0010_0408_2820L, 0x0010_0008_1001_0048L, 0x1014_0042_0808_1300L, 0x2080_8188_0204_4202L,
+            0x0040_880C_00A0_0100L, 0x0080_4002_0052_2010L, 0x0001_0001_8818_0B04L, 0x0080_2492_0202_0204L,
+            0x1004_4000_0410_0410L, 0x0001_3100_A002_2206L, 0x2148_5000_0104_0080L, 0x4241_0800_1100_4300L,
+            0x4020_8480_0400_2000L, 0x1010_1380_D100_4100L, 0x0008_0044_2202_0284L, 0x0101_0A10_4100_8080L,
+            0x0808_0804_0008_2121L, 0x0808_0804_0008_2121L, 0x0091_1282_0010_0C00L, 0x0202_2008_0201_0104L,
+            0x8C0A_0202_0044_0085L, 0x01A0_0080_80B1_0040L, 0x0889_5200_8012_2800L, 0x1009_0202_2202_010AL,
+            0x0408_1A08_1600_2000L, 0x0000_6812_0800_5000L, 0x8170_8400_4100_8802L, 0x0A00_0042_0081_0805L,
+            0x0830_4044_0821_0100L, 0x2602_2081_0600_6102L, 0x1048_3006_8080_2628L, 0x2602_2081_0600_6102L,
+            0x0602_0101_2011_0040L, 0x0941_0108_0104_3000L, 0x0000_4044_0A21_0428L, 0x0008_2400_2088_0021L,
+            0x0400_0020_1204_8200L, 0x00AC_1020_0121_0220L, 0x0220_0210_0200_9900L, 0x8444_0C08_0A01_3080L,
+            0x0001_0080_4420_0440L, 0x0004_C044_1084_1000L, 0x2000_5001_0401_1130L, 0x1A0C_0100_11C2_0229L,
+            0x0044_8001_1220_2200L, 0x0434_8049_0810_0424L, 0x0300_4048_22C0_8200L, 0x4808_1010_008A_2A80L
+    };
+
+    private static final Table ROOK;
+    private static final Table BISHOP;
+
+    static {
+        ROOK = new Table(ROOK_DIRECTIONS, ROOK_MAGICS);
+        BISHOP = new Table(BISHOP_DIRECTIONS, BISHOP_MAGICS);
+    }
+
+    private MagicBitboards() {
+    }
+
+    /**
+     * Returns the squares a rook on the given square attacks.
+     *
+     * @param square   The square of the rook
+     * @param occupied The bitboard of all occupied squares
+     * @return The attacked squares, including occupied squares of either colour
+     */
+    public static long rookAttacks(int square, long occupied) {
+        return ROOK.attacks(square, occupied);
+    }
+
+    /**
+     * Returns the squares a bishop on the given square attacks.
+     *
+     * @param square   The square of the bishop
+     * @param occupied The bitboard of all occupied squares
+     * @return The attacked squares, including occupied squares of either colour
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        return BISHOP.attacks(square, occupied);
+    }
+
+    /**
+     * Returns the squares a queen on the given square attacks.
+     *
+     * @param square   The square of the queen
+     * @param occupied The bitboard of all occupied squares
+     * @return The attacked squares, including occupied squares of either colour
+     */
+    public static long queenAttacks(int square, long occupied) {
+        return ROOK.attacks(square, occupied) | BISHOP.attacks(square, occupied);
+    }
+
+    /**
+     * Walks the rays from the given square, stopping on the first occupied square of each ray.
+     * If {@code mask} is set, the rays stop before the edge, which yields the squares relevant for blocking.
+     */
+    private static long slide(int square, long occupied, int[][] directions, boolean mask) {
+        long attacks = 0L;
+        int fromX = square & 7, fromY = square >>> 3;
+        for (int[] direction : directions) {
+            int x = fromX + direction[0], y = fromY + direction[1];
+            while (x >= 0 && x < 8 && y >= 0 && y < 8) {
+                int nextX = x + direction[0], nextY = y + direction[1];
+                if (mask && (nextX < 0 || nextX >= 8 || nextY < 0 || nextY >= 8)) break;
+
+                long bit = 1L << (y * 8 + x);
+                attacks |= bit;
+                if ((occupied & bit) != 0) break;
+                x = nextX;
+                y = nextY;
+            }
+        }
+        return attacks;
+    }
+
+    private static final class Table {
+        private final long[] masks = new long[SQUARES];
+        private final long[] magics = new long[SQUARES];
+        private final int[] shifts = new int[SQUARES];
+        private final long[][] attacks = new long[SQUARES][];
+
+        private Table(int[][] directions, long[] magics) {
+            for (int square = 0; square < SQUARES; square++) {
+                long mask = slide(square, 0L, directions, true);
+                int shift = 64 - Long.bitCount(mask);
+                long[] table = new long[1 << Long.bitCount(mask)];
+                boolean[] filled = new boolean[table.length];
+
+                // Enumerate all subsets of the mask with the carry-rippler trick
+                long subset = 0L;
+                do {
+                    long reference = slide(square, subset, directions, false);
+                    int index = (int) ((subset * magics[square]) >>> shift);
+                    if (filled[index] && table[index] != reference)
+                        throw new IllegalStateException("Not a magic number for square " + square);
+                    filled[index] = true;
+                    table[index] = reference;
+                    subset = (subset - mask) & mask;
+                } while (subset != 0);
+
+                this.masks[square] = mask;
+                this.magics[square] = magics[square];
+                this.shifts[square] = shift;
+                this.attacks[square] = table;
+            }
+        }
+
+        private long attacks(int square, long occupied) {
+            return attacks[square][(int) (((occupied & masks[square]) * magics[square]) >>> shifts[square])];
+        }
+    }
+}
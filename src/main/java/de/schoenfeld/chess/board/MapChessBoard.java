@@ -5,32 +5,38 @@ import de.schoenfeld.chess.model.ChessPiece;
 import de.schoenfeld.chess.model.PieceType;
 import de.schoenfeld.chess.model.Position;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public record MapChessBoard(
         Map<Position, ChessPiece> positionMap,
-        Map<ChessPiece, Position> chessPieceMap,
-        ChessBoardBounds bounds
+        PieceSquares pieceSquares,
+        ChessBoardBounds bounds,
+        long zobristKey
 ) implements ImmutableChessBoard {
 
     public MapChessBoard {
         positionMap = Map.copyOf(positionMap);
-        chessPieceMap = Map.copyOf(chessPieceMap);
     }
 
     public MapChessBoard(Map<Position, ChessPiece> positionMap, ChessBoardBounds bounds) {
-        this(positionMap, positionMap.entrySet().stream().
-                        collect(Collectors.toMap(Map.Entry::getValue, Map.Entry::getKey)),
-                bounds);
+        this(positionMap, PieceSquares.of(positionMap), bounds, positionMap.entrySet().stream()
+                .mapToLong(entry -> Zobrist.pieceKey(entry.getValue(), entry.getKey()))
+                .reduce(0L, (a, b) -> a ^ b));
     }
 
     public MapChessBoard(ChessBoardBounds chessBoardBounds) {
         this(Map.of(), chessBoardBounds);
     }
 
+    private List<ChessPiece> piecesAt(List<Position> positions) {
+        List<ChessPiece> pieces = new ArrayList<>(positions.size());
+        for (Position position : positions) pieces.add(positionMap.get(position));
+        return pieces;
+    }
+
     @Override
     public ChessPiece getPieceAt(Position position) {
         return positionMap.get(position);
@@ -38,7 +44,10 @@ public record MapChessBoard(
 
     @Override
     public Position getPiecePosition(ChessPiece chessPiece) {
-        return chessPieceMap.get(chessPiece);
+        if (chessPiece == null) return null;
+        for (Position position : pieceSquares.positionsOf(chessPiece.pieceType(), chessPiece.isWhite()))
+            if (chessPiece.equals(positionMap.get(position))) return position;
+        return null;
     }
 
     @Override
@@ -48,40 +57,44 @@ public record MapChessBoard(
 
     @Override
     public List<ChessPiece> getPiecesOfColour(boolean isWhite) {
-        return chessPieceMap.keySet().stream()
-                .filter(p -> p.isWhite() == isWhite)
-                .toList();
+        return piecesAt(pieceSquares.positionsOf(isWhite));
     }
 
     @Override
     public List<ChessPiece> getPieces() {
-        return chessPieceMap.keySet().stream().toList();
+        return piecesAt(pieceSquares.positions());
     }
 
     @Override
     public List<ChessPiece> getPiecesOfType(PieceType pieceType, boolean isWhite) {
-        return chessPieceMap.keySet().stream()
-                .filter(p -> p.isWhite() == isWhite && p.pieceType().equals(pieceType))
-                .toList();
+        return piecesAt(pieceSquares.positionsOf(pieceType, isWhite));
+    }
+
+    @Override
+    public List<Position> getPiecePositions(PieceType pieceType, boolean isWhite) {
+        return pieceSquares.positionsOf(pieceType, isWhite);
     }
 
     public MapChessBoard withPieceAt(ChessPiece piece, Position position) {
         if (!bounds.contains(position))
             throw new IllegalArgumentException("position must be in bounds");
         Map<Position, ChessPiece> newPositions = new HashMap<>(positionMap);
-        newPositions.put(position, piece);
-        return new MapChessBoard(newPositions, bounds);
+        ChessPiece replaced = newPositions.put(position, piece);
+        long key = zobristKey ^ Zobrist.pieceKey(replaced, position) ^ Zobrist.pieceKey(piece, position);
+        return new MapChessBoard(newPositions, pieceSquares.without(replaced, position).with(piece, position),
+                bounds, key);
     }
 
     public MapChessBoard withoutPieceAt(Position position) {
         Map<Position, ChessPiece> newPositions = new HashMap<>(positionMap);
-        newPositions.remove(position);
-        return new MapChessBoard(newPositions, bounds);
+        ChessPiece removed = newPositions.remove(position);
+        return new MapChessBoard(newPositions, pieceSquares.without(removed, position),
+                bounds, zobristKey ^ Zobrist.pieceKey(removed, position));
     }
 
     public MapChessBoard withPieceMoved(Position from, Position to) {
         ChessPiece piece = getPieceAt(from);
-        return withoutPieceAt(from).withPieceAt(piece.withMoved(true), to);
+        return withoutPieceAt(from).withPieceAt(piece, to);
     }
 
     public MapChessBoard withAllPieces(Map<Position, ChessPiece> newPieces) {
@@ -93,7 +106,7 @@ public record MapChessBoard(
     }
 
     public MapChessBoard withBounds(ChessBoardBounds newBounds) {
-        return new MapChessBoard(positionMap, newBounds);
+        return new MapChessBoard(positionMap, pieceSquares, newBounds, zobristKey);
     }
 
     @Override
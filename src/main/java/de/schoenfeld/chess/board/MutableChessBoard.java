@@ -0,0 +1,336 @@
+package de.schoenfeld.chess.board;
+
+import de.schoenfeld.chess.model.ChessBoardBounds;
+import de.schoenfeld.chess.model.ChessPiece;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A chess board that is modified in place, meant for search and legality checking.
+ * <p>
+ * The query methods of {@link ImmutableChessBoard} always reflect the current contents of the board,
+ * so a {@link de.schoenfeld.chess.model.GameState} wrapping it can be handed to the rules without copying.
+ * The {@code with*} methods leave this board untouched and return detached {@link ArrayChessBoard} copies.
+ * </p>
+ * <p>
+ * In-place modifications go through {@link #setPieceAt(ChessPiece, Position)},
+ * {@link #removePieceAt(Position)} and {@link #movePiece(Position, Position)}.
+ * Each of them records the previous contents of the changed squares in a journal,
+ * so {@link #undoTo(int)} can revert the board to any earlier {@link #journalMark()}
+ * without allocating.
+ * </p>
+ * <p>
+ * The squares of the pieces are additionally indexed by colour and type, and the index is updated
+ * in place along with the squares, so lookups by type cost O(k) for the k matching pieces.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public final class MutableChessBoard implements ImmutableChessBoard {
+    @Serial
+    private static final long serialVersionUID = 5096723348195830218L;
+
+    private final ChessPiece[] squares;
+    private final ChessBoardBounds bounds;
+
+    private int[] journalSquares;
+    private ChessPiece[] journalPieces;
+    private int journalSize;
+    private long zobristKey;
+    private final HashMap<PieceType, SquareList> whiteSquares = new HashMap<>();
+    private final HashMap<PieceType, SquareList> blackSquares = new HashMap<>();
+
+    public MutableChessBoard(ChessBoardBounds bounds) {
+        this.bounds = Objects.requireNonNull(bounds, "Bounds cannot be null");
+        this.squares = new ChessPiece[bounds.squareCount()];
+        this.journalSquares = new int[32];
+        this.journalPieces = new ChessPiece[32];
+        this.journalSize = 0;
+    }
+
+    /**
+     * Creates a mutable copy of the given board.
+     *
+     * @param board The board to copy
+     * @return A new mutable board with the same bounds and pieces
+     */
+    public static MutableChessBoard copyOf(ImmutableChessBoard board) {
+        MutableChessBoard copy = new MutableChessBoard(board.getBounds());
+        for (int i = 0; i < copy.squares.length; i++)
+            copy.replace(i, board.getPieceAt(i));
+        return copy;
+    }
+
+    private int calculateIndex(Position position) {
+        if (!bounds.contains(position)) {
+            throw new IndexOutOfBoundsException("Position out of bounds: " + position);
+        }
+        return bounds.toIndex(position);
+    }
+
+    private void set(int index, ChessPiece piece) {
+        if (journalSize == journalSquares.length) {
+            journalSquares = Arrays.copyOf(journalSquares, journalSize * 2);
+            journalPieces = Arrays.copyOf(journalPieces, journalSize * 2);
+        }
+        journalSquares[journalSize] = index;
+        journalPieces[journalSize] = squares[index];
+        journalSize++;
+        replace(index, piece);
+    }
+
+    private void replace(int index, ChessPiece piece) {
+        ChessPiece replaced = squares[index];
+        Position position = bounds.toPosition(index);
+        zobristKey ^= Zobrist.pieceKey(replaced, position) ^ Zobrist.pieceKey(piece, position);
+        if (replaced != null) squaresOf(replaced.pieceType(), replaced.isWhite()).remove(index);
+        if (piece != null) squaresOf(piece.pieceType(), piece.isWhite()).add(index);
+        squares[index] = piece;
+    }
+
+    private SquareList squaresOf(PieceType pieceType, boolean isWhite) {
+        return (isWhite ? whiteSquares : blackSquares).computeIfAbsent(pieceType, type -> new SquareList());
+    }
+
+    private List<ChessPiece> piecesAt(SquareList squareList, List<ChessPiece> pieces) {
+        for (int i = 0; i < squareList.size; i++) pieces.add(squares[squareList.squares[i]]);
+        return pieces;
+    }
+
+    /**
+     * Places the given piece at the given position, replacing any piece on it.
+     *
+     * @param piece    The piece to place
+     * @param position The target position
+     */
+    public void setPieceAt(ChessPiece piece, Position position) {
+        set(calculateIndex(position), piece);
+    }
+
+    /**
+     * Removes the piece at the given position, if any.
+     *
+     * @param position The position to clear
+     */
+    public void removePieceAt(Position position) {
+        int index = calculateIndex(position);
+        if (squares[index] != null) set(index, null);
+    }
+
+    /**
+     * Moves the piece at {@code from} to {@code to}, replacing any piece on {@code to}.
+     *
+     * @param from The position of the piece to move
+     * @param to   The target position
+     * @throws IllegalArgumentException if there is no piece at {@code from}
+     */
+    public void movePiece(Position from, Position to) {
+        movePiece(calculateIndex(from), calculateIndex(to));
+    }
+
+    /**
+     * Moves the piece on square {@code from} to square {@code to}, replacing any piece on {@code to}.
+     * Squares are indexed as in {@link #getPieceAt(int)}.
+     *
+     * @param fromIndex The index of the square of the piece to move
+     * @param toIndex   The index of the target square
+     * @throws IllegalArgumentException if there is no piece on {@code from}
+     */
+    public void movePiece(int fromIndex, int toIndex) {
+        ChessPiece piece = squares[fromIndex];
+        if (piece == null) throw new IllegalArgumentException("No piece at " + bounds.toPosition(fromIndex));
+
+        set(fromIndex, null);
+        set(toIndex, piece);
+    }
+
+    /**
+     * Overwrites the contents of this board with the contents of the given board of the same bounds.
+     * Only squares that differ are changed, and all changes are recorded in the journal.
+     *
+     * @param board The board to copy the pieces from
+     */
+    public void setAllPieces(ImmutableChessBoard board) {
+        if (!bounds.equals(board.getBounds()))
+            throw new IllegalArgumentException("bounds must be equal");
+        for (int i = 0; i < squares.length; i++) {
+            ChessPiece piece = board.getPieceAt(bounds.toPosition(i));
+            if (piece != squares[i]) set(i, piece);
+        }
+    }
+
+    /**
+     * Returns a mark of the current journal position, to be passed to {@link #undoTo(int)} later.
+     *
+     * @return The current journal mark
+     */
+    public int journalMark() {
+        return journalSize;
+    }
+
+    /**
+     * Reverts all modifications made after the given mark was taken.
+     *
+     * @param mark A mark previously returned by {@link #journalMark()}
+     */
+    public void undoTo(int mark) {
+        if (mark < 0 || mark > journalSize)
+            throw new IllegalArgumentException("Invalid journal mark: " + mark);
+        while (journalSize > mark) {
+            journalSize--;
+            replace(journalSquares[journalSize], journalPieces[journalSize]);
+            journalPieces[journalSize] = null;
+        }
+    }
+
+    /**
+     * Returns an immutable snapshot of the current contents of this board.
+     *
+     * @return An {@link ArrayChessBoard} holding the same pieces
+     */
+    public ArrayChessBoard toImmutable() {
+        Map<Position, ChessPiece> pieces = new HashMap<>();
+        for (int i = 0; i < squares.length; i++)
+            if (squares[i] != null) pieces.put(bounds.toPosition(i), squares[i]);
+        return new ArrayChessBoard(bounds).withAllPieces(pieces);
+    }
+
+    @Override
+    public long zobristKey() {
+        return zobristKey;
+    }
+
+    @Override
+    public ChessPiece getPieceAt(Position position) {
+        return squares[calculateIndex(position)];
+    }
+
+    @Override
+    public ChessPiece getPieceAt(int square) {
+        return squares[square];
+    }
+
+    @Override
+    public Position getPiecePosition(ChessPiece chessPiece) {
+        if (chessPiece == null) return null;
+        SquareList squareList = squaresOf(chessPiece.pieceType(), chessPiece.isWhite());
+        for (int i = 0; i < squareList.size; i++)
+            if (chessPiece.equals(squares[squareList.squares[i]])) return bounds.toPosition(squareList.squares[i]);
+        return null;
+    }
+
+    @Override
+    public ChessBoardBounds getBounds() {
+        return bounds;
+    }
+
+    @Override
+    public List<ChessPiece> getPiecesOfColour(boolean isWhite) {
+        List<ChessPiece> pieces = new ArrayList<>();
+        for (SquareList squareList : (isWhite ? whiteSquares : blackSquares).values()) piecesAt(squareList, pieces);
+        return pieces;
+    }
+
+    @Override
+    public List<ChessPiece> getPieces() {
+        List<ChessPiece> pieces = new ArrayList<>();
+        for (ChessPiece piece : squares)
+            if (piece != null) pieces.add(piece);
+        return pieces;
+    }
+
+    @Override
+    public List<ChessPiece> getPiecesOfType(PieceType pieceType, boolean isWhite) {
+        SquareList squareList = squaresOf(pieceType, isWhite);
+        return piecesAt(squareList, new ArrayList<>(squareList.size));
+    }
+
+    @Override
+    public List<Position> getPiecePositions(PieceType pieceType, boolean isWhite) {
+        SquareList squareList = squaresOf(pieceType, isWhite);
+        List<Position> positions = new ArrayList<>(squareList.size);
+        for (int i = 0; i < squareList.size; i++) positions.add(bounds.toPosition(squareList.squares[i]));
+        return positions;
+    }
+
+    @Override
+    public String toFen() {
+        return BoardUtility.toFen(this);
+    }
+
+    @Override
+    public ImmutableChessBoard withPieceAt(ChessPiece piece, Position position) {
+        return toImmutable().withPieceAt(piece, position);
+    }
+
+    @Override
+    public ImmutableChessBoard withoutPieceAt(Position position) {
+        return toImmutable().withoutPieceAt(position);
+    }
+
+    @Override
+    public ImmutableChessBoard withPieceMoved(Position from, Position to) {
+        return toImmutable().withPieceMoved(from, to);
+    }
+
+    @Override
+    public ImmutableChessBoard withAllPieces(Map<Position, ChessPiece> pieces) {
+        return toImmutable().withAllPieces(pieces);
+    }
+
+    @Override
+    public ImmutableChessBoard withoutPieces() {
+        return new ArrayChessBoard(bounds);
+    }
+
+    @Override
+    public ImmutableChessBoard withBounds(ChessBoardBounds newBounds) {
+        return toImmutable().withBounds(newBounds);
+    }
+
+    /**
+     * The ascending square indices of the pieces of one colour and type.
+     */
+    private static final class SquareList implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 2280553412660413407L;
+        private int[] squares = new int[8];
+        private int size;
+
+        void add(int square) {
+            if (size == squares.length) squares = Arrays.copyOf(squares, size * 2);
+            int insertAt = size;
+            while (insertAt > 0 && squares[insertAt - 1] > square) {
+                squares[insertAt] = squares[insertAt - 1];
+                insertAt--;
+            }
+            squares[insertAt] = square;
+            size++;
+        }
+
+        void remove(int square) {
+            int i = 0;
+            while (i < size && squares[i] != square) i++;
+            if (i == size) return;
+            System.arraycopy(squares, i + 1, squares, i, size - i - 1);
+            size--;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MutableChessBoard{" +
+                "fen=" + toFen() +
+                ", bounds=" + bounds +
+                '}';
+    }
+}
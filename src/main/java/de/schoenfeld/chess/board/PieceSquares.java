@@ -0,0 +1,149 @@
+package de.schoenfeld.chess.board;
+
+import de.schoenfeld.chess.model.ChessPiece;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable index of the positions of all pieces on a board, grouped by colour and {@link PieceType}.
+ * <p>
+ * Boards keep an instance next to their squares and derive a new one on every modification.
+ * Only the position array of the affected colour and type is copied, so updates cost O(k)
+ * for the k pieces of that type, and so do lookups by type.
+ * The positions of each group are kept in row-major order, i.e. sorted by y, then by x.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public final class PieceSquares implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -1572024958405326461L;
+    /**
+     * An index without any pieces.
+     */
+    public static final PieceSquares EMPTY = new PieceSquares(new HashMap<>(), new HashMap<>());
+    private static final Position[] NO_POSITIONS = new Position[0];
+
+    private final HashMap<PieceType, Position[]> white;
+    private final HashMap<PieceType, Position[]> black;
+
+    private PieceSquares(HashMap<PieceType, Position[]> white, HashMap<PieceType, Position[]> black) {
+        this.white = white;
+        this.black = black;
+    }
+
+    /**
+     * Creates an index of the given pieces.
+     *
+     * @param pieces The pieces by their position
+     * @return The index of the pieces
+     */
+    public static PieceSquares of(Map<Position, ChessPiece> pieces) {
+        PieceSquares squares = EMPTY;
+        for (var entry : pieces.entrySet())
+            squares = squares.with(entry.getValue(), entry.getKey());
+        return squares;
+    }
+
+    private static int compare(Position a, Position b) {
+        return a.y() != b.y() ? Integer.compare(a.y(), b.y()) : Integer.compare(a.x(), b.x());
+    }
+
+    private HashMap<PieceType, Position[]> groups(boolean isWhite) {
+        return isWhite ? white : black;
+    }
+
+    private PieceSquares withGroup(boolean isWhite, PieceType pieceType, Position[] positions) {
+        HashMap<PieceType, Position[]> group = new HashMap<>(groups(isWhite));
+        if (positions.length == 0) group.remove(pieceType);
+        else group.put(pieceType, positions);
+        return isWhite ? new PieceSquares(group, black) : new PieceSquares(white, group);
+    }
+
+    /**
+     * Returns an index in which the given piece stands on the given position.
+     * The position must not be occupied in this index.
+     *
+     * @param piece    The piece, ignored if {@code null}
+     * @param position The position of the piece
+     * @return The updated index
+     */
+    public PieceSquares with(ChessPiece piece, Position position) {
+        if (piece == null) return this;
+        Position[] positions = groups(piece.isWhite()).getOrDefault(piece.pieceType(), NO_POSITIONS);
+
+        int insertAt = 0;
+        while (insertAt < positions.length && compare(positions[insertAt], position) < 0) insertAt++;
+
+        Position[] newPositions = new Position[positions.length + 1];
+        System.arraycopy(positions, 0, newPositions, 0, insertAt);
+        newPositions[insertAt] = position;
+        System.arraycopy(positions, insertAt, newPositions, insertAt + 1, positions.length - insertAt);
+        return withGroup(piece.isWhite(), piece.pieceType(), newPositions);
+    }
+
+    /**
+     * Returns an index in which the given piece no longer stands on the given position.
+     *
+     * @param piece    The piece on the position, ignored if {@code null}
+     * @param position The position of the piece
+     * @return The updated index
+     */
+    public PieceSquares without(ChessPiece piece, Position position) {
+        if (piece == null) return this;
+        Position[] positions = groups(piece.isWhite()).getOrDefault(piece.pieceType(), NO_POSITIONS);
+
+        for (int i = 0; i < positions.length; i++) {
+            if (!positions[i].equals(position)) continue;
+            Position[] newPositions = new Position[positions.length - 1];
+            System.arraycopy(positions, 0, newPositions, 0, i);
+            System.arraycopy(positions, i + 1, newPositions, i, newPositions.length - i);
+            return withGroup(piece.isWhite(), piece.pieceType(), newPositions);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the positions of all pieces of the given type and colour, in row-major order.
+     *
+     * @param pieceType The piece type
+     * @param isWhite   The colour of the pieces
+     * @return An unmodifiable list of the positions
+     */
+    public List<Position> positionsOf(PieceType pieceType, boolean isWhite) {
+        Position[] positions = groups(isWhite).get(pieceType);
+        return positions == null ? List.of() : Collections.unmodifiableList(Arrays.asList(positions));
+    }
+
+    /**
+     * Returns the positions of all pieces of the given colour, grouped by type.
+     *
+     * @param isWhite The colour of the pieces
+     * @return A list of the positions
+     */
+    public List<Position> positionsOf(boolean isWhite) {
+        List<Position> result = new ArrayList<>();
+        for (Position[] positions : groups(isWhite).values()) Collections.addAll(result, positions);
+        return result;
+    }
+
+    /**
+     * Returns the positions of all pieces, grouped by colour and type.
+     *
+     * @return A list of the positions
+     */
+    public List<Position> positions() {
+        List<Position> result = positionsOf(true);
+        result.addAll(positionsOf(false));
+        return result;
+    }
+}
@@ -0,0 +1,93 @@
+package de.schoenfeld.chess.board;
+
+import de.schoenfeld.chess.model.ChessBoardBounds;
+import de.schoenfeld.chess.model.ChessPiece;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+
+import java.util.Objects;
+
+/**
+ * Zobrist keys for chess positions.
+ * <p>
+ * A position key is the XOR of one pseudo-random 64-bit key per occupied square,
+ * plus keys for the side to move, the castling rights and a capturable en passant file.
+ * Because XOR is its own inverse, boards update their key incrementally:
+ * removing or adding a piece is a single XOR with {@link #pieceKey(ChessPiece, Position)}.
+ * </p>
+ * <p>
+ * Instead of tables sized for one board, the keys are derived by mixing the piece and its coordinates,
+ * so they work for any {@link ChessBoardBounds} and for custom {@link PieceType}s.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public final class Zobrist {
+    /**
+     * Key that is added to a position in which black is to move.
+     */
+    public static final long BLACK_TO_MOVE = mix(0x5A0B_C3F1_9D27_E64BL);
+    private static final long EN_PASSANT_SEED = 0x2C1B_3C6D_4E5F_6A7BL;
+    private static final long CASTLING_SEED = 0x71D3_5E0A_B4C2_9F86L;
+
+    private Zobrist() {
+    }
+
+    /**
+     * The finalizer of the SplitMix64 generator, a bijective mix of all input bits.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D0_49BB_1331_11EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the key of the given piece standing on the given position.
+     *
+     * @param piece    The piece, or {@code null} for an empty square
+     * @param position The position of the piece
+     * @return The key of the piece on the position, or {@code 0} for an empty square
+     */
+    public static long pieceKey(ChessPiece piece, Position position) {
+        if (piece == null) return 0L;
+        long key = mix(Objects.hashCode(piece.pieceType()) * 31L + (piece.isWhite() ? 1L : 2L));
+        return mix(key ^ ((long) position.x() << 32 | (position.y() & 0xFFFF_FFFFL)));
+    }
+
+    /**
+     * Returns the key of an en passant capture being possible on the given file.
+     *
+     * @param file The x-coordinate of the en passant target square
+     * @return The en passant key of the file
+     */
+    public static long enPassantKey(int file) {
+        return mix(EN_PASSANT_SEED + file);
+    }
+
+    /**
+     * Returns the key of the given castling rights.
+     *
+     * @param castlingRights The castling rights, see {@link de.schoenfeld.chess.model.CastlingRights}
+     * @return The key of the rights, or {@code 0} if there are none
+     */
+    public static long castlingKey(int castlingRights) {
+        return castlingRights == 0 ? 0L : mix(CASTLING_SEED + castlingRights);
+    }
+
+    /**
+     * Computes the key of all pieces on the given board from scratch.
+     *
+     * @param board The board
+     * @return The XOR of the keys of all pieces on the board
+     */
+    public static long keyOf(ImmutableChessBoard board) {
+        ChessBoardBounds bounds = board.getBounds();
+        long key = 0L;
+        for (int i = 0; i < bounds.squareCount(); i++) {
+            Position position = bounds.toPosition(i);
+            key ^= pieceKey(board.getPieceAt(position), position);
+        }
+        return key;
+    }
+}
@@ -2,16 +2,17 @@ package de.schoenfeld.chess.core;
 
 import de.schoenfeld.chess.events.*;
 import de.schoenfeld.chess.model.GameState;
-import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.rules.PositionAnalysis;
 import de.schoenfeld.chess.rules.Rules;
 
-import java.util.Optional;
 import java.util.UUID;
 
 public class ChessGame {
     private final EventBus eventBus;
     private final UUID gameId;
     private GameState gameState;
+    // The analysis of gameState, computed once per state on the first move proposal
+    private PositionAnalysis analysis;
     private final Rules rules;
 
     public ChessGame(GameState gameState, Rules rules, EventBus eventBus) {
@@ -54,25 +55,29 @@ public class ChessGame {
             return;
         }
 
-        Optional<GameConclusion> gameEndCause = rules.detectGameEndCause(gameState);
-        if (gameEndCause.isPresent()) {
-            eventBus.publish(new GameEndedEvent(gameId, gameEndCause.get()));
+        PositionAnalysis current = getAnalysis();
+        if (current.isGameOver()) {
+            eventBus.publish(new GameEndedEvent(gameId, current.conclusion()));
             return;
         }
 
-        MoveCollection currentValidMoves = rules.generateMoves(gameState);
-
-        if (!currentValidMoves.contains(event.move())) {
+        if (!current.legalMoves().contains(event.move())) {
             eventBus.publish(new ErrorEvent(gameId, event.player(), "Invalid move"));
             return;
         }
 
         gameState = event.move().executeOn(gameState);
+        analysis = null;
 
         GameStateChangedEvent gameStateChangedEvent = new GameStateChangedEvent(gameId, gameState);
         eventBus.publish(gameStateChangedEvent);
     }
 
+    private PositionAnalysis getAnalysis() {
+        if (analysis == null || analysis.gameState() != gameState) analysis = rules.analyse(gameState);
+        return analysis;
+    }
+
     public GameState getGameState() {
         return gameState;
     }
@@ -0,0 +1,304 @@
+package de.schoenfeld.chess.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed geometry of a board with given {@link ChessBoardBounds}.
+ * <p>
+ * All tables are indexed by the square indices of {@link ChessBoardBounds#toIndex(int, int)} and only contain
+ * squares within the bounds, so move generation can iterate them without any bounds checks:
+ * <ul>
+ *     <li>Leaper targets: the squares a knight, a king or a pawn of either colour attacks from a square.</li>
+ *     <li>Rays: the squares from a square in a direction, in order of their distance, up to the edge.</li>
+ *     <li>Between squares: the squares strictly between two squares on a common line.</li>
+ *     <li>Distances: the number of king steps between two squares.</li>
+ * </ul>
+ * Instances are created once per bounds by {@link #of(ChessBoardBounds)} and are immutable.
+ * The tables of the standard pieces are built eagerly, those of custom leapers and directions on first use.
+ * Since distance and between tables grow quadratically with the number of squares, they are only kept for boards
+ * of up to {@value #MAX_TABLE_SQUARES} squares, and between masks only for boards of up to 64 squares.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public final class BoardGeometry {
+    /**
+     * The offsets of a knight move.
+     */
+    public static final List<Position> KNIGHT_OFFSETS = List.of(
+            Position.of(2, 1), Position.of(2, -1), Position.of(-2, 1), Position.of(-2, -1),
+            Position.of(1, 2), Position.of(1, -2), Position.of(-1, 2), Position.of(-1, -2)
+    );
+    /**
+     * The offsets of a king move.
+     */
+    public static final List<Position> KING_OFFSETS = List.of(
+            Position.of(1, 0), Position.of(-1, 0), Position.of(0, 1), Position.of(0, -1),
+            Position.of(1, 1), Position.of(-1, -1), Position.of(1, -1), Position.of(-1, 1)
+    );
+    private static final List<Position> WHITE_PAWN_ATTACKS = List.of(Position.of(1, 1), Position.of(-1, 1));
+    private static final List<Position> BLACK_PAWN_ATTACKS = List.of(Position.of(1, -1), Position.of(-1, -1));
+    private static final int MAX_TABLE_SQUARES = 256;
+    private static final int[] NO_SQUARES = new int[0];
+    private static final Map<ChessBoardBounds, BoardGeometry> CACHE = new ConcurrentHashMap<>();
+
+    private final ChessBoardBounds bounds;
+    private final Position[] positions;
+    private final int[][] knightTargets;
+    private final int[][] kingTargets;
+    private final int[][] whitePawnAttacks;
+    private final int[][] blackPawnAttacks;
+    /**
+     * The rays of the eight unit directions, indexed by {@link #unitIndex(int, int)}.
+     */
+    private final int[][][] unitRays;
+    private final byte[] distances;
+    /**
+     * The squares between two squares, indexed by {@code from * squareCount + to}.
+     */
+    private final int[][] betweens;
+    private final long[] betweenMasks;
+    private final Map<List<Position>, int[][]> leaperTargets = new ConcurrentHashMap<>();
+    private final Map<Position, int[][]> rays = new ConcurrentHashMap<>();
+
+    private BoardGeometry(ChessBoardBounds bounds) {
+        this.bounds = bounds;
+        int squares = bounds.squareCount();
+
+        this.positions = new Position[squares];
+        for (int square = 0; square < squares; square++) positions[square] = bounds.toPosition(square);
+
+        this.knightTargets = computeLeaperTargets(KNIGHT_OFFSETS);
+        this.kingTargets = computeLeaperTargets(KING_OFFSETS);
+        this.whitePawnAttacks = computeLeaperTargets(WHITE_PAWN_ATTACKS);
+        this.blackPawnAttacks = computeLeaperTargets(BLACK_PAWN_ATTACKS);
+
+        this.unitRays = new int[9][][];
+        for (int dx = -1; dx <= 1; dx++)
+            for (int dy = -1; dy <= 1; dy++)
+                if (dx != 0 || dy != 0) unitRays[unitIndex(dx, dy)] = computeRays(dx, dy);
+
+        this.distances = squares <= MAX_TABLE_SQUARES ? computeDistances() : null;
+        this.betweens = squares <= MAX_TABLE_SQUARES ? computeBetweens() : null;
+        this.betweenMasks = squares <= Long.SIZE ? computeBetweenMasks() : null;
+    }
+
+    /**
+     * Returns the geometry of the given bounds.
+     *
+     * @param bounds The bounds of the board
+     * @return The shared geometry of the bounds
+     */
+    public static BoardGeometry of(ChessBoardBounds bounds) {
+        return CACHE.computeIfAbsent(bounds, BoardGeometry::new);
+    }
+
+    private static int unitIndex(int dx, int dy) {
+        return (dx + 1) * 3 + dy + 1;
+    }
+
+    private int[][] computeLeaperTargets(List<Position> offsets) {
+        int[][] targets = new int[positions.length][];
+        int[] buffer = new int[offsets.size()];
+        for (int square = 0; square < positions.length; square++) {
+            int count = 0;
+            for (Position offset : offsets) {
+                int x = positions[square].x() + offset.x(), y = positions[square].y() + offset.y();
+                if (bounds.contains(x, y)) buffer[count++] = bounds.toIndex(x, y);
+            }
+            targets[square] = count == 0 ? NO_SQUARES : Arrays.copyOf(buffer, count);
+        }
+        return targets;
+    }
+
+    private int[][] computeRays(int dx, int dy) {
+        int[][] result = new int[positions.length][];
+        List<Integer> buffer = new ArrayList<>();
+        for (int square = 0; square < positions.length; square++) {
+            buffer.clear();
+            int x = positions[square].x() + dx, y = positions[square].y() + dy;
+            while (bounds.contains(x, y)) {
+                buffer.add(bounds.toIndex(x, y));
+                x += dx;
+                y += dy;
+            }
+            result[square] = buffer.isEmpty() ? NO_SQUARES : buffer.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return result;
+    }
+
+    private byte[] computeDistances() {
+        int squares = positions.length;
+        byte[] result = new byte[squares * squares];
+        for (int from = 0; from < squares; from++)
+            for (int to = 0; to < squares; to++)
+                result[from * squares + to] = (byte) computeDistance(from, to);
+        return result;
+    }
+
+    private int[][] computeBetweens() {
+        int squares = positions.length;
+        int[][] result = new int[squares * squares][];
+        for (int from = 0; from < squares; from++)
+            for (int to = 0; to < squares; to++)
+                result[from * squares + to] = computeBetween(from, to);
+        return result;
+    }
+
+    private long[] computeBetweenMasks() {
+        int squares = positions.length;
+        long[] result = new long[squares * squares];
+        for (int from = 0; from < squares; from++)
+            for (int to = 0; to < squares; to++)
+                for (int square : between(from, to)) result[from * squares + to] |= 1L << square;
+        return result;
+    }
+
+    private int computeDistance(int from, int to) {
+        return Math.max(Math.abs(positions[from].x() - positions[to].x()),
+                Math.abs(positions[from].y() - positions[to].y()));
+    }
+
+    public ChessBoardBounds bounds() {
+        return bounds;
+    }
+
+    /**
+     * Returns the position of a square.
+     *
+     * @param square The square index
+     * @return The interned position of the square
+     */
+    public Position position(int square) {
+        return positions[square];
+    }
+
+    /**
+     * Returns the squares a knight on the given square attacks.
+     *
+     * @param square The square index of the knight
+     * @return The target squares, which must not be modified
+     */
+    public int[] knightTargets(int square) {
+        return knightTargets[square];
+    }
+
+    /**
+     * Returns the squares a king on the given square attacks, not including castling.
+     *
+     * @param square The square index of the king
+     * @return The target squares, which must not be modified
+     */
+    public int[] kingTargets(int square) {
+        return kingTargets[square];
+    }
+
+    /**
+     * Returns the squares a pawn of the given colour on the given square attacks.
+     *
+     * @param square  The square index of the pawn
+     * @param isWhite The colour of the pawn
+     * @return The attacked squares, which must not be modified
+     */
+    public int[] pawnAttacks(int square, boolean isWhite) {
+        return isWhite ? whitePawnAttacks[square] : blackPawnAttacks[square];
+    }
+
+    /**
+     * Returns the target squares of a leaper with the given offsets, for every square.
+     * The tables of custom offsets are built on first use.
+     *
+     * @param offsets The offsets of the leaper
+     * @return The target squares, indexed by square, which must not be modified
+     */
+    public int[][] leaperTargets(List<Position> offsets) {
+        if (offsets.equals(KNIGHT_OFFSETS)) return knightTargets;
+        if (offsets.equals(KING_OFFSETS)) return kingTargets;
+        return leaperTargets.computeIfAbsent(List.copyOf(offsets), this::computeLeaperTargets);
+    }
+
+    /**
+     * Returns the rays of the given direction, for every square.
+     * Each ray lists the squares from the square in the direction, nearest first, up to the edge of the board.
+     * The rays of directions other than the eight unit directions are built on first use.
+     *
+     * @param dx The x-component of the direction
+     * @param dy The y-component of the direction
+     * @return The rays, indexed by square, which must not be modified
+     */
+    public int[][] rays(int dx, int dy) {
+        if (dx == 0 && dy == 0) throw new IllegalArgumentException("direction must not be (0, 0)");
+        if (Math.abs(dx) <= 1 && Math.abs(dy) <= 1) return unitRays[unitIndex(dx, dy)];
+        return rays.computeIfAbsent(Position.of(dx, dy), direction -> computeRays(direction.x(), direction.y()));
+    }
+
+    /**
+     * Returns the number of king steps between two squares, the larger of their file and rank distance.
+     *
+     * @param from The first square index
+     * @param to   The second square index
+     * @return The distance of the squares
+     */
+    public int distance(int from, int to) {
+        if (distances == null) return computeDistance(from, to);
+        return distances[from * positions.length + to] & 0xFF;
+    }
+
+    /**
+     * Returns the squares strictly between two squares on a common rank, file or diagonal.
+     * The result is looked up in a table shared by all callers, except on boards of more than
+     * {@value #MAX_TABLE_SQUARES} squares.
+     *
+     * @param from The first square index
+     * @param to   The second square index
+     * @return The squares between, nearest to {@code from} first, or no squares if the squares are not aligned,
+     * which must not be modified
+     */
+    public int[] between(int from, int to) {
+        if (betweens == null) return computeBetween(from, to);
+        return betweens[from * positions.length + to];
+    }
+
+    /**
+     * Returns whether a square lies strictly between two squares on a common rank, file or diagonal,
+     * see {@link #between(int, int)}. On boards of up to 64 squares, this is a single lookup in the between masks.
+     *
+     * @param from   The first square index
+     * @param to     The second square index
+     * @param square The square index to test
+     * @return Whether the square is between the two squares
+     */
+    public boolean isBetween(int from, int to, int square) {
+        if (betweenMasks != null) return (betweenMasks[from * positions.length + to] & 1L << square) != 0;
+        for (int between : between(from, to))
+            if (between == square) return true;
+        return false;
+    }
+
+    private int[] computeBetween(int from, int to) {
+        int dx = positions[to].x() - positions[from].x(), dy = positions[to].y() - positions[from].y();
+        if (dx == 0 && dy == 0 || dx != 0 && dy != 0 && Math.abs(dx) != Math.abs(dy)) return NO_SQUARES;
+
+        int distance = Math.max(Math.abs(dx), Math.abs(dy));
+        if (distance <= 1) return NO_SQUARES;
+        return Arrays.copyOf(rays(Integer.signum(dx), Integer.signum(dy))[from], distance - 1);
+    }
+
+    /**
+     * Returns the squares strictly between two squares as a bitboard, with bit {@code i} for the square index {@code i}.
+     *
+     * @param from The first square index
+     * @param to   The second square index
+     * @return The mask of the squares between, see {@link #between(int, int)}
+     * @throws UnsupportedOperationException if the board has more than 64 squares
+     */
+    public long betweenMask(int from, int to) {
+        if (betweenMasks == null)
+            throw new UnsupportedOperationException("Between masks require at most 64 squares");
+        return betweenMasks[from * positions.length + to];
+    }
+}
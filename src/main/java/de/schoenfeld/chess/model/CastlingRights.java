@@ -0,0 +1,106 @@
+package de.schoenfeld.chess.model;
+
+import de.schoenfeld.chess.board.ImmutableChessBoard;
+import de.schoenfeld.chess.move.Move;
+
+/**
+ * Castling rights, stored as a bitmask of the four flags in this class.
+ * <p>
+ * A right is lost as soon as the king of its colour moves, or a piece moves from or to
+ * the corner of its rook. Together with the pawn start ranks this replaces tracking
+ * whether individual pieces have moved.
+ * Rooks are expected in the corners of the home ranks, {@code y = 0} for white and the last rank for black.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public final class CastlingRights {
+    public static final int NONE = 0;
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+    public static final int ALL = WHITE_KING_SIDE | WHITE_QUEEN_SIDE | BLACK_KING_SIDE | BLACK_QUEEN_SIDE;
+
+    private CastlingRights() {
+    }
+
+    /**
+     * Returns the rights of the given colour.
+     *
+     * @param isWhite The colour
+     * @return The mask of both rights of the colour
+     */
+    public static int of(boolean isWhite) {
+        return isWhite ? WHITE_KING_SIDE | WHITE_QUEEN_SIDE : BLACK_KING_SIDE | BLACK_QUEEN_SIDE;
+    }
+
+    /**
+     * Returns the king side or queen side right of the given colour.
+     *
+     * @param isWhite  The colour
+     * @param kingSide Whether to return the king side or the queen side right
+     * @return The flag of the right
+     */
+    public static int of(boolean isWhite, boolean kingSide) {
+        if (isWhite) return kingSide ? WHITE_KING_SIDE : WHITE_QUEEN_SIDE;
+        return kingSide ? BLACK_KING_SIDE : BLACK_QUEEN_SIDE;
+    }
+
+    /**
+     * Returns the position of the rook that belongs to the given right.
+     *
+     * @param right  A single flag of this class
+     * @param bounds The bounds of the board
+     * @return The corner of the rook
+     */
+    public static Position rookPosition(int right, ChessBoardBounds bounds) {
+        boolean isWhite = (right & of(true)) != 0;
+        boolean kingSide = (right & (WHITE_KING_SIDE | BLACK_KING_SIDE)) != 0;
+        return Position.of(kingSide ? bounds.rows() - 1 : 0, isWhite ? 0 : bounds.columns() - 1);
+    }
+
+    /**
+     * Derives the rights of a position without history: a right is granted if the king of its colour
+     * stands on its home rank and a rook of the same colour in the corresponding corner.
+     * The placement alone cannot tell whether those pieces have moved and returned, so this assumes they have not;
+     * positions where they have, like most positions read from a FEN, must be given their rights explicitly.
+     *
+     * @param board The board
+     * @return The derived rights
+     */
+    public static int of(ImmutableChessBoard board) {
+        ChessBoardBounds bounds = board.getBounds();
+        int rights = NONE;
+        for (int right = WHITE_KING_SIDE; right <= BLACK_QUEEN_SIDE; right <<= 1) {
+            boolean isWhite = (right & of(true)) != 0;
+            Position rookPosition = rookPosition(right, bounds);
+            if (!ChessPiece.of(PieceType.ROOK, isWhite).equals(board.getPieceAt(rookPosition))) continue;
+
+            for (Position king : board.getPiecePositions(PieceType.KING, isWhite))
+                if (king.y() == rookPosition.y()) rights |= right;
+        }
+        return rights;
+    }
+
+    /**
+     * Returns the rights that remain after the given move.
+     *
+     * @param rights The rights before the move
+     * @param move   The move
+     * @param bounds The bounds of the board
+     * @return The remaining rights
+     */
+    public static int after(int rights, Move move, ChessBoardBounds bounds) {
+        if (rights == NONE) return NONE;
+        ChessPiece piece = move.movedPiece();
+        if (piece != null && PieceType.KING.equals(piece.pieceType())) rights &= ~of(piece.isWhite());
+
+        for (int right = WHITE_KING_SIDE; right <= BLACK_QUEEN_SIDE; right <<= 1) {
+            if ((rights & right) == 0) continue;
+            Position rookPosition = rookPosition(right, bounds);
+            if (rookPosition.equals(move.from()) || rookPosition.equals(move.to())) rights &= ~right;
+        }
+        return rights;
+    }
+}
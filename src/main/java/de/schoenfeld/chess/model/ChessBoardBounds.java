@@ -44,7 +44,7 @@ public record ChessBoardBounds(int rows, int columns) implements Serializable {
 
         for (int x = 0; x < rows; x++)
             for (int y = 0; y < columns; y++)
-                list.add(new Position(x, y));
+                list.add(Position.of(x, y));
 
         return list;
     }
@@ -63,4 +63,50 @@ public record ChessBoardBounds(int rows, int columns) implements Serializable {
                 position.y() >= 0 &&
                 columns > position.y();
     }
+
+    /**
+     * Returns whether the given coordinates are contained in the bounds.
+     * @param x The x-coordinate
+     * @param y The y-coordinate
+     * @return Whether the coordinates are contained in the bounds
+     */
+    public boolean contains(int x, int y) {
+        return x >= 0 && rows > x && y >= 0 && columns > y;
+    }
+
+    /**
+     * Returns the number of squares within the bounds.
+     * @return The number of squares
+     */
+    public int squareCount() {
+        return rows * columns;
+    }
+
+    /**
+     * Returns the index of the given position in a flat, row-major array of all squares.
+     * @param position The position, which must be contained in the bounds
+     * @return The index of the position, between {@code 0} and {@link #squareCount()} (exclusive)
+     */
+    public int toIndex(Position position) {
+        return toIndex(position.x(), position.y());
+    }
+
+    /**
+     * Returns the index of the given coordinates in a flat, row-major array of all squares.
+     * @param x The x-coordinate, which must be contained in the bounds
+     * @param y The y-coordinate, which must be contained in the bounds
+     * @return The index of the coordinates, between {@code 0} and {@link #squareCount()} (exclusive)
+     */
+    public int toIndex(int x, int y) {
+        return y * rows + x;
+    }
+
+    /**
+     * Returns the position at the given index of a flat, row-major array of all squares.
+     * @param index The index, between {@code 0} and {@link #squareCount()} (exclusive)
+     * @return The position at the index, an interned instance as returned by {@link Position#of(int, int)}
+     */
+    public Position toPosition(int index) {
+        return Position.of(index % rows, index / rows);
+    }
 }
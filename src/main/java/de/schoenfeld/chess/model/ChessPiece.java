@@ -1,27 +1,135 @@
 package de.schoenfeld.chess.model;
 
+import java.io.Serial;
 import java.io.Serializable;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-public record ChessPiece(
-        PieceType pieceType,
-        boolean isWhite,
-        boolean hasMoved,
-        long uniqueId
-) implements Serializable {
-    private static final AtomicInteger ID_GENERATOR = new AtomicInteger(0);
+/**
+ * A chess piece, identified by nothing but its type and colour.
+ * <p>
+ * Pieces carry no identity and no state, so equal pieces are interchangeable.
+ * Pieces can only be obtained through {@link #of(PieceType, boolean)}, which returns one canonical instance
+ * per type and colour that can be shared freely between boards and threads; equal pieces are therefore the same
+ * instance, also after deserialization.
+ * Each canonical piece has a dense {@link #index()}, so it can be used to index arrays:
+ * the six standard piece types occupy the indices {@code 0} to {@code 11},
+ * custom piece types are assigned the following indices when their pieces are first created.
+ * State that used to be attached to pieces, like whether they have moved,
+ * is kept by the {@link GameState} as castling rights.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public final class ChessPiece implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
 
-    public ChessPiece(PieceType pieceType, boolean isWhite) {
-        this(pieceType, isWhite, false, ID_GENERATOR.getAndIncrement());
+    private static final Map<PieceType, ChessPiece[]> CANONICAL = new ConcurrentHashMap<>();
+    /**
+     * The canonical pieces by their index.
+     */
+    private static final List<ChessPiece> BY_INDEX = new CopyOnWriteArrayList<>();
+
+    static {
+        for (PieceType type : List.of(PieceType.PAWN, PieceType.KNIGHT, PieceType.BISHOP,
+                PieceType.ROOK, PieceType.QUEEN, PieceType.KING))
+            register(type);
+    }
+
+    private final PieceType pieceType;
+    private final boolean isWhite;
+    private final transient int index;
+
+    private ChessPiece(PieceType pieceType, boolean isWhite, int index) {
+        this.pieceType = pieceType;
+        this.isWhite = isWhite;
+        this.index = index;
+    }
+
+    /**
+     * Returns the canonical piece of the given type and colour.
+     *
+     * @param pieceType The type of the piece
+     * @param isWhite   Whether the piece is white
+     * @return The shared piece instance
+     */
+    public static ChessPiece of(PieceType pieceType, boolean isWhite) {
+        if (pieceType == null) throw new NullPointerException("pieceType");
+        ChessPiece[] pieces = CANONICAL.get(pieceType);
+        if (pieces == null) pieces = register(pieceType);
+        return pieces[isWhite ? 0 : 1];
+    }
+
+    private static synchronized ChessPiece[] register(PieceType pieceType) {
+        ChessPiece[] pieces = CANONICAL.get(pieceType);
+        if (pieces != null) return pieces;
+
+        int index = BY_INDEX.size();
+        pieces = new ChessPiece[]{new ChessPiece(pieceType, true, index), new ChessPiece(pieceType, false, index + 1)};
+        BY_INDEX.addAll(List.of(pieces));
+        CANONICAL.put(pieceType, pieces);
+        return pieces;
+    }
+
+    /**
+     * Returns the canonical piece with the given {@link #index()}.
+     *
+     * @param index The index of the piece
+     * @return The shared piece instance
+     * @throws IndexOutOfBoundsException if no piece type has been assigned the index
+     */
+    public static ChessPiece ofIndex(int index) {
+        return BY_INDEX.get(index);
     }
 
-    public ChessPiece withMoved(boolean hasMoved) {
-        if (hasMoved == this.hasMoved) return this;
-        return new ChessPiece(pieceType, isWhite, hasMoved, ID_GENERATOR.getAndIncrement());
+    /**
+     * Returns the index of the given piece type, see {@link #index()}.
+     * A type is assigned its index when its pieces are first created through {@link #of(PieceType, boolean)};
+     * querying the index does not assign one.
+     *
+     * @param pieceType The piece type
+     * @return The dense index of the type, {@code 0} to {@code 5} for the standard types,
+     * or {@code -1} if no piece of the type has been created yet
+     */
+    public static int typeIndex(PieceType pieceType) {
+        if (pieceType == null) throw new NullPointerException("pieceType");
+        ChessPiece[] pieces = CANONICAL.get(pieceType);
+        return pieces == null ? -1 : pieces[0].index >> 1;
+    }
+
+    public PieceType pieceType() {
+        return pieceType;
+    }
+
+    public boolean isWhite() {
+        return isWhite;
+    }
+
+    /**
+     * Returns the dense index of this piece, {@code typeIndex * 2} for white and {@code typeIndex * 2 + 1}
+     * for black pieces.
+     *
+     * @return The index of this piece
+     */
+    public int index() {
+        return index;
     }
 
     public ChessPiece withIsWhite(boolean isWhite) {
         if (isWhite == this.isWhite) return this;
-        return new ChessPiece(pieceType, isWhite, hasMoved, ID_GENERATOR.getAndIncrement());
+        return of(pieceType, isWhite);
+    }
+
+    @Override
+    public String toString() {
+        return "ChessPiece[pieceType=" + pieceType + ", isWhite=" + isWhite + "]";
+    }
+
+    @Serial
+    private Object readResolve() {
+        return of(pieceType, isWhite);
     }
-}
\ No newline at end of file
+}
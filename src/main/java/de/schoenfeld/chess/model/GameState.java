@@ -2,13 +2,16 @@ package de.schoenfeld.chess.model;
 
 import de.schoenfeld.chess.board.ImmutableChessBoard;
 import de.schoenfeld.chess.board.MapChessBoard;
+import de.schoenfeld.chess.board.Zobrist;
+import de.schoenfeld.chess.move.Move;
 
 import java.io.Serializable;
 
 public record GameState(
         ImmutableChessBoard chessBoard,
         MoveHistory moveHistory,
-        boolean isWhiteTurn
+        boolean isWhiteTurn,
+        int castlingRights
 ) implements Serializable {
 
     // Compact constructor for validation
@@ -17,6 +20,15 @@ public record GameState(
         java.util.Objects.requireNonNull(moveHistory, "moveHistory cannot be null");
     }
 
+    /**
+     * Creates a game state whose castling rights are derived from the board, see {@link CastlingRights#of(ImmutableChessBoard)}.
+     * This assumes that no king or rook on its initial square has moved; otherwise, the rights must be passed to
+     * {@link #GameState(ImmutableChessBoard, MoveHistory, boolean, int)}.
+     */
+    public GameState(ImmutableChessBoard chessBoard, MoveHistory moveHistory, boolean isWhiteTurn) {
+        this(chessBoard, moveHistory, isWhiteTurn, CastlingRights.of(chessBoard));
+    }
+
     public GameState(ImmutableChessBoard chessBoard, MoveHistory moveHistory) {
         this(chessBoard, moveHistory, true);
     }
@@ -44,25 +56,172 @@ public record GameState(
         return new GameState(
                 chessBoard,
                 moveHistory,
-                isWhiteTurn
+                isWhiteTurn,
+                castlingRights
         );
     }
 
     // State transition methods
     public GameState withChessBoard(ImmutableChessBoard newBoard) {
-        return new GameState(newBoard, moveHistory, isWhiteTurn);
+        return new GameState(newBoard, moveHistory, isWhiteTurn, castlingRights);
     }
 
     public GameState withMoveHistory(MoveHistory newHistory) {
-        return new GameState(chessBoard, newHistory, isWhiteTurn);
+        return new GameState(chessBoard, newHistory, isWhiteTurn, castlingRights);
+    }
+
+    public GameState withCastlingRights(int newCastlingRights) {
+        return new GameState(chessBoard, moveHistory, isWhiteTurn, newCastlingRights);
+    }
+
+    /**
+     * Returns the Zobrist key of this state.
+     * <p>
+     * The key of the pieces is maintained incrementally by the board, so this only adds
+     * the side to move, the castling rights and, if the last move was a pawn double step
+     * next to an enemy pawn, the en passant file.
+     * </p>
+     *
+     * @return The Zobrist key of this state
+     */
+    public long zobristKey() {
+        long key = chessBoard.zobristKey();
+        if (!isWhiteTurn) key ^= Zobrist.BLACK_TO_MOVE;
+        key ^= Zobrist.castlingKey(castlingRights);
+
+        Move lastMove = moveHistory.getLastMove();
+        if (lastMove != null && isEnPassantPossibleAfter(lastMove))
+            key ^= Zobrist.enPassantKey(lastMove.to().x());
+        return key;
+    }
+
+    /**
+     * Returns the number of moves since the last capture or pawn move, see {@link MoveHistory#getHalfmoveClock()}.
+     *
+     * @return The halfmove clock
+     */
+    public int halfmoveClock() {
+        return moveHistory.getHalfmoveClock();
+    }
+
+    /**
+     * Returns how often this position occurred in the game, including now.
+     * <p>
+     * Positions are compared by their Zobrist keys, which the {@link MoveDelta}s of the history keep.
+     * Only the positions with the same side to move since the last capture or pawn move are compared,
+     * as no earlier position can occur again, so this takes time linear in the {@link #halfmoveClock()}.
+     * The search stops at the first move recorded without a delta.
+     * </p>
+     *
+     * @return The number of occurrences of this position, at least one
+     */
+    public int repetitionCount() {
+        long key = zobristKey();
+        int count = 1;
+        int plies = halfmoveClock();
+        MoveHistory history = moveHistory;
+        for (int distance = 1; distance <= plies; distance++) {
+            MoveDelta delta = history.getLastDelta();
+            if (delta == null) break;
+            if (distance % 2 == 0 && delta.zobristKey() == key) count++;
+            history = history.withoutLastMove();
+        }
+        return count;
+    }
+
+    private boolean isEnPassantPossibleAfter(Move move) {
+        ChessPiece pawn = move.movedPiece();
+        if (pawn == null || !PieceType.PAWN.equals(pawn.pieceType())) return false;
+        if (move.from().x() != move.to().x() || Math.abs(move.to().y() - move.from().y()) != 2) return false;
+
+        for (int dx = -1; dx <= 1; dx += 2) {
+            Position neighbour = move.to().offset(dx, 0);
+            if (!chessBoard.getBounds().contains(neighbour)) continue;
+            ChessPiece piece = chessBoard.getPieceAt(neighbour);
+            if (piece != null && piece.isWhite() != pawn.isWhite() && PieceType.PAWN.equals(piece.pieceType()))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Restores the state before the last move from the {@link MoveDelta} recorded with it,
+     * in time independent of the length of the game.
+     *
+     * @return The state before the last move
+     * @throws IllegalStateException if there is no move, or the last move was recorded without a delta
+     */
+    public GameState undo() {
+        if (moveHistory.getMoveCount() == 0) throw new IllegalStateException("No move to undo");
+        MoveDelta delta = moveHistory.getLastDelta();
+        if (delta == null) throw new IllegalStateException("The last move was recorded without a delta");
+
+        return new GameState(
+                delta.revert(chessBoard),
+                moveHistory.withoutLastMove(),
+                delta.isWhiteTurn(),
+                delta.castlingRights()
+        );
+    }
+
+    /**
+     * Returns the state after the given number of moves of this game.
+     * <p>
+     * The state is replayed from the nearest checkpoint before it, see {@link MoveHistory#CHECKPOINT_INTERVAL},
+     * or undone from this state if that takes fewer moves. Either way, at most
+     * {@link MoveHistory#CHECKPOINT_INTERVAL} moves are applied, independent of the length of the game.
+     * </p>
+     *
+     * @param ply The number of moves played
+     * @return The state after {@code ply} moves, with this history truncated to them
+     * @throws IndexOutOfBoundsException if {@code ply} is negative or greater than the number of moves
+     * @throws IllegalStateException     if the moves were recorded without deltas, see {@link MoveHistory#getLastDelta()}
+     */
+    public GameState atPly(int ply) {
+        int moveCount = moveHistory.getMoveCount();
+        if (ply < 0 || ply > moveCount)
+            throw new IndexOutOfBoundsException("ply " + ply + " of " + moveCount);
+
+        if (moveCount - ply <= ply % MoveHistory.CHECKPOINT_INTERVAL) {
+            GameState gameState = this;
+            while (gameState.moveHistory.getMoveCount() > ply) gameState = gameState.undo();
+            return gameState;
+        }
+
+        // The delta of the move after a checkpoint holds the board of the checkpoint
+        MoveHistory checkpoint = moveHistory.truncatedTo(ply + 1);
+        while (checkpoint.getLastDelta() == null || checkpoint.getLastDelta().snapshot() == null) {
+            if (checkpoint.getLastDelta() == null || checkpoint.getMoveCount() == 1)
+                throw new IllegalStateException("No checkpoint before ply " + ply);
+            checkpoint = checkpoint.withoutLastMove();
+        }
+        MoveDelta delta = checkpoint.getLastDelta();
+
+        MoveHistory target = moveHistory.truncatedTo(ply);
+        Move[] moves = new Move[target.getMoveCount() - checkpoint.getMoveCount() + 1];
+        MoveHistory history = target;
+        for (int i = moves.length - 1; i >= 0; i--) {
+            moves[i] = history.getLastMove();
+            history = history.withoutLastMove();
+        }
+
+        GameState gameState = new GameState(delta.snapshot(), history, delta.isWhiteTurn(), delta.castlingRights());
+        for (Move move : moves) gameState = move.executeOn(gameState);
+        return gameState.withMoveHistory(target);
     }
 
-    // Previous board state access (for undo)
+    /**
+     * Returns this state with the last move removed from the history, but the board, side to move and castling rights
+     * unchanged. Use {@link #undo()} to restore the previous position.
+     *
+     * @return The state with the shortened history
+     */
     public GameState previousState() {
         return new GameState(
                 chessBoard,
                 moveHistory.withoutLastMove(),
-                isWhiteTurn
+                isWhiteTurn,
+                castlingRights
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,151 @@
+package de.schoenfeld.chess.model;
+
+import de.schoenfeld.chess.board.ImmutableChessBoard;
+import de.schoenfeld.chess.board.MutableChessBoard;
+import de.schoenfeld.chess.move.Move;
+import de.schoenfeld.chess.move.components.CaptureComponent;
+import de.schoenfeld.chess.move.components.CastlingComponent;
+import de.schoenfeld.chess.move.components.EnPassantComponent;
+import de.schoenfeld.chess.move.components.MoveComponent;
+import de.schoenfeld.chess.move.components.PromotionComponent;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * What a move changed, recorded in the {@link MoveHistory} with the move so that {@link GameState#undo()} can
+ * restore the previous position without replaying the game.
+ * <p>
+ * The delta holds the castling rights, the side to move and the Zobrist key before the move, and the previous contents of the squares
+ * the move changed: its origin and target, which restores a captured piece and the pawn of a promotion, the square of
+ * a pawn captured en passant, and the squares of a castling rook. The en passant state needs no entry, it follows
+ * from the last move of the history. For moves with other components, whose squares are unknown,
+ * the whole previous board is kept instead.
+ * </p>
+ * <p>
+ * Every {@link MoveHistory#CHECKPOINT_INTERVAL}th move also keeps the whole previous board, its {@link #snapshot()},
+ * from which {@link GameState#atPly(int)} replays the moves up to the requested ply. As the boards of a game are
+ * immutable, the snapshot shares the board instead of copying it. Moves simulated on the
+ * {@link MutableChessBoard} of a {@link MutableGameState} view get no checkpoint.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public final class MoveDelta implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int castlingRights;
+    private final boolean isWhiteTurn;
+    private final long zobristKey;
+    private final Position[] squares;
+    private final ChessPiece[] pieces;
+    private final ImmutableChessBoard previousBoard;
+
+    private MoveDelta(int castlingRights, boolean isWhiteTurn, long zobristKey, Position[] squares,
+                      ChessPiece[] pieces, ImmutableChessBoard previousBoard) {
+        this.castlingRights = castlingRights;
+        this.isWhiteTurn = isWhiteTurn;
+        this.zobristKey = zobristKey;
+        this.squares = squares;
+        this.pieces = pieces;
+        this.previousBoard = previousBoard;
+    }
+
+    /**
+     * Records what the given move changes when it is made on the given game state.
+     *
+     * @param move      The move about to be made
+     * @param gameState The game state before the move
+     * @return The delta of the move, with a snapshot of the board if the move starts at a checkpoint
+     */
+    public static MoveDelta of(Move move, GameState gameState) {
+        ImmutableChessBoard board = gameState.chessBoard();
+        boolean isWhiteTurn = gameState.isWhiteTurn();
+        int castlingRights = gameState.castlingRights();
+        long zobristKey = gameState.zobristKey();
+
+        // Every checkpoint keeps the whole board, which would have to be copied from a mutable board
+        if (gameState.moveHistory().getMoveCount() % MoveHistory.CHECKPOINT_INTERVAL == 0
+                && !(board instanceof MutableChessBoard))
+            return new MoveDelta(castlingRights, isWhiteTurn, zobristKey, null, null, board);
+
+        Position[] squares = new Position[4];
+        int count = 0;
+        squares[count++] = move.from();
+        squares[count++] = move.to();
+
+        for (MoveComponent component : move.getComponents()) {
+            if (component instanceof EnPassantComponent enPassant) {
+                squares[count++] = enPassant.capturedPawnPosition();
+            } else if (component instanceof CastlingComponent castling) {
+                squares[count++] = castling.rookMove().from();
+                squares[count++] = castling.rookMove().to();
+            } else if (!(component instanceof CaptureComponent) && !(component instanceof PromotionComponent)) {
+                // The squares a custom component changes are unknown
+                return new MoveDelta(castlingRights, isWhiteTurn, zobristKey, null, null, snapshotOf(board));
+            }
+        }
+
+        ChessPiece[] pieces = new ChessPiece[count];
+        for (int i = 0; i < count; i++) pieces[i] = board.getPieceAt(squares[i]);
+        return new MoveDelta(castlingRights, isWhiteTurn, zobristKey, Arrays.copyOf(squares, count), pieces, null);
+    }
+
+    private static ImmutableChessBoard snapshotOf(ImmutableChessBoard board) {
+        return board instanceof MutableChessBoard mutable ? mutable.toImmutable() : board;
+    }
+
+    /**
+     * Returns the castling rights before the move.
+     *
+     * @return The castling rights, see {@link CastlingRights}
+     */
+    public int castlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * Returns the side to move before the move.
+     *
+     * @return Whether white was to move
+     */
+    public boolean isWhiteTurn() {
+        return isWhiteTurn;
+    }
+
+    /**
+     * Returns the Zobrist key of the position before the move, see {@link GameState#zobristKey()}.
+     *
+     * @return The Zobrist key before the move
+     */
+    public long zobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Returns the whole board before the move, if this delta keeps it.
+     *
+     * @return The board before the move, or {@code null} if only the changed squares are kept
+     */
+    public ImmutableChessBoard snapshot() {
+        return previousBoard;
+    }
+
+    /**
+     * Restores the board before the move from the board after it.
+     *
+     * @param board The board after the move
+     * @return The board before the move
+     */
+    public ImmutableChessBoard revert(ImmutableChessBoard board) {
+        if (previousBoard != null) return previousBoard;
+        for (int i = 0; i < squares.length; i++) {
+            board = pieces[i] == null
+                    ? board.withoutPieceAt(squares[i])
+                    : board.withPieceAt(pieces[i], squares[i]);
+        }
+        return board;
+    }
+}
@@ -2,43 +2,249 @@ package de.schoenfeld.chess.model;
 
 import de.schoenfeld.chess.move.Move;
 
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serial;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
-public record MoveHistory(
-        List<Move> moves // Immutable list
-) implements Serializable {
+/**
+ * The moves played in a game, oldest first.
+ * <p>
+ * The history is a persistent list: every history holds its last move and the history before it, so recording a move
+ * or removing the last one creates a single node and shares all other moves with the original history.
+ * {@link #withMoveRecorded(Move)}, {@link #withoutLastMove()}, {@link #getLastMove()} and {@link #getMoveCount()}
+ * therefore run in constant time, which matters as every simulated move records itself in a new history.
+ * The list of {@link #getAllMoves()} is only built when it is first requested, and then kept.
+ * </p>
+ * <p>
+ * Each move may be recorded with its {@link MoveDelta}, which {@link GameState#undo()} uses to restore the position
+ * before it. The deltas are not part of the equality of histories.
+ * </p>
+ * <p>
+ * The delta of every {@link #CHECKPOINT_INTERVAL}th move keeps the whole board before it as a checkpoint,
+ * so {@link GameState#atPly(int)} replays at most that many moves to reach any earlier position.
+ * </p>
+ * <p>
+ * Every history also counts the moves since the last capture or pawn move, its {@link #getHalfmoveClock()},
+ * which bounds how far back a position can repeat, see {@link GameState#repetitionCount()}.
+ * </p>
+ * <p>
+ * Histories are equal if they contain equal moves in the same order.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public final class MoveHistory implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    /**
+     * The number of plies between two checkpoints, see {@link MoveDelta#snapshot()}.
+     */
+    public static final int CHECKPOINT_INTERVAL = 16;
 
-    public MoveHistory {
-        moves = List.copyOf(moves); // Defensive copy
+    /**
+     * The history before the last move, or {@code null} if this history is empty.
+     */
+    private final MoveHistory previous;
+    private final Move lastMove;
+    private final MoveDelta lastDelta;
+    private final int moveCount;
+    private final int halfmoveClock;
+    private transient List<Move> allMoves;
+
+    private MoveHistory(MoveHistory previous, Move lastMove, MoveDelta lastDelta) {
+        this.previous = previous;
+        this.lastMove = lastMove;
+        this.lastDelta = lastDelta;
+        this.moveCount = previous.moveCount + 1;
+        this.halfmoveClock = isIrreversible(lastMove) ? 0 : previous.halfmoveClock + 1;
     }
 
     public MoveHistory() {
-        this(List.of());
+        this.previous = null;
+        this.lastMove = null;
+        this.lastDelta = null;
+        this.moveCount = 0;
+        this.halfmoveClock = 0;
+        this.allMoves = List.of();
+    }
+
+    /**
+     * Creates a history of the given moves.
+     *
+     * @param moves The moves, oldest first
+     * @throws NullPointerException if {@code moves} or one of the moves is null
+     */
+    public MoveHistory(List<Move> moves) {
+        MoveHistory history = new MoveHistory();
+        for (Move move : moves) history = history.withMoveRecorded(move);
+        this.previous = history.previous;
+        this.lastMove = history.lastMove;
+        this.lastDelta = null;
+        this.moveCount = history.moveCount;
+        this.halfmoveClock = history.halfmoveClock;
+    }
+
+    /**
+     * Returns whether no position before the given move can occur again after it,
+     * as it captures a piece or moves a pawn.
+     */
+    private static boolean isIrreversible(Move move) {
+        ChessPiece movedPiece = move.movedPiece();
+        return move.isCapture() || (movedPiece != null && PieceType.PAWN.equals(movedPiece.pieceType()));
     }
 
     public MoveHistory withMoveRecorded(Move move) {
-        List<Move> newMoves = new ArrayList<>(moves);
-        newMoves.add(move);
-        return new MoveHistory(newMoves);
+        return withMoveRecorded(move, null);
+    }
+
+    /**
+     * Returns this history with the given move and its delta recorded.
+     *
+     * @param move  The move
+     * @param delta What the move changed, or {@code null} if the move cannot be undone
+     * @return The new history
+     * @throws NullPointerException if {@code move} is null
+     */
+    public MoveHistory withMoveRecorded(Move move, MoveDelta delta) {
+        if (move == null) throw new NullPointerException("move");
+        return new MoveHistory(this, move, delta);
     }
 
     public MoveHistory withoutLastMove() {
-        if (moves.isEmpty()) return this;
-        return new MoveHistory(moves.subList(0, moves.size() - 1));
+        return moveCount == 0 ? this : previous;
+    }
+
+    /**
+     * Returns the history of the first moves of this history, sharing them with it.
+     * This takes time linear in the number of moves removed.
+     *
+     * @param moveCount The number of moves to keep
+     * @return The history of the first {@code moveCount} moves
+     * @throws IndexOutOfBoundsException if {@code moveCount} is negative or greater than the number of moves
+     */
+    public MoveHistory truncatedTo(int moveCount) {
+        if (moveCount < 0 || moveCount > this.moveCount)
+            throw new IndexOutOfBoundsException("moveCount " + moveCount + " of " + this.moveCount);
+        MoveHistory history = this;
+        while (history.moveCount > moveCount) history = history.previous;
+        return history;
     }
 
     public Move getLastMove() {
-        return moves.isEmpty() ? null : moves.getLast();
+        return lastMove;
+    }
+
+    /**
+     * Returns the delta recorded with the last move.
+     *
+     * @return The delta, or {@code null} if the history is empty or the last move was recorded without one
+     */
+    public MoveDelta getLastDelta() {
+        return lastDelta;
     }
 
+    /**
+     * Returns the moves of this history, oldest first.
+     * The list is built on the first call, which takes time linear in the number of moves.
+     *
+     * @return An unmodifiable list of the moves
+     */
     public List<Move> getAllMoves() {
-        return Collections.unmodifiableList(moves);
+        List<Move> moves = allMoves;
+        if (moves == null) {
+            Move[] array = new Move[moveCount];
+            MoveHistory history = this;
+            for (int i = moveCount - 1; i >= 0; i--) {
+                array[i] = history.lastMove;
+                history = history.previous;
+            }
+            allMoves = moves = List.of(array);
+        }
+        return moves;
+    }
+
+    /**
+     * Returns the moves of this history, see {@link #getAllMoves()}.
+     *
+     * @return An unmodifiable list of the moves
+     */
+    public List<Move> moves() {
+        return getAllMoves();
     }
 
     public int getMoveCount() {
-        return moves.size();
+        return moveCount;
+    }
+
+    /**
+     * Returns the number of moves since the last capture or pawn move, or since the start of the history.
+     *
+     * @return The halfmove clock
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (!(object instanceof MoveHistory other) || moveCount != other.moveCount) return false;
+
+        // Walk both histories back until they share their remaining moves
+        MoveHistory a = this, b = other;
+        while (a != b && a.moveCount > 0) {
+            if (!a.lastMove.equals(b.lastMove)) return false;
+            a = a.previous;
+            b = b.previous;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code of the list of moves, see {@link List#hashCode()}.
+     */
+    @Override
+    public int hashCode() {
+        return getAllMoves().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "MoveHistory[moves=" + getAllMoves() + "]";
+    }
+
+    /**
+     * Serializes the history as arrays of its moves and their deltas instead of a chain of nodes,
+     * which would nest one level deeper for every move.
+     */
+    @Serial
+    private Object writeReplace() {
+        Move[] moves = new Move[moveCount];
+        MoveDelta[] deltas = new MoveDelta[moveCount];
+        MoveHistory history = this;
+        for (int i = moveCount - 1; i >= 0; i--) {
+            moves[i] = history.lastMove;
+            deltas[i] = history.lastDelta;
+            history = history.previous;
+        }
+        return new SerializedForm(moves, deltas);
+    }
+
+    @Serial
+    private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+        throw new InvalidObjectException("MoveHistory is serialized as its moves and deltas");
+    }
+
+    private record SerializedForm(Move[] moves, MoveDelta[] deltas) implements Serializable {
+        @Serial
+        private Object readResolve() throws InvalidObjectException {
+            if (moves == null || deltas == null || moves.length != deltas.length)
+                throw new InvalidObjectException("Every move needs a delta entry");
+            MoveHistory history = new MoveHistory();
+            for (int i = 0; i < moves.length; i++) history = history.withMoveRecorded(moves[i], deltas[i]);
+            return history;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,140 @@
+package de.schoenfeld.chess.model;
+
+import de.schoenfeld.chess.board.MutableChessBoard;
+import de.schoenfeld.chess.move.Move;
+import de.schoenfeld.chess.move.components.MoveComponent;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A game state that applies and reverts moves in place.
+ * <p>
+ * Where {@link Move#executeOn(GameState)} creates a new {@link GameState}, history and board for every move,
+ * {@link #makeMove(Move)} modifies a single {@link MutableChessBoard} and pushes a small undo record,
+ * which {@link #unmakeMove()} uses to restore the previous position.
+ * This makes it suitable for search and for simulating moves during legality checks.
+ * </p>
+ * <p>
+ * {@link #asGameState()} exposes the current position as a {@link GameState} backed by the mutable board,
+ * so the rules can run on it directly. That view follows all later moves and must not be stored.
+ * </p>
+ * <p>
+ * Moves made here are recorded in the history without a {@link MoveDelta}, so {@link GameState#undo()} and
+ * {@link GameState#atPly(int)} do not reach behind them; use {@link #unmakeMove()} instead.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public final class MutableGameState {
+    private final MutableChessBoard chessBoard;
+    private final Deque<UndoRecord> undoStack;
+    private MoveHistory moveHistory;
+    private boolean isWhiteTurn;
+    private int castlingRights;
+    private GameState view;
+
+    /**
+     * Everything needed to revert a move.
+     *
+     * @param move         The move that was made
+     * @param journalMark  The board journal mark before the move was made
+     * @param moveHistory  The move history before the move was made
+     * @param isWhiteTurn    The side to move before the move was made
+     * @param castlingRights The castling rights before the move was made
+     */
+    private record UndoRecord(Move move, int journalMark, MoveHistory moveHistory,
+                              boolean isWhiteTurn, int castlingRights) {
+    }
+
+    public MutableGameState(GameState gameState) {
+        this.chessBoard = MutableChessBoard.copyOf(gameState.chessBoard());
+        this.moveHistory = gameState.moveHistory();
+        this.isWhiteTurn = gameState.isWhiteTurn();
+        this.castlingRights = gameState.castlingRights();
+        this.undoStack = new ArrayDeque<>();
+    }
+
+    /**
+     * Applies the given move in place.
+     *
+     * @param move The move to make
+     */
+    public void makeMove(Move move) {
+        undoStack.push(new UndoRecord(move, chessBoard.journalMark(), moveHistory, isWhiteTurn, castlingRights));
+
+        // The undo record restores the position, so the move is recorded without a delta
+        moveHistory = moveHistory.withMoveRecorded(move);
+        castlingRights = CastlingRights.after(castlingRights, move, chessBoard.getBounds());
+        chessBoard.movePiece(move.from(), move.to());
+        view = null;
+        for (MoveComponent component : move.getComponents()) {
+            component.executeOn(this, move);
+        }
+        isWhiteTurn = !isWhiteTurn;
+        view = null;
+    }
+
+    /**
+     * Reverts the last move made with {@link #makeMove(Move)}.
+     *
+     * @return The move that was reverted
+     * @throws IllegalStateException if there is no move to revert
+     */
+    public Move unmakeMove() {
+        UndoRecord undo = undoStack.poll();
+        if (undo == null) throw new IllegalStateException("No move to unmake");
+
+        chessBoard.undoTo(undo.journalMark());
+        moveHistory = undo.moveHistory();
+        isWhiteTurn = undo.isWhiteTurn();
+        castlingRights = undo.castlingRights();
+        view = null;
+        return undo.move();
+    }
+
+    /**
+     * Returns the number of moves that can currently be reverted.
+     *
+     * @return The depth of the undo stack
+     */
+    public int getUndoDepth() {
+        return undoStack.size();
+    }
+
+    /**
+     * Returns a {@link GameState} view of the current position, backed by the mutable board.
+     * The view is cached until the next move is made or unmade.
+     *
+     * @return The current position as a game state
+     */
+    public GameState asGameState() {
+        if (view == null) view = new GameState(chessBoard, moveHistory, isWhiteTurn, castlingRights);
+        return view;
+    }
+
+    /**
+     * Returns an immutable snapshot of the current position.
+     *
+     * @return A game state that does not change with later moves
+     */
+    public GameState toGameState() {
+        return new GameState(chessBoard.toImmutable(), moveHistory, isWhiteTurn, castlingRights);
+    }
+
+    public MutableChessBoard chessBoard() {
+        return chessBoard;
+    }
+
+    public MoveHistory moveHistory() {
+        return moveHistory;
+    }
+
+    public boolean isWhiteTurn() {
+        return isWhiteTurn;
+    }
+
+    public int castlingRights() {
+        return castlingRights;
+    }
+}
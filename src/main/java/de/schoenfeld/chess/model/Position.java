@@ -1,5 +1,8 @@
 package de.schoenfeld.chess.model;
 
+import java.io.Serial;
+import java.io.Serializable;
+
 /**
  * Represents a position on a chess board.
  * The position is zero-based, i.e. the top-left corner is (0, 0).
@@ -11,16 +14,32 @@ package de.schoenfeld.chess.model;
  * @param y The y-coordinate (0-based)
  * @author Anton Schoenfeld
  */
-public record Position(int x, int y) {
+public record Position(int x, int y) implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    /**
+     * Positions with both coordinates below this limit are interned by {@link #of(int, int)}.
+     */
+    private static final int INTERNED_SIZE = 64;
+    private static final Position[] INTERNED = new Position[INTERNED_SIZE * INTERNED_SIZE];
+
+    static {
+        for (int y = 0; y < INTERNED_SIZE; y++)
+            for (int x = 0; x < INTERNED_SIZE; x++)
+                INTERNED[y * INTERNED_SIZE + x] = new Position(x, y);
+    }
 
     /**
      * Returns a position with the given coordinates.
+     * Positions on boards of up to 64x64 squares are shared instances, so no allocation takes place.
      *
      * @param x The x-coordinate (0-based)
      * @param y The y-coordinate (0-based)
-     * @return The new position
+     * @return The position
      */
     public static Position of(int x, int y) {
+        if (x >= 0 && x < INTERNED_SIZE && y >= 0 && y < INTERNED_SIZE)
+            return INTERNED[y * INTERNED_SIZE + x];
         return new Position(x, y);
     }
 
@@ -32,7 +51,7 @@ public record Position(int x, int y) {
      *           (positive values move down, negative values move up)
      */
     public Position offset(int dx, int dy) {
-        return new Position(x + dx, y + dy);
+        return of(x + dx, y + dy);
     }
 
     /**
@@ -43,7 +62,7 @@ public record Position(int x, int y) {
     public Position offset(Position position) {
         if (position == null)
             throw new IllegalArgumentException("position must not be null");
-        return new Position(position.x + x, position.y + y);
+        return of(position.x + x, position.y + y);
     }
 
     /**
@@ -54,4 +73,12 @@ public record Position(int x, int y) {
     public String toAlgebraic() {
         return String.format("%c%d", 'a' + x, y + 1);
     }
+
+    /**
+     * Returns the shared instance of a deserialized position, see {@link #of(int, int)}.
+     */
+    @Serial
+    private Object readResolve() {
+        return of(x, y);
+    }
 }
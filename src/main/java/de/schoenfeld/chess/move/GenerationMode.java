@@ -0,0 +1,62 @@
+package de.schoenfeld.chess.move;
+
+/**
+ * Selects which moves a {@link de.schoenfeld.chess.rules.generative.GenerativeMoveRule} generates.
+ * <p>
+ * Promotions count as captures, so {@link #CAPTURES} and {@link #QUIETS} split the moves the same way as
+ * the stages of {@link MoveStage}: the captures and promotions on one side, all other moves including castling
+ * on the other. Rules that honour a mode skip the moves it excludes instead of generating and dropping them.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public enum GenerationMode {
+    /**
+     * All moves.
+     */
+    ALL,
+    /**
+     * Captures and promotions, e.g. for a quiescence search.
+     */
+    CAPTURES,
+    /**
+     * All moves that neither capture nor promote.
+     */
+    QUIETS,
+    /**
+     * If the side to move is in check, the moves of the king, and the moves that capture the checking piece or
+     * block its line to the king. Otherwise, all moves.
+     * The moves may still leave the king in check, they are pseudo-legal like all generated moves.
+     */
+    EVASIONS;
+
+    /**
+     * Returns whether moves of this mode may capture or promote.
+     *
+     * @return Whether captures and promotions are generated
+     */
+    public boolean includesCaptures() {
+        return this != QUIETS;
+    }
+
+    /**
+     * Returns whether moves of this mode may neither capture nor promote.
+     *
+     * @return Whether quiet moves are generated
+     */
+    public boolean includesQuiets() {
+        return this != CAPTURES;
+    }
+
+    /**
+     * Returns whether the move is of a kind generated in this mode. The check of {@link #EVASIONS} depends on
+     * the position, so this method accepts all moves for it.
+     *
+     * @param move The move
+     * @return Whether the move is included
+     */
+    public boolean includes(Move move) {
+        boolean capture = move.isCapture() || move.isPromotion();
+        return capture ? includesCaptures() : includesQuiets();
+    }
+}
@@ -0,0 +1,125 @@
+package de.schoenfeld.chess.move;
+
+import de.schoenfeld.chess.board.ImmutableChessBoard;
+import de.schoenfeld.chess.model.ChessBoardBounds;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A growable list of {@link PackedMove}s backed by a primitive {@code int} array.
+ * <p>
+ * Adding a move neither allocates nor hashes, and {@link #clear()} keeps the array,
+ * so a list can be reused for every node of a search.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public final class IntMoveList {
+    private static final int DEFAULT_CAPACITY = 64;
+    private int[] moves;
+    private int size;
+
+    public IntMoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntMoveList(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("capacity must not be negative");
+        this.moves = new int[capacity];
+    }
+
+    /**
+     * Packs the given moves into a new list.
+     *
+     * @param moves  The moves
+     * @param bounds The bounds of the board the moves are played on
+     * @return The list of packed moves, in iteration order of {@code moves}
+     */
+    public static IntMoveList of(Collection<Move> moves, ChessBoardBounds bounds) {
+        IntMoveList list = new IntMoveList(moves.size());
+        for (Move move : moves) list.add(PackedMove.of(move, bounds));
+        return list;
+    }
+
+    /**
+     * Returns a sink that packs the moves it receives into this list, see {@link PackedMove#of(Move, ChessBoardBounds)}.
+     * Clearing the list between positions lets a search reuse one list and one sink per ply.
+     *
+     * @param bounds The bounds of the board the moves are played on
+     * @return The sink
+     */
+    public MoveSink sink(ChessBoardBounds bounds) {
+        return move -> add(PackedMove.of(move, bounds));
+    }
+
+    public void add(int move) {
+        if (size == moves.length) moves = Arrays.copyOf(moves, Math.max(DEFAULT_CAPACITY, size * 2));
+        moves[size++] = move;
+    }
+
+    public void addAll(IntMoveList other) {
+        for (int i = 0; i < other.size; i++) add(other.moves[i]);
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        moves[index] = move;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++)
+            if (moves[i] == move) return true;
+        return false;
+    }
+
+    /**
+     * Removes the move at the given index by replacing it with the last move, which changes the order of the list.
+     *
+     * @param index The index of the move
+     * @return The removed move
+     */
+    public int removeAt(int index) {
+        int move = get(index);
+        moves[index] = moves[--size];
+        return move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(moves, size);
+    }
+
+    /**
+     * Restores the {@link Move}s of this list, see {@link PackedMove#toMove(int, ImmutableChessBoard)}.
+     *
+     * @param board The board before the moves
+     * @return The moves
+     */
+    public MoveCollection toMoveCollection(ImmutableChessBoard board) {
+        MoveCollection collection = new MoveCollection(board.getBounds());
+        for (int i = 0; i < size; i++) collection.add(PackedMove.toMove(moves[i], board));
+        return collection;
+    }
+
+    @Override
+    public String toString() {
+        return "IntMoveList" + Arrays.toString(toArray());
+    }
+}
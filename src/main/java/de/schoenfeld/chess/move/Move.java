@@ -1,23 +1,41 @@
 package de.schoenfeld.chess.move;
 
+import de.schoenfeld.chess.model.CastlingRights;
 import de.schoenfeld.chess.model.ChessPiece;
 import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.MoveDelta;
 import de.schoenfeld.chess.model.Position;
 import de.schoenfeld.chess.move.components.CaptureComponent;
 import de.schoenfeld.chess.move.components.CastlingComponent;
 import de.schoenfeld.chess.move.components.MoveComponent;
+import de.schoenfeld.chess.move.components.MoveComponentRegistry;
 import de.schoenfeld.chess.move.components.PromotionComponent;
 
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.*;
 
+/**
+ * A move of a piece, with the {@link MoveComponent}s that describe its side effects.
+ * <p>
+ * The types of the components are summarised in a mask of {@link MoveComponentRegistry} bits when the move is created,
+ * and the built-in capture, promotion and castling components are kept in fields,
+ * so component queries don't have to search the component list.
+ * </p>
+ */
 public class Move implements Serializable {
     @Serial
     private static final long serialVersionUID = 1921632465085309764L;
     private final List<MoveComponent> components;
     private final ChessPiece movedPiece;
     private final Position from, to;
+    // Registry bits are assigned at runtime, so the mask and the fields are rebuilt on deserialization
+    private final transient long componentMask;
+    private final transient CaptureComponent capture;
+    private final transient PromotionComponent promotion;
+    private final transient CastlingComponent castling;
+    // Moves are hashed whenever they are added to a MoveCollection, so the hash is computed once
+    private transient int hashCode;
 
     private Move(List<MoveComponent> components,
                  ChessPiece movedPiece, Position from, Position to) {
@@ -25,6 +43,21 @@ public class Move implements Serializable {
         this.movedPiece = movedPiece;
         this.from = from;
         this.to = to;
+
+        long mask = 0L;
+        CaptureComponent capture = null;
+        PromotionComponent promotion = null;
+        CastlingComponent castling = null;
+        for (MoveComponent component : components) {
+            mask |= MoveComponentRegistry.maskOf(component.getClass());
+            if (capture == null && component instanceof CaptureComponent c) capture = c;
+            else if (promotion == null && component instanceof PromotionComponent p) promotion = p;
+            else if (castling == null && component instanceof CastlingComponent c) castling = c;
+        }
+        this.componentMask = mask;
+        this.capture = capture;
+        this.promotion = promotion;
+        this.castling = castling;
     }
 
     public static Move of(ChessPiece movedPiece, Position from, Position to,
@@ -34,7 +67,6 @@ public class Move implements Serializable {
 
     public static Move of(ChessPiece movedPiece, Position from, Position to,
                           MoveComponent... components) {
-        Map<Class<? extends MoveComponent>, MoveComponent> componentsMap = new HashMap<>();
         return new Move(List.of(components), movedPiece, from, to);
     }
 
@@ -51,31 +83,69 @@ public class Move implements Serializable {
     }
 
     public <T extends MoveComponent> T getComponent(Class<T> clazz) {
-        return components.stream()
-                .filter(clazz::isInstance)
-                .map(clazz::cast)
-                .findFirst()
-                .orElseThrow();
+        if (!hasComponent(clazz)) throw new NoSuchElementException("No " + clazz.getSimpleName() + " in " + this);
+        if (clazz == CaptureComponent.class) return clazz.cast(capture);
+        if (clazz == PromotionComponent.class) return clazz.cast(promotion);
+        if (clazz == CastlingComponent.class) return clazz.cast(castling);
+        for (MoveComponent component : components)
+            if (clazz.isInstance(component)) return clazz.cast(component);
+        throw new NoSuchElementException("No " + clazz.getSimpleName() + " in " + this);
     }
 
     public List<MoveComponent> getComponents() {
         return components;
     }
 
+    /**
+     * Returns the mask of the {@link MoveComponentRegistry} bits of the components of this move.
+     *
+     * @return The component mask
+     */
+    public long componentMask() {
+        return componentMask;
+    }
+
     public boolean hasComponent(Class<? extends MoveComponent> clazz) {
-        return components.stream().anyMatch(clazz::isInstance);
+        return (componentMask & MoveComponentRegistry.bitOf(clazz)) != 0;
+    }
+
+    /**
+     * Returns the capture component of this move.
+     *
+     * @return The capture component, or {@code null} if this move captures nothing
+     */
+    public CaptureComponent capture() {
+        return capture;
+    }
+
+    /**
+     * Returns the promotion component of this move.
+     *
+     * @return The promotion component, or {@code null} if this move is no promotion
+     */
+    public PromotionComponent promotion() {
+        return promotion;
+    }
+
+    /**
+     * Returns the castling component of this move.
+     *
+     * @return The castling component, or {@code null} if this move is no castling move
+     */
+    public CastlingComponent castling() {
+        return castling;
     }
 
     public boolean isCapture() {
-        return hasComponent(CaptureComponent.class);
+        return (componentMask & MoveComponentRegistry.CAPTURE) != 0;
     }
 
     public boolean isPromotion() {
-        return hasComponent(PromotionComponent.class);
+        return (componentMask & MoveComponentRegistry.PROMOTION) != 0;
     }
 
     public boolean isCastling() {
-        return hasComponent(CastlingComponent.class);
+        return (componentMask & MoveComponentRegistry.CASTLING) != 0;
     }
 
     public <T extends MoveComponent> Move withComponent(T component) {
@@ -98,14 +168,16 @@ public class Move implements Serializable {
 
     public Move withoutComponent(Class<? extends MoveComponent> clazz) {
         List<MoveComponent> newComponents = components.stream()
-                .filter(c -> c.getClass().equals(clazz))
+                .filter(c -> !clazz.isInstance(c))
                 .toList();
         return new Move(newComponents, movedPiece, from, to);
     }
 
     public GameState executeOn(GameState gameState) {
         gameState = gameState
-                .withMoveHistory(gameState.moveHistory().withMoveRecorded(this));
+                .withMoveHistory(gameState.moveHistory().withMoveRecorded(this, MoveDelta.of(this, gameState)))
+                .withCastlingRights(CastlingRights.after(gameState.castlingRights(), this,
+                        gameState.chessBoard().getBounds()));
         gameState = gameState
                 .withChessBoard(gameState.chessBoard().withPieceMoved(from, to));
 
@@ -115,6 +187,11 @@ public class Move implements Serializable {
         return gameState.withIsWhiteTurn(!gameState.isWhiteTurn());
     }
 
+    @Serial
+    private Object readResolve() {
+        return new Move(components, movedPiece, from, to);
+    }
+
     @Override
     public boolean equals(Object object) {
         if (object == null || getClass() != object.getClass()) return false;
@@ -124,7 +201,9 @@ public class Move implements Serializable {
 
     @Override
     public int hashCode() {
-        return Objects.hash(components, movedPiece, from, to);
+        int hash = hashCode;
+        if (hash == 0) hashCode = hash = Objects.hash(components, movedPiece, from, to);
+        return hash;
     }
 
     @Override
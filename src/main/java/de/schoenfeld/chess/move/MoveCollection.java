@@ -1,17 +1,40 @@
 package de.schoenfeld.chess.move;
 
+import de.schoenfeld.chess.model.ChessBoardBounds;
 import de.schoenfeld.chess.model.ChessPiece;
 import de.schoenfeld.chess.model.Position;
 
 import java.util.*;
 
-public class MoveCollection implements Set<Move> {
+/**
+ * A set of moves, indexed by origin square, target square and moved piece.
+ * <p>
+ * The indices are arrays of buckets, one per square of the {@link ChessBoardBounds} and one per
+ * {@link ChessPiece#index()}, so lookups like {@link #getMovesTo(Position)} cost O(k) for the k moves in the bucket
+ * and keep every move, even if several moves share a square.
+ * Collections created without bounds start with the bounds of a standard board and grow as moves
+ * outside of them are added.
+ * </p>
+ */
+public class MoveCollection implements Set<Move>, MoveSink {
+    private static final ChessBoardBounds DEFAULT_BOUNDS = new ChessBoardBounds(8, 8);
     private final Set<Move> moves;
-    private final Map<Position, Move> moveMap; // Fast lookup by target position
+    private ChessBoardBounds bounds;
+    private List<Move>[] movesFrom;
+    private List<Move>[] movesTo;
+    private List<Move>[] movesByPiece;
 
     public MoveCollection() {
-        moves = new HashSet<>();
-        moveMap = new HashMap<>();
+        this(DEFAULT_BOUNDS);
+    }
+
+    public MoveCollection(ChessBoardBounds bounds) {
+        if (bounds == null) throw new NullPointerException("bounds");
+        this.moves = new HashSet<>();
+        this.bounds = bounds;
+        this.movesFrom = newBuckets(bounds.squareCount());
+        this.movesTo = newBuckets(bounds.squareCount());
+        this.movesByPiece = newBuckets(12);
     }
 
     public static MoveCollection of(Move... moves) {
@@ -26,10 +49,95 @@ public class MoveCollection implements Set<Move> {
         return moveCollection;
     }
 
+    // Arrays of a generic type cannot be created, but the buckets only ever hold lists of moves
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<Move>[] newBuckets(int size) {
+        return (List<Move>[]) new List[size];
+    }
+
+    private static void addTo(List<Move>[] buckets, int index, Move move) {
+        List<Move> bucket = buckets[index];
+        if (bucket == null) buckets[index] = bucket = new ArrayList<>(4);
+        bucket.add(move);
+    }
+
+    private static void removeFrom(List<Move>[] buckets, int index, Move move) {
+        if (index < buckets.length && buckets[index] != null) buckets[index].remove(move);
+    }
+
+    private static List<Move> bucket(List<Move>[] buckets, int index) {
+        if (index < 0 || index >= buckets.length || buckets[index] == null) return List.of();
+        return Collections.unmodifiableList(buckets[index]);
+    }
+
+    private int squareOf(Position position) {
+        return bounds.contains(position) ? bounds.toIndex(position) : -1;
+    }
+
+    private static int pieceIndexOf(Move move) {
+        return move.movedPiece() == null ? -1 : move.movedPiece().index();
+    }
+
+    /**
+     * Grows the square buckets to bounds that contain the given positions, re-indexing all moves.
+     */
+    private void ensureContains(Position from, Position to) {
+        if (bounds.contains(from) && bounds.contains(to)) return;
+        if (Math.min(Math.min(from.x(), from.y()), Math.min(to.x(), to.y())) < 0)
+            throw new IllegalArgumentException("Cannot index moves on negative coordinates: " + from + " -> " + to);
+
+        bounds = new ChessBoardBounds(
+                Math.max(bounds.rows(), Math.max(from.x(), to.x()) + 1),
+                Math.max(bounds.columns(), Math.max(from.y(), to.y()) + 1));
+        movesFrom = newBuckets(bounds.squareCount());
+        movesTo = newBuckets(bounds.squareCount());
+        for (Move move : moves) {
+            addTo(movesFrom, bounds.toIndex(move.from()), move);
+            addTo(movesTo, bounds.toIndex(move.to()), move);
+        }
+    }
+
+    private void index(Move move) {
+        addTo(movesFrom, bounds.toIndex(move.from()), move);
+        addTo(movesTo, bounds.toIndex(move.to()), move);
+
+        int pieceIndex = pieceIndexOf(move);
+        if (pieceIndex < 0) return;
+        if (pieceIndex >= movesByPiece.length) movesByPiece = Arrays.copyOf(movesByPiece, pieceIndex + 1);
+        addTo(movesByPiece, pieceIndex, move);
+    }
+
+    private void unindex(Move move) {
+        removeFrom(movesFrom, bounds.toIndex(move.from()), move);
+        removeFrom(movesTo, bounds.toIndex(move.to()), move);
+        int pieceIndex = pieceIndexOf(move);
+        if (pieceIndex >= 0) removeFrom(movesByPiece, pieceIndex, move);
+    }
+
     public MoveCollection getMovesForPiece(ChessPiece chessPiece) {
-        return MoveCollection.of(moves.stream()
-                .filter(m -> m.movedPiece().equals(chessPiece))
-                .toList());
+        MoveCollection result = new MoveCollection(bounds);
+        result.addAll(bucket(movesByPiece, chessPiece.index()));
+        return result;
+    }
+
+    /**
+     * Returns all moves to the given position.
+     *
+     * @param to The target position
+     * @return An unmodifiable view of the moves, which reflects later changes of this collection
+     */
+    public List<Move> getMovesTo(Position to) {
+        return bucket(movesTo, squareOf(to));
+    }
+
+    /**
+     * Returns all moves from the given position.
+     *
+     * @param from The origin position
+     * @return An unmodifiable view of the moves, which reflects later changes of this collection
+     */
+    public List<Move> getMovesFrom(Position from) {
+        return bucket(movesFrom, squareOf(from));
     }
 
     @Override
@@ -47,17 +155,48 @@ public class MoveCollection implements Set<Move> {
         return moves.contains(o);
     }
 
+    /**
+     * Returns any of the moves to the given position.
+     *
+     * @param to The target position
+     * @return A move to the position, or {@code null} if there is none
+     */
     public Move getMoveTo(Position to) {
-        return moveMap.get(to);
+        List<Move> movesTo = getMovesTo(to);
+        return movesTo.isEmpty() ? null : movesTo.get(0);
     }
 
     public boolean containsMoveTo(Position to) {
-        return moveMap.containsKey(to);
+        return !getMovesTo(to).isEmpty();
+    }
+
+    public boolean containsMoveFrom(Position from) {
+        return !getMovesFrom(from).isEmpty();
     }
 
     @Override
     public Iterator<Move> iterator() {
-        return moves.iterator();
+        Iterator<Move> iterator = moves.iterator();
+        return new Iterator<>() {
+            private Move current;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Move next() {
+                return current = iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                unindex(current);
+                current = null;
+            }
+        };
     }
 
     @Override
@@ -72,18 +211,24 @@ public class MoveCollection implements Set<Move> {
 
     @Override
     public boolean add(Move move) {
+        ensureContains(move.from(), move.to());
         if (moves.add(move)) {
-            moveMap.put(move.to(), move);
+            index(move);
             return true;
         }
         return false;
     }
 
+    @Override
+    public void accept(Move move) {
+        add(move);
+    }
+
     @Override
     public boolean remove(Object o) {
-        if (o instanceof Move move) {
-            moveMap.remove(move.to());
-            return moves.remove(move);
+        if (o instanceof Move move && moves.remove(move)) {
+            unindex(move);
+            return true;
         }
         return false;
     }
@@ -106,10 +251,13 @@ public class MoveCollection implements Set<Move> {
 
     @Override
     public boolean retainAll(Collection<?> c) {
-        boolean modified = moves.retainAll(c);
-        moveMap.clear();
-        for (Move move : moves) {
-            moveMap.put(move.to(), move);
+        boolean modified = false;
+        Iterator<Move> iterator = iterator();
+        while (iterator.hasNext()) {
+            if (!c.contains(iterator.next())) {
+                iterator.remove();
+                modified = true;
+            }
         }
         return modified;
     }
@@ -118,10 +266,8 @@ public class MoveCollection implements Set<Move> {
     public boolean removeAll(Collection<?> c) {
         boolean modified = false;
         for (Object obj : c) {
-            if (obj instanceof Move move) {
-                if (remove(move)) {
-                    modified = true;
-                }
+            if (remove(obj)) {
+                modified = true;
             }
         }
         return modified;
@@ -130,6 +276,23 @@ public class MoveCollection implements Set<Move> {
     @Override
     public void clear() {
         moves.clear();
-        moveMap.clear();
+        Arrays.fill(movesFrom, null);
+        Arrays.fill(movesTo, null);
+        Arrays.fill(movesByPiece, null);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Set<?> set && moves.equals(set);
+    }
+
+    @Override
+    public int hashCode() {
+        return moves.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return moves.toString();
     }
 }
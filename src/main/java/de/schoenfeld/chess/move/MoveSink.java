@@ -0,0 +1,21 @@
+package de.schoenfeld.chess.move;
+
+/**
+ * A receiver of generated moves.
+ * <p>
+ * Generators pass each move to the sink as soon as it is found, so the caller decides where the moves go:
+ * into a {@link MoveCollection}, packed into a reusable {@link IntMoveList}, see {@link IntMoveList#sink},
+ * or straight into a callback that never stores them.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+@FunctionalInterface
+public interface MoveSink {
+    /**
+     * Receives a generated move.
+     *
+     * @param move The move
+     */
+    void accept(Move move);
+}
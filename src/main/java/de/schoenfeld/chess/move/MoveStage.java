@@ -0,0 +1,43 @@
+package de.schoenfeld.chess.move;
+
+/**
+ * The stages in which moves are generated by {@link de.schoenfeld.chess.rules.StagedMoveIterator},
+ * in the order in which they are reached.
+ *
+ * @author Anton Schoenfeld
+ */
+public enum MoveStage {
+    /**
+     * The move suggested by the caller, e.g. the best move of a previous search of the position.
+     */
+    HASH_MOVE,
+    /**
+     * Captures, including capturing promotions, ordered by the value of the captured piece.
+     */
+    CAPTURES,
+    /**
+     * Promotions that don't capture, ordered by the value of the promoted piece.
+     */
+    PROMOTIONS,
+    /**
+     * All other moves, except castling.
+     */
+    QUIETS,
+    /**
+     * Castling moves.
+     */
+    CASTLING;
+
+    /**
+     * Returns the stage a move is generated in, other than {@link #HASH_MOVE}.
+     *
+     * @param move The move
+     * @return The stage of the move
+     */
+    public static MoveStage of(Move move) {
+        if (move.isCastling()) return CASTLING;
+        if (move.isCapture()) return CAPTURES;
+        if (move.isPromotion()) return PROMOTIONS;
+        return QUIETS;
+    }
+}
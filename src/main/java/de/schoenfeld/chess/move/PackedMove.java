@@ -0,0 +1,181 @@
+package de.schoenfeld.chess.move;
+
+import de.schoenfeld.chess.board.ImmutableChessBoard;
+import de.schoenfeld.chess.model.ChessBoardBounds;
+import de.schoenfeld.chess.model.ChessPiece;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.components.CaptureComponent;
+import de.schoenfeld.chess.move.components.CastlingComponent;
+import de.schoenfeld.chess.move.components.EnPassantComponent;
+import de.schoenfeld.chess.move.components.MoveComponent;
+import de.schoenfeld.chess.move.components.MoveComponentRegistry;
+import de.schoenfeld.chess.move.components.PromotionComponent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A move packed into a single {@code int}, for move generation and search without allocating {@link Move}s.
+ * <p>
+ * The bits {@code 0-11} hold the square index of the origin and the bits {@code 12-23} the square index
+ * of the target, as defined by {@link ChessBoardBounds#toIndex(int, int)}.
+ * The bits {@code 24-27} hold the {@link ChessPiece#typeIndex(PieceType)} of the promotion type plus one,
+ * or {@code 0} if the move is no promotion. The remaining bits are the flags {@link #CAPTURE},
+ * {@link #CASTLING} and {@link #EN_PASSANT}.
+ * </p>
+ * <p>
+ * Everything else a {@link Move} carries, the moved and the captured piece and the move of the rook,
+ * follows from the board the move is played on, so {@link #toMove(int, ImmutableChessBoard)}
+ * restores the move that was packed by {@link #of(Move, ChessBoardBounds)}.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public final class PackedMove {
+    /**
+     * The flag of moves that capture a piece.
+     */
+    public static final int CAPTURE = 1 << 28;
+    /**
+     * The flag of castling moves, whose squares are the ones of the king.
+     */
+    public static final int CASTLING = 1 << 29;
+    /**
+     * The flag of en passant captures.
+     */
+    public static final int EN_PASSANT = 1 << 30;
+    /**
+     * The number of squares that can be addressed.
+     */
+    public static final int MAX_SQUARES = 1 << 12;
+    private static final int SQUARE_MASK = MAX_SQUARES - 1;
+    private static final int TO_SHIFT = 12;
+    private static final int PROMOTION_SHIFT = 24;
+    private static final int PROMOTION_MASK = 0xF;
+
+    private PackedMove() {
+    }
+
+    /**
+     * Packs a move without promotion.
+     *
+     * @param from  The square index of the origin
+     * @param to    The square index of the target
+     * @param flags The flags of the move
+     * @return The packed move
+     */
+    public static int of(int from, int to, int flags) {
+        return from | (to << TO_SHIFT) | flags;
+    }
+
+    /**
+     * Packs a move.
+     *
+     * @param from          The square index of the origin
+     * @param to            The square index of the target
+     * @param promotionType The type the piece is promoted to, or {@code null}
+     * @param flags         The flags of the move
+     * @return The packed move
+     * @throws IllegalArgumentException if the promotion type cannot be packed
+     */
+    public static int of(int from, int to, PieceType promotionType, int flags) {
+        int packed = of(from, to, flags);
+        if (promotionType == null) return packed;
+
+        int promotion = (ChessPiece.of(promotionType, true).index() >> 1) + 1;
+        if (promotion > PROMOTION_MASK)
+            throw new IllegalArgumentException("Cannot pack promotion to " + promotionType);
+        return packed | (promotion << PROMOTION_SHIFT);
+    }
+
+    /**
+     * Packs the given move.
+     *
+     * @param move   The move
+     * @param bounds The bounds of the board the move is played on
+     * @return The packed move
+     * @throws IllegalArgumentException if the board has more than {@link #MAX_SQUARES} squares
+     */
+    public static int of(Move move, ChessBoardBounds bounds) {
+        if (bounds.squareCount() > MAX_SQUARES)
+            throw new IllegalArgumentException("Cannot pack moves on a board with " + bounds.squareCount() + " squares");
+
+        long mask = move.componentMask();
+        int flags = 0;
+        if ((mask & MoveComponentRegistry.CAPTURE) != 0) flags |= CAPTURE;
+        if ((mask & MoveComponentRegistry.CASTLING) != 0) flags |= CASTLING;
+        if ((mask & MoveComponentRegistry.EN_PASSANT) != 0) flags |= EN_PASSANT;
+        PieceType promotionType = move.isPromotion() ? move.promotion().promotionTo() : null;
+        return of(bounds.toIndex(move.from()), bounds.toIndex(move.to()), promotionType, flags);
+    }
+
+    /**
+     * Restores the move that was packed from a move on the given board.
+     *
+     * @param packed The packed move
+     * @param board  The board before the move
+     * @return The move
+     */
+    public static Move toMove(int packed, ImmutableChessBoard board) {
+        ChessBoardBounds bounds = board.getBounds();
+        Position from = bounds.toPosition(from(packed));
+        Position to = bounds.toPosition(to(packed));
+        ChessPiece movedPiece = board.getPieceAt(from);
+
+        List<MoveComponent> components = new ArrayList<>(2);
+        if (isEnPassant(packed)) {
+            // The captured pawn stands beside the origin, on the file of the target
+            Position capturedPawn = Position.of(to.x(), from.y());
+            components.add(new CaptureComponent(board.getPieceAt(capturedPawn)));
+            components.add(new EnPassantComponent(capturedPawn));
+        } else if (isCapture(packed)) {
+            components.add(new CaptureComponent(board.getPieceAt(to)));
+        }
+        if (isCastling(packed)) {
+            boolean kingSide = to.x() > from.x();
+            Position rookFrom = Position.of(kingSide ? bounds.rows() - 1 : 0, from.y());
+            Position rookTo = to.offset(kingSide ? -1 : 1, 0);
+            components.add(new CastlingComponent(board.getPieceAt(rookFrom), rookFrom, rookTo));
+        }
+        PieceType promotionType = promotionType(packed);
+        if (promotionType != null) components.add(new PromotionComponent(promotionType));
+
+        return Move.of(movedPiece, from, to, components.toArray(MoveComponent[]::new));
+    }
+
+    public static int from(int packed) {
+        return packed & SQUARE_MASK;
+    }
+
+    public static int to(int packed) {
+        return (packed >>> TO_SHIFT) & SQUARE_MASK;
+    }
+
+    /**
+     * Returns the type the piece is promoted to.
+     *
+     * @param packed The packed move
+     * @return The promotion type, or {@code null} if the move is no promotion
+     */
+    public static PieceType promotionType(int packed) {
+        int promotion = (packed >>> PROMOTION_SHIFT) & PROMOTION_MASK;
+        return promotion == 0 ? null : ChessPiece.ofIndex((promotion - 1) * 2).pieceType();
+    }
+
+    public static boolean isPromotion(int packed) {
+        return ((packed >>> PROMOTION_SHIFT) & PROMOTION_MASK) != 0;
+    }
+
+    public static boolean isCapture(int packed) {
+        return (packed & CAPTURE) != 0;
+    }
+
+    public static boolean isCastling(int packed) {
+        return (packed & CASTLING) != 0;
+    }
+
+    public static boolean isEnPassant(int packed) {
+        return (packed & EN_PASSANT) != 0;
+    }
+}
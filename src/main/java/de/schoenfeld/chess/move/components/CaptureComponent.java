@@ -3,6 +3,7 @@ package de.schoenfeld.chess.move.components;
 import de.schoenfeld.chess.board.ImmutableChessBoard;
 import de.schoenfeld.chess.model.ChessPiece;
 import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.MutableGameState;
 import de.schoenfeld.chess.move.Move;
 
 public record CaptureComponent(ChessPiece capturedPiece) implements MoveComponent {
@@ -10,4 +11,9 @@ public record CaptureComponent(ChessPiece capturedPiece) implements MoveComponen
     public ImmutableChessBoard executeOn(GameState gameState, Move move) {
         return gameState.chessBoard();
     }
+
+    @Override
+    public void executeOn(MutableGameState gameState, Move move) {
+        // The captured piece has already been replaced by the moved piece
+    }
 }
@@ -3,6 +3,7 @@ package de.schoenfeld.chess.move.components;
 import de.schoenfeld.chess.board.ImmutableChessBoard;
 import de.schoenfeld.chess.model.ChessPiece;
 import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.MutableGameState;
 import de.schoenfeld.chess.model.Position;
 import de.schoenfeld.chess.move.Move;
 
@@ -16,4 +17,9 @@ public record CastlingComponent(Move rookMove) implements MoveComponent {
     public ImmutableChessBoard executeOn(GameState gameState, Move move) {
         return gameState.chessBoard().withPieceMoved(rookMove.from(), rookMove.to());
     }
+
+    @Override
+    public void executeOn(MutableGameState gameState, Move move) {
+        gameState.chessBoard().movePiece(rookMove.from(), rookMove.to());
+    }
 }
@@ -0,0 +1,25 @@
+package de.schoenfeld.chess.move.components;
+
+import de.schoenfeld.chess.board.ImmutableChessBoard;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.MutableGameState;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.Move;
+
+/**
+ * Removes the pawn captured en passant, which does not stand on the target square of the move.
+ *
+ * @param capturedPawnPosition The position of the captured pawn
+ * @author Anton Schoenfeld
+ */
+public record EnPassantComponent(Position capturedPawnPosition) implements MoveComponent {
+    @Override
+    public ImmutableChessBoard executeOn(GameState gameState, Move move) {
+        return gameState.chessBoard().withoutPieceAt(capturedPawnPosition);
+    }
+
+    @Override
+    public void executeOn(MutableGameState gameState, Move move) {
+        gameState.chessBoard().removePieceAt(capturedPawnPosition);
+    }
+}
@@ -2,10 +2,23 @@ package de.schoenfeld.chess.move.components;
 
 import de.schoenfeld.chess.board.ImmutableChessBoard;
 import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.MutableGameState;
 import de.schoenfeld.chess.move.Move;
 
 import java.io.Serializable;
 
 public interface MoveComponent extends Serializable {
     ImmutableChessBoard executeOn(GameState gameState, Move move);
+
+    /**
+     * Applies this component to the board of a {@link MutableGameState} in place.
+     * The default implementation runs {@link #executeOn(GameState, Move)} on a view of the state
+     * and copies the squares that changed; components should override it with direct modifications.
+     *
+     * @param gameState The mutable game state, on which the piece of the move has already been moved
+     * @param move      The move this component belongs to
+     */
+    default void executeOn(MutableGameState gameState, Move move) {
+        gameState.chessBoard().setAllPieces(executeOn(gameState.asGameState(), move));
+    }
 }
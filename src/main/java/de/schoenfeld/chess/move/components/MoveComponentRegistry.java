@@ -0,0 +1,85 @@
+package de.schoenfeld.chess.move.components;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns every {@link MoveComponent} type a flag bit, so that moves can answer component queries with a single mask test.
+ * <p>
+ * The built-in components have fixed bits, custom component types are assigned the next free bit when they are first used.
+ * The mask of a component class contains the bit of the class and the bits of all its supertypes that are
+ * component types themselves, so testing the bit of a type matches all its subtypes, like {@link Class#isInstance(Object)}.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public final class MoveComponentRegistry {
+    public static final long CAPTURE = 1L;
+    public static final long PROMOTION = 1L << 1;
+    public static final long CASTLING = 1L << 2;
+    public static final long EN_PASSANT = 1L << 3;
+
+    private static final Map<Class<?>, Long> BITS = new ConcurrentHashMap<>(Map.of(
+            CaptureComponent.class, CAPTURE,
+            PromotionComponent.class, PROMOTION,
+            CastlingComponent.class, CASTLING,
+            EnPassantComponent.class, EN_PASSANT
+    ));
+    private static final Map<Class<?>, Long> MASKS = new ConcurrentHashMap<>();
+
+    private MoveComponentRegistry() {
+    }
+
+    /**
+     * Returns the flag bit of the given component type, assigning one if the type has none yet.
+     *
+     * @param type The component type
+     * @return The flag bit of the type
+     * @throws IllegalStateException if all 64 bits have been assigned
+     */
+    public static long bitOf(Class<? extends MoveComponent> type) {
+        Long bit = BITS.get(type);
+        if (bit != null) return bit;
+        synchronized (BITS) {
+            bit = BITS.get(type);
+            if (bit != null) return bit;
+            if (BITS.size() == Long.SIZE)
+                throw new IllegalStateException("No flag bit left for " + type.getName());
+            bit = 1L << BITS.size();
+            BITS.put(type, bit);
+            return bit;
+        }
+    }
+
+    /**
+     * Returns the mask a component of the given class contributes to a move:
+     * its own bit and the bits of all its component supertypes.
+     *
+     * @param type The class of a component
+     * @return The mask of the class
+     */
+    @SuppressWarnings("unchecked")
+    public static long maskOf(Class<? extends MoveComponent> type) {
+        Long mask = MASKS.get(type);
+        if (mask != null) return mask;
+
+        long result = 0L;
+        Set<Class<?>> visited = new HashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.push(type);
+        while (!pending.isEmpty()) {
+            Class<?> current = pending.pop();
+            if (current == MoveComponent.class || !MoveComponent.class.isAssignableFrom(current)
+                    || !visited.add(current)) continue;
+            result |= bitOf((Class<? extends MoveComponent>) current);
+            if (current.getSuperclass() != null) pending.push(current.getSuperclass());
+            for (Class<?> anInterface : current.getInterfaces()) pending.push(anInterface);
+        }
+        MASKS.put(type, result);
+        return result;
+    }
+}
@@ -0,0 +1,80 @@
+package de.schoenfeld.chess.rules;
+
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.Move;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Answers whether squares are attacked, without generating the moves of the attacking side.
+ * <p>
+ * A square is attacked by a colour if a piece of that colour could capture a piece of the other colour on it,
+ * regardless of what stands on the square and of whether the capture would leave the own king in check.
+ * Implementations trace outward from the square, see
+ * {@link de.schoenfeld.chess.rules.generative.GenerativeMoveRule#attackersOf(GameState, Position, boolean)}.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public interface AttackDetector {
+    /**
+     * Returns an attack detector for the given move generator: the generator itself if it is an attack detector,
+     * otherwise one that generates the moves of the attacking side and looks for moves to the square.
+     *
+     * @param moveGenerator The move generator
+     * @return The attack detector
+     */
+    static AttackDetector of(MoveGenerator moveGenerator) {
+        if (moveGenerator instanceof AttackDetector attackDetector) return attackDetector;
+        return new AttackDetector() {
+            @Override
+            public boolean isSquareAttacked(GameState gameState, Position square, boolean byWhite) {
+                return moveGenerator.generateMoves(gameState.withIsWhiteTurn(byWhite)).containsMoveTo(square);
+            }
+
+            @Override
+            public List<Position> attackersOf(GameState gameState, Position square, boolean byWhite) {
+                List<Position> attackers = new ArrayList<>();
+                for (Move move : moveGenerator.generateMoves(gameState.withIsWhiteTurn(byWhite)).getMovesTo(square))
+                    attackers.add(move.from());
+                return attackers;
+            }
+        };
+    }
+
+    /**
+     * Returns whether the given square is attacked by a piece of the given colour.
+     *
+     * @param gameState The game state
+     * @param square    The square
+     * @param byWhite   The colour of the attacking pieces
+     * @return Whether the square is attacked
+     */
+    boolean isSquareAttacked(GameState gameState, Position square, boolean byWhite);
+
+    /**
+     * Returns the positions of all pieces of the given colour that attack the given square.
+     *
+     * @param gameState The game state
+     * @param square    The square
+     * @param byWhite   The colour of the attacking pieces
+     * @return The positions of the attackers
+     */
+    List<Position> attackersOf(GameState gameState, Position square, boolean byWhite);
+
+    /**
+     * Returns whether a king of the side to move is attacked.
+     *
+     * @param gameState The game state
+     * @return Whether the side to move is in check, {@code false} if it has no king
+     */
+    default boolean isInCheck(GameState gameState) {
+        boolean isWhite = gameState.isWhiteTurn();
+        for (Position king : gameState.chessBoard().getPiecePositions(PieceType.KING, isWhite))
+            if (isSquareAttacked(gameState, king, !isWhite)) return true;
+        return false;
+    }
+}
@@ -0,0 +1,250 @@
+package de.schoenfeld.chess.rules;
+
+import de.schoenfeld.chess.board.ImmutableChessBoard;
+import de.schoenfeld.chess.model.BoardGeometry;
+import de.schoenfeld.chess.model.ChessBoardBounds;
+import de.schoenfeld.chess.model.ChessPiece;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.Move;
+import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.move.components.MoveComponentRegistry;
+import de.schoenfeld.chess.rules.generative.GenerativeMoveRule;
+import de.schoenfeld.chess.rules.restrictive.RestrictiveMoveRule;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A {@link MoveGenerator} that emits only legal moves, i.e. moves that don't leave the own king in check.
+ * <p>
+ * Instead of playing every move and looking for attacks on the king, the position is analysed once:
+ * <ul>
+ *     <li>The checkers, the enemy pieces attacking the king, found by the {@link AttackDetector}.</li>
+ *     <li>The check evasion mask: with a single checker, the checker's square and the squares between it and the king.
+ *     With two checkers, only the king may move.</li>
+ *     <li>The pinned pieces, which may only move along the line between the king and their pinner.</li>
+ * </ul>
+ * King moves are legal if the target is not attacked once the king has left its square.
+ * Castling additionally requires that the king is not in check and does not pass an attacked square.
+ * En passant captures, which remove two pieces from a rank, and moves with custom components are played
+ * and tested instead, as are all moves in positions with custom piece types or without exactly one king.
+ * </p>
+ * <p>
+ * As a {@link RestrictiveMoveRule}, it replaces the pair of
+ * {@link de.schoenfeld.chess.rules.restrictive.CheckRule} and
+ * {@link de.schoenfeld.chess.rules.restrictive.NoCastlingThroughCheckRule}.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public class LegalMoveGenerator implements MoveGenerator, RestrictiveMoveRule, AttackDetector {
+    private static final long SIMPLE_COMPONENTS = MoveComponentRegistry.CAPTURE | MoveComponentRegistry.PROMOTION;
+    private static final int STANDARD_TYPES = 6;
+
+    private final SimpleMoveGenerator pseudoLegalMoveGenerator;
+
+    public LegalMoveGenerator(List<GenerativeMoveRule> generativeMoveRules) {
+        this.pseudoLegalMoveGenerator = new SimpleMoveGenerator(generativeMoveRules);
+    }
+
+    /**
+     * The result of analysing a position for the side to move.
+     *
+     * @param king        The square of the king
+     * @param checkers    The number of pieces giving check
+     * @param evasionMask The squares a piece other than the king may move to, all squares if not in check
+     * @param pinners     The square of the pinner for each square of a pinned piece, {@code -1} otherwise
+     * @param kingless    The game state without the king, to test the targets of king moves
+     */
+    private record Analysis(int king, int checkers, boolean[] evasionMask, int[] pinners, GameState kingless) {
+    }
+
+    private static boolean isSlider(PieceType pieceType) {
+        return slidesAlong(pieceType, 1, 0) || slidesAlong(pieceType, 1, 1);
+    }
+
+    private static boolean slidesAlong(PieceType pieceType, int dx, int dy) {
+        boolean diagonal = dx != 0 && dy != 0;
+        return PieceType.QUEEN.equals(pieceType)
+                || (diagonal ? PieceType.BISHOP : PieceType.ROOK).equals(pieceType);
+    }
+
+    private static boolean isStandard(ImmutableChessBoard board) {
+        for (ChessPiece piece : board.getPieces())
+            if (piece.index() >> 1 >= STANDARD_TYPES) return false;
+        return true;
+    }
+
+    @Override
+    public MoveCollection generateMoves(GameState gameState) {
+        MoveCollection moves = pseudoLegalMoveGenerator.generateMoves(gameState);
+        filterMoves(moves, gameState);
+        return moves;
+    }
+
+    @Override
+    public void filterMoves(MoveCollection moves, GameState gameState) {
+        if (moves.isEmpty()) return;
+        Analysis analysis = analyse(gameState);
+
+        Iterator<Move> iterator = moves.iterator();
+        while (iterator.hasNext()) {
+            Move move = iterator.next();
+            if (!isLegal(move, gameState, analysis)) iterator.remove();
+        }
+    }
+
+    /**
+     * Returns a rule that analyses the position on its first non-empty set of moves and reuses the analysis
+     * for all later ones.
+     */
+    @Override
+    public RestrictiveMoveRule prepare(GameState gameState) {
+        return new RestrictiveMoveRule() {
+            private Analysis analysis;
+            private boolean analysed;
+
+            @Override
+            public void filterMoves(MoveCollection moves, GameState ignored) {
+                if (moves.isEmpty()) return;
+                if (!analysed) {
+                    analysis = analyse(gameState);
+                    analysed = true;
+                }
+                Iterator<Move> iterator = moves.iterator();
+                while (iterator.hasNext()) {
+                    if (!isLegal(iterator.next(), gameState, analysis)) iterator.remove();
+                }
+            }
+        };
+    }
+
+    /**
+     * Runs the rules one by one and stops at the first legal move, analysing the position only once.
+     */
+    @Override
+    public boolean hasAnyMove(GameState gameState) {
+        Analysis analysis = null;
+        boolean analysed = false;
+        for (GenerativeMoveRule rule : pseudoLegalMoveGenerator.rules()) {
+            MoveCollection moves = rule.generateMoves(gameState);
+            if (moves.isEmpty()) continue;
+            if (!analysed) {
+                analysis = analyse(gameState);
+                analysed = true;
+            }
+            for (Move move : moves)
+                if (isLegal(move, gameState, analysis)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isSquareAttacked(GameState gameState, Position square, boolean byWhite) {
+        return pseudoLegalMoveGenerator.isSquareAttacked(gameState, square, byWhite);
+    }
+
+    @Override
+    public List<Position> attackersOf(GameState gameState, Position square, boolean byWhite) {
+        return pseudoLegalMoveGenerator.attackersOf(gameState, square, byWhite);
+    }
+
+    /**
+     * Analyses the position for the side to move.
+     *
+     * @return The analysis, or {@code null} if the moves have to be played to be tested
+     */
+    private Analysis analyse(GameState gameState) {
+        ImmutableChessBoard board = gameState.chessBoard();
+        boolean isWhite = gameState.isWhiteTurn();
+        List<Position> kings = board.getPiecePositions(PieceType.KING, isWhite);
+        if (kings.size() != 1 || !isStandard(board)) return null;
+
+        ChessBoardBounds bounds = board.getBounds();
+        BoardGeometry geometry = BoardGeometry.of(bounds);
+        Position kingPosition = kings.get(0);
+        int king = bounds.toIndex(kingPosition);
+
+        // Checkers and the squares that block or capture a single checker
+        List<Position> checkers = attackersOf(gameState, kingPosition, !isWhite);
+        boolean[] evasionMask = new boolean[bounds.squareCount()];
+        if (checkers.isEmpty()) {
+            Arrays.fill(evasionMask, true);
+        } else if (checkers.size() == 1) {
+            int checker = bounds.toIndex(checkers.get(0));
+            evasionMask[checker] = true;
+            if (isSlider(board.getPieceAt(checker).pieceType()))
+                for (int square : geometry.between(king, checker)) evasionMask[square] = true;
+        }
+
+        // Pinned pieces: an own piece followed by an enemy slider along the same line
+        int[] pinners = new int[bounds.squareCount()];
+        Arrays.fill(pinners, -1);
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                if (dx == 0 && dy == 0) continue;
+                int candidate = -1;
+                for (int square : geometry.rays(dx, dy)[king]) {
+                    ChessPiece piece = board.getPieceAt(square);
+                    if (piece == null) continue;
+                    if (piece.isWhite() == isWhite) {
+                        if (candidate != -1) break;
+                        candidate = square;
+                        continue;
+                    }
+                    if (candidate != -1 && slidesAlong(piece.pieceType(), dx, dy)) pinners[candidate] = square;
+                    break;
+                }
+            }
+        }
+
+        GameState kingless = gameState.withChessBoard(board.withoutPieceAt(kingPosition));
+        return new Analysis(king, checkers.size(), evasionMask, pinners, kingless);
+    }
+
+    private boolean isLegal(Move move, GameState gameState, Analysis analysis) {
+        if (analysis == null) return isLegalWhenPlayed(move, gameState);
+        boolean isWhite = gameState.isWhiteTurn();
+        ChessBoardBounds bounds = gameState.chessBoard().getBounds();
+        long components = move.componentMask();
+
+        if ((components & MoveComponentRegistry.CASTLING) != 0) {
+            // Castling out of check is not allowed
+            if (analysis.checkers() > 0) return false;
+            if ((components & ~MoveComponentRegistry.CASTLING) != 0) return isLegalWhenPlayed(move, gameState);
+            // Neither the squares the king passes nor its target may be attacked
+            int from = bounds.toIndex(move.from()), to = bounds.toIndex(move.to());
+            BoardGeometry geometry = BoardGeometry.of(bounds);
+            for (int square : geometry.between(from, to))
+                if (isSquareAttacked(analysis.kingless(), geometry.position(square), !isWhite)) return false;
+            return !isSquareAttacked(analysis.kingless(), move.to(), !isWhite);
+        }
+        if ((components & ~SIMPLE_COMPONENTS) != 0) return isLegalWhenPlayed(move, gameState);
+
+        int from = bounds.toIndex(move.from());
+        if (from == analysis.king())
+            return !isSquareAttacked(analysis.kingless(), move.to(), !isWhite);
+
+        if (analysis.checkers() > 1) return false;
+        int to = bounds.toIndex(move.to());
+        if (!analysis.evasionMask()[to]) return false;
+
+        int pinner = analysis.pinners()[from];
+        if (pinner == -1 || to == pinner) return true;
+        return BoardGeometry.of(bounds).isBetween(analysis.king(), pinner, to);
+    }
+
+    /**
+     * Plays the move and tests whether the king of the moving side is attacked afterwards.
+     */
+    private boolean isLegalWhenPlayed(Move move, GameState gameState) {
+        boolean isWhite = gameState.isWhiteTurn();
+        GameState future = move.executeOn(gameState);
+        for (Position king : future.chessBoard().getPiecePositions(PieceType.KING, isWhite))
+            if (isSquareAttacked(future, king, !isWhite)) return false;
+        return true;
+    }
+}
@@ -5,4 +5,15 @@ import de.schoenfeld.chess.move.MoveCollection;
 
 public interface MoveGenerator {
     MoveCollection generateMoves(GameState gameState);
+
+    /**
+     * Returns whether {@link #generateMoves(GameState)} would return any move.
+     * Implementations may stop at the first move they find instead of generating all moves.
+     *
+     * @param gameState The current game state
+     * @return Whether there is a move
+     */
+    default boolean hasAnyMove(GameState gameState) {
+        return !generateMoves(gameState).isEmpty();
+    }
 }
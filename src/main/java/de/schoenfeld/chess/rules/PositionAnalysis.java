@@ -0,0 +1,77 @@
+package de.schoenfeld.chess.rules;
+
+import de.schoenfeld.chess.events.GameConclusion;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.move.MoveCollection;
+
+import java.util.Optional;
+
+/**
+ * The result of evaluating a position once with {@link Rules#analyse(GameState)}:
+ * the legal moves, whether the side to move is in check, and how the game ended, if it did.
+ * <p>
+ * Game end rules receive the analysis before the conclusion is known, see
+ * {@link de.schoenfeld.chess.rules.gameend.GameEndRule#detectGameEndCause(PositionAnalysis)},
+ * so they can use the legal moves instead of generating them again.
+ * The analysis that {@link Rules#detectGameEndCause(GameState)} passes to them only holds the legal moves found
+ * until the first one, which is enough to tell whether there is any, see {@link #hasLegalMove()}.
+ * </p>
+ *
+ * @param gameState  The analysed game state
+ * @param legalMoves The moves allowed by the generative and restrictive rules, regardless of the game end rules,
+ *                   which must not be modified; only some of them if the analysis stopped at the first legal move
+ * @param isInCheck  Whether a king of the side to move is attacked
+ * @param conclusion The conclusion of the game, or {@code null} if the game goes on or is not evaluated yet
+ * @author Anton Schoenfeld
+ */
+public record PositionAnalysis(GameState gameState, MoveCollection legalMoves, boolean isInCheck,
+                               GameConclusion conclusion) {
+
+    public PositionAnalysis {
+        if (gameState == null) throw new NullPointerException("gameState");
+        if (legalMoves == null) throw new NullPointerException("legalMoves");
+    }
+
+    /**
+     * Analyses the given position with a generator that returns the legal moves, without consulting any game end rules.
+     *
+     * @param gameState     The game state to analyse
+     * @param moveGenerator The generator of the legal moves, which also tells whether the side to move is in check
+     *                      if it is an {@link AttackDetector}, see {@link AttackDetector#of(MoveGenerator)}
+     * @return The analysis, without a conclusion
+     */
+    public static PositionAnalysis of(GameState gameState, MoveGenerator moveGenerator) {
+        return new PositionAnalysis(gameState, moveGenerator.generateMoves(gameState),
+                AttackDetector.of(moveGenerator).isInCheck(gameState), null);
+    }
+
+    /**
+     * Returns whether the side to move has a legal move, regardless of the game end rules.
+     *
+     * @return Whether there is a legal move
+     */
+    public boolean hasLegalMove() {
+        return !legalMoves.isEmpty();
+    }
+
+    public PositionAnalysis withConclusion(GameConclusion conclusion) {
+        return new PositionAnalysis(gameState, legalMoves, isInCheck, conclusion);
+    }
+
+    public Optional<GameConclusion> gameEndCause() {
+        return Optional.ofNullable(conclusion);
+    }
+
+    public boolean isGameOver() {
+        return conclusion != null;
+    }
+
+    /**
+     * Returns the moves that may be played, none if the game is over.
+     *
+     * @return The playable moves, which must not be modified
+     */
+    public MoveCollection moves() {
+        return isGameOver() ? new MoveCollection(gameState.chessBoard().getBounds()) : legalMoves;
+    }
+}
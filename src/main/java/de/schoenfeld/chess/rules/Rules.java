@@ -2,47 +2,56 @@ package de.schoenfeld.chess.rules;
 
 import de.schoenfeld.chess.events.GameConclusion;
 import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.GenerationMode;
+import de.schoenfeld.chess.move.Move;
 import de.schoenfeld.chess.move.MoveCollection;
 import de.schoenfeld.chess.rules.gameend.CheckMateRule;
+import de.schoenfeld.chess.rules.gameend.FiftyMoveRule;
 import de.schoenfeld.chess.rules.gameend.GameEndRule;
 import de.schoenfeld.chess.rules.gameend.InsufficientMaterialRule;
+import de.schoenfeld.chess.rules.gameend.StalemateRule;
+import de.schoenfeld.chess.rules.gameend.ThreefoldRepetitionRule;
+import de.schoenfeld.chess.rules.generative.BitboardKingMoveRule;
+import de.schoenfeld.chess.rules.generative.BitboardKnightMoveRule;
+import de.schoenfeld.chess.rules.generative.BitboardPawnMoveRule;
+import de.schoenfeld.chess.rules.generative.FusedMoveRule;
 import de.schoenfeld.chess.rules.generative.GenerativeMoveRule;
-import de.schoenfeld.chess.rules.generative.KingMoveRule;
-import de.schoenfeld.chess.rules.generative.KnightMoveRule;
-import de.schoenfeld.chess.rules.generative.PawnMoveRule;
+import de.schoenfeld.chess.rules.generative.PieceMoveRule;
 import de.schoenfeld.chess.rules.generative.sliding.BishopMoveRule;
 import de.schoenfeld.chess.rules.generative.sliding.QueenMoveRule;
 import de.schoenfeld.chess.rules.generative.sliding.RookMoveRule;
-import de.schoenfeld.chess.rules.restrictive.CheckRule;
 import de.schoenfeld.chess.rules.restrictive.FriendlyFireRule;
-import de.schoenfeld.chess.rules.restrictive.NoCastlingThroughCheckRule;
 import de.schoenfeld.chess.rules.restrictive.RestrictiveMoveRule;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 public record Rules(List<GenerativeMoveRule> generativeMoveRules, List<RestrictiveMoveRule> restrictiveMoveRules,
-                    List<GameEndRule> gameEndRules) implements MoveGenerator {
+                    List<GameEndRule> gameEndRules) implements MoveGenerator, AttackDetector {
     public static final Rules DEFAULT;
 
     static {
-        var generativeMoveRules = List.of(
-                new PawnMoveRule(),
-                new KnightMoveRule(),
+        List<GenerativeMoveRule> generativeMoveRules = List.of(
+                new BitboardPawnMoveRule(),
+                new BitboardKnightMoveRule(),
                 new BishopMoveRule(),
                 new RookMoveRule(),
                 new QueenMoveRule(),
-                new KingMoveRule()
+                new BitboardKingMoveRule()
         );
-        MoveGenerator moveGenerator = new SimpleMoveGenerator(generativeMoveRules);
-        var restrictiveMoveRules = List.of(
+        LegalMoveGenerator legalMoveGenerator = new LegalMoveGenerator(generativeMoveRules);
+        var restrictiveMoveRules = List.<RestrictiveMoveRule>of(
                 new FriendlyFireRule(),
-                new CheckRule(moveGenerator),
-                new NoCastlingThroughCheckRule(moveGenerator)
+                legalMoveGenerator
         );
         var gameEndRules = List.of(
-                new CheckMateRule(moveGenerator),
-                new InsufficientMaterialRule()
+                new CheckMateRule(legalMoveGenerator),
+                new StalemateRule(legalMoveGenerator),
+                new InsufficientMaterialRule(),
+                new ThreefoldRepetitionRule(),
+                new FiftyMoveRule()
         );
         DEFAULT = new Rules(generativeMoveRules, restrictiveMoveRules, gameEndRules);
     }
@@ -59,30 +68,187 @@ public record Rules(List<GenerativeMoveRule> generativeMoveRules, List<Restricti
         this.gameEndRules = List.copyOf(gameEndRules);
     }
 
+    /**
+     * Detects the end of the game with the game end rules. They receive an analysis whose legal moves are only
+     * searched until the first one is found, see {@link PositionAnalysis} and {@link #hasAnyLegalMove(GameState)}.
+     *
+     * @param gameState The current game state
+     * @return The conclusion of the first game end rule that detects one, or an empty optional if the game goes on
+     */
     public Optional<GameConclusion> detectGameEndCause(GameState gameState) {
+        return detectGameEndCause(firstMovesAnalysis(gameState));
+    }
+
+    /**
+     * Analyses the position only until the first legal move is found.
+     */
+    private PositionAnalysis firstMovesAnalysis(GameState gameState) {
+        return new PositionAnalysis(gameState, firstLegalMoves(gameState), isInCheck(gameState), null);
+    }
+
+    private Optional<GameConclusion> detectGameEndCause(PositionAnalysis analysis) {
         for (var rule : gameEndRules) {
-            var cause = rule.detectGameEndCause(gameState);
+            var cause = rule.detectGameEndCause(analysis);
             if (cause.isPresent()) return cause;
         }
         return Optional.empty();
     }
 
-    public MoveCollection generateMoves(GameState gameState) {
-        var moves = new MoveCollection();
-        // Check if the game has ended
-        if (detectGameEndCause(gameState).isPresent()) return moves;
+    /**
+     * Evaluates the position once: generates and filters the legal moves, tests whether the side to move is in check,
+     * and passes both to the game end rules, see {@link GameEndRule#detectGameEndCause(PositionAnalysis)}.
+     *
+     * @param gameState The current game state
+     * @return The analysis of the position, with the conclusion of the first game end rule that detects one
+     */
+    public PositionAnalysis analyse(GameState gameState) {
+        var moves = new MoveCollection(gameState.chessBoard().getBounds());
 
         // Generate moves
         for (var rule : generativeMoveRules)
-            moves.addAll(rule.generateMoves(gameState));
+            rule.generateMoves(gameState, moves);
 
         // Filter moves
         for (var rule : restrictiveMoveRules)
             rule.filterMoves(moves, gameState);
 
+        // Check if the game has ended
+        var analysis = new PositionAnalysis(gameState, moves, isInCheck(gameState), null);
+        return detectGameEndCause(analysis).map(analysis::withConclusion).orElse(analysis);
+    }
+
+    public MoveCollection generateMoves(GameState gameState) {
+        return analyse(gameState).moves();
+    }
+
+    /**
+     * Generates the legal moves the given mode includes, e.g. only the captures and promotions for a quiescence
+     * search. Like {@link #stagedMoves(GameState)}, the game end rules are not consulted.
+     *
+     * @param gameState The current game state
+     * @param mode      The kind of moves to generate, see {@link GenerationMode}
+     * @return The legal moves of the mode
+     */
+    public MoveCollection generateMoves(GameState gameState, GenerationMode mode) {
+        var moves = new MoveCollection(gameState.chessBoard().getBounds());
+        for (var rule : generativeMoveRules)
+            rule.generateMoves(gameState, mode, moves);
+        for (var rule : restrictiveMoveRules) {
+            if (moves.isEmpty()) break;
+            rule.filterMoves(moves, gameState);
+        }
         return moves;
     }
 
+    /**
+     * Returns whether the side to move has a legal move, regardless of the game end rules.
+     * The generative rules are run one by one, and their moves filtered by the restrictive rules,
+     * until the first legal move is found.
+     *
+     * @param gameState The current game state
+     * @return Whether there is a legal move
+     */
+    public boolean hasAnyLegalMove(GameState gameState) {
+        return !firstLegalMoves(gameState).isEmpty();
+    }
+
+    /**
+     * Returns the legal moves of the first generative rule that yields any, or no moves if there is no legal move.
+     */
+    private MoveCollection firstLegalMoves(GameState gameState) {
+        List<RestrictiveMoveRule> preparedRules = null;
+        for (var generativeRule : generativeMoveRules) {
+            var moves = generativeRule.generateMoves(gameState);
+            if (moves.isEmpty()) continue;
+            // The restrictive rules analyse the position only once for all generative rules
+            if (preparedRules == null) {
+                preparedRules = new ArrayList<>(restrictiveMoveRules.size());
+                for (var restrictiveRule : restrictiveMoveRules) preparedRules.add(restrictiveRule.prepare(gameState));
+            }
+            for (var restrictiveRule : preparedRules) {
+                if (moves.isEmpty()) break;
+                restrictiveRule.filterMoves(moves, gameState);
+            }
+            if (!moves.isEmpty()) return moves;
+        }
+        return new MoveCollection(gameState.chessBoard().getBounds());
+    }
+
+    /**
+     * Returns whether the side to move has a legal move and the game goes on. The legal moves are searched only once,
+     * until the first one is found, and the game end rules receive the result, see {@link PositionAnalysis}.
+     *
+     * @param gameState The current game state
+     * @return Whether a move can be played
+     */
+    @Override
+    public boolean hasAnyMove(GameState gameState) {
+        var analysis = firstMovesAnalysis(gameState);
+        return analysis.hasLegalMove() && detectGameEndCause(analysis).isEmpty();
+    }
+
+    /**
+     * Returns the moves of the position lazily, stage by stage, see {@link StagedMoveIterator}.
+     *
+     * @param gameState The current game state
+     * @return An iterator over the moves
+     */
+    public StagedMoveIterator stagedMoves(GameState gameState) {
+        return stagedMoves(gameState, null);
+    }
+
+    /**
+     * Returns the moves of the position lazily, stage by stage, starting with the given hash move,
+     * see {@link StagedMoveIterator}.
+     *
+     * @param gameState The current game state
+     * @param hashMove  The move to return first if it is legal, or {@code null}
+     * @return An iterator over the moves
+     */
+    public StagedMoveIterator stagedMoves(GameState gameState, Move hashMove) {
+        return new StagedMoveIterator(gameState, generativeMoveRules, restrictiveMoveRules, hashMove);
+    }
+
+    @Override
+    public boolean isSquareAttacked(GameState gameState, Position square, boolean byWhite) {
+        for (var rule : generativeMoveRules)
+            if (rule.isAttacking(gameState, square, byWhite)) return true;
+        return false;
+    }
+
+    @Override
+    public List<Position> attackersOf(GameState gameState, Position square, boolean byWhite) {
+        List<Position> attackers = new ArrayList<>();
+        for (var rule : generativeMoveRules)
+            attackers.addAll(rule.attackersOf(gameState, square, byWhite));
+        return attackers;
+    }
+
+    /**
+     * Returns rules whose {@link PieceMoveRule}s are fused into a single {@link FusedMoveRule}, which visits the
+     * pieces of the side to move once and passes each to the rules of its type.
+     * The other generative rules, like castling, follow the fused rule unchanged.
+     * Compiling rules that are already compiled fuses their rules again with the new ones.
+     *
+     * @return The compiled rules, or these rules if they contain no {@link PieceMoveRule}
+     */
+    public Rules compile() {
+        List<PieceMoveRule> pieceMoveRules = new ArrayList<>();
+        List<GenerativeMoveRule> otherRules = new ArrayList<>();
+        for (var rule : generativeMoveRules) {
+            if (rule instanceof FusedMoveRule fused) pieceMoveRules.addAll(fused.rules());
+            else if (rule instanceof PieceMoveRule pieceMoveRule && pieceMoveRule.pieceType() != null)
+                pieceMoveRules.add(pieceMoveRule);
+            else otherRules.add(rule);
+        }
+        if (pieceMoveRules.isEmpty()) return this;
+
+        List<GenerativeMoveRule> compiled = new ArrayList<>();
+        compiled.add(new FusedMoveRule(pieceMoveRules));
+        compiled.addAll(otherRules);
+        return withGenerativeMoveRules(compiled);
+    }
+
     public Rules withGenerativeMoveRules(List<GenerativeMoveRule> generativeMoveRules) {
         return new Rules(generativeMoveRules, restrictiveMoveRules, gameEndRules);
     }
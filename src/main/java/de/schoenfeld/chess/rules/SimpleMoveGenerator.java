@@ -1,12 +1,14 @@
 package de.schoenfeld.chess.rules;
 
 import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.Position;
 import de.schoenfeld.chess.move.MoveCollection;
 import de.schoenfeld.chess.rules.generative.GenerativeMoveRule;
 
+import java.util.ArrayList;
 import java.util.List;
 
-public record SimpleMoveGenerator(List<GenerativeMoveRule> rules) implements MoveGenerator {
+public record SimpleMoveGenerator(List<GenerativeMoveRule> rules) implements MoveGenerator, AttackDetector {
 
     public SimpleMoveGenerator(List<GenerativeMoveRule> rules) {
         if (rules == null) throw new NullPointerException("rules");
@@ -16,10 +18,32 @@ public record SimpleMoveGenerator(List<GenerativeMoveRule> rules) implements Mov
 
     @Override
     public MoveCollection generateMoves(GameState gameState) {
-        var moves = new MoveCollection();
+        var moves = new MoveCollection(gameState.chessBoard().getBounds());
         for (var rule : rules) {
-            moves.addAll(rule.generateMoves(gameState));
+            rule.generateMoves(gameState, moves);
         }
         return moves;
     }
+
+    @Override
+    public boolean hasAnyMove(GameState gameState) {
+        for (var rule : rules)
+            if (!rule.generateMoves(gameState).isEmpty()) return true;
+        return false;
+    }
+
+    @Override
+    public boolean isSquareAttacked(GameState gameState, Position square, boolean byWhite) {
+        for (var rule : rules)
+            if (rule.isAttacking(gameState, square, byWhite)) return true;
+        return false;
+    }
+
+    @Override
+    public List<Position> attackersOf(GameState gameState, Position square, boolean byWhite) {
+        List<Position> attackers = new ArrayList<>();
+        for (var rule : rules)
+            attackers.addAll(rule.attackersOf(gameState, square, byWhite));
+        return attackers;
+    }
 }
@@ -0,0 +1,174 @@
+package de.schoenfeld.chess.rules;
+
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.move.GenerationMode;
+import de.schoenfeld.chess.move.Move;
+import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.move.MoveSink;
+import de.schoenfeld.chess.move.MoveStage;
+import de.schoenfeld.chess.rules.generative.GenerativeMoveRule;
+import de.schoenfeld.chess.rules.restrictive.RestrictiveMoveRule;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates the moves of a position lazily, one {@link MoveStage} after the other.
+ * <p>
+ * A {@link GenerativeMoveRule} is run once the stage of {@link GenerativeMoveRule#firstStage()} is reached:
+ * for the captures and promotions with {@link GenerationMode#CAPTURES}, and only once the quiet moves are reached
+ * with {@link GenerationMode#QUIETS}. Its moves are kept for the stages they belong to. The moves of a stage are
+ * filtered by the {@link RestrictiveMoveRule}s when the stage is reached, so a caller that stops early,
+ * e.g. on a search cutoff, neither generates the quiet moves nor filters the remaining moves.
+ * The restrictive rules are prepared for the position once, see {@link RestrictiveMoveRule#prepare(GameState)},
+ * so their analysis of the position is shared by all stages.
+ * </p>
+ * <p>
+ * The hash move is returned first if it is generated and passes the restrictive rules, and is not returned again.
+ * Captures are ordered most valuable victim first, then least valuable attacker first, with the king as the most
+ * valuable attacker, and promotions by the value of the promoted piece.
+ * Game end rules are not consulted; the iterator returns the moves as if the game went on.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public final class StagedMoveIterator implements Iterator<Move> {
+    private static final MoveStage[] STAGES = MoveStage.values();
+    private static final Comparator<Move> CAPTURE_ORDER = Comparator
+            .comparingInt((Move move) -> -move.capture().capturedPiece().pieceType().value())
+            .thenComparingInt(move -> attackerValue(move.movedPiece().pieceType()));
+    private static final Comparator<Move> PROMOTION_ORDER = Comparator
+            .comparingInt((Move move) -> -move.promotion().promotionTo().value());
+
+    private final GameState gameState;
+    private final List<GenerativeMoveRule> generativeMoveRules;
+    private final List<RestrictiveMoveRule> restrictiveMoveRules;
+    private final Move hashMove;
+    private final boolean[] ranCaptures;
+    private final boolean[] ranQuiets;
+    private List<RestrictiveMoveRule> preparedRules;
+    private final List<List<Move>> pending;
+    private int stage = -1;
+    private List<Move> batch = List.of();
+    private int next;
+    private Move hashMoveTested;
+
+    StagedMoveIterator(GameState gameState,
+                       List<GenerativeMoveRule> generativeMoveRules,
+                       List<RestrictiveMoveRule> restrictiveMoveRules,
+                       Move hashMove) {
+        if (gameState == null) throw new NullPointerException("gameState");
+
+        this.gameState = gameState;
+        this.generativeMoveRules = generativeMoveRules;
+        this.restrictiveMoveRules = restrictiveMoveRules;
+        this.hashMove = hashMove;
+        this.ranCaptures = new boolean[generativeMoveRules.size()];
+        this.ranQuiets = new boolean[generativeMoveRules.size()];
+        this.pending = new ArrayList<>(STAGES.length);
+        for (int i = 0; i < STAGES.length; i++) pending.add(new ArrayList<>());
+    }
+
+    /**
+     * Returns the value of a capturing piece, where the king, which can only capture undefended pieces,
+     * is worth more than all others.
+     */
+    private static int attackerValue(PieceType pieceType) {
+        return PieceType.KING.equals(pieceType) ? Integer.MAX_VALUE : pieceType.value();
+    }
+
+    /**
+     * Returns the stage of the move returned last.
+     *
+     * @return The current stage, or {@code null} if no move has been returned yet
+     */
+    public MoveStage stage() {
+        return stage < 0 ? null : STAGES[stage];
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next >= batch.size()) {
+            if (stage == STAGES.length - 1) return false;
+            stage++;
+            batch = prepareStage(STAGES[stage]);
+            next = 0;
+        }
+        return true;
+    }
+
+    @Override
+    public Move next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return batch.get(next++);
+    }
+
+    private List<Move> prepareStage(MoveStage stage) {
+        if (stage == MoveStage.HASH_MOVE) return prepareHashMove();
+
+        runRulesUpTo(stage);
+        List<Move> moves = pending.get(stage.ordinal());
+        if (moves.isEmpty()) return List.of();
+
+        List<Move> legal = filter(moves);
+        moves.clear();
+        if (hashMoveTested != null) legal.remove(hashMoveTested);
+        if (stage == MoveStage.CAPTURES) legal.sort(CAPTURE_ORDER);
+        else if (stage == MoveStage.PROMOTIONS) legal.sort(PROMOTION_ORDER);
+        return legal;
+    }
+
+    private List<Move> prepareHashMove() {
+        if (hashMove == null || hashMove.movedPiece() == null
+                || hashMove.movedPiece().isWhite() != gameState.isWhiteTurn()) return List.of();
+
+        // Only a move the rules generate is a valid hash move, hash moves of other positions are skipped
+        MoveStage stage = MoveStage.of(hashMove);
+        runRulesUpTo(stage);
+        if (!pending.get(stage.ordinal()).remove(hashMove)) return List.of();
+
+        hashMoveTested = hashMove;
+        return filter(List.of(hashMove));
+    }
+
+    /**
+     * Runs the rules whose first stage is not after the given stage, for the captures and promotions, and from the
+     * quiet moves on also for the other moves. Their moves are kept for their stages; moves of stages that have
+     * already passed are kept for the current stage instead.
+     */
+    private void runRulesUpTo(MoveStage stage) {
+        int current = Math.max(this.stage, MoveStage.CAPTURES.ordinal());
+        MoveSink sink = move -> pending.get(Math.max(MoveStage.of(move).ordinal(), current)).add(move);
+        boolean includesQuiets = stage.compareTo(MoveStage.QUIETS) >= 0;
+        for (int i = 0; i < generativeMoveRules.size(); i++) {
+            GenerativeMoveRule rule = generativeMoveRules.get(i);
+            if (rule.firstStage().compareTo(stage) > 0) continue;
+            if (!ranCaptures[i]) {
+                ranCaptures[i] = true;
+                rule.generateMoves(gameState, GenerationMode.CAPTURES, sink);
+            }
+            if (includesQuiets && !ranQuiets[i]) {
+                ranQuiets[i] = true;
+                rule.generateMoves(gameState, GenerationMode.QUIETS, sink);
+            }
+        }
+    }
+
+    private List<Move> filter(List<Move> moves) {
+        if (preparedRules == null) {
+            preparedRules = new ArrayList<>(restrictiveMoveRules.size());
+            for (RestrictiveMoveRule rule : restrictiveMoveRules) preparedRules.add(rule.prepare(gameState));
+        }
+        MoveCollection collection = new MoveCollection(gameState.chessBoard().getBounds());
+        collection.addAll(moves);
+        for (RestrictiveMoveRule rule : preparedRules) {
+            if (collection.isEmpty()) break;
+            rule.filterMoves(collection, gameState);
+        }
+        return new ArrayList<>(collection);
+    }
+}
@@ -1,13 +1,19 @@
 package de.schoenfeld.chess.rules.gameend;
 
 import de.schoenfeld.chess.events.GameConclusion;
-import de.schoenfeld.chess.model.ChessPiece;
 import de.schoenfeld.chess.model.GameState;
-import de.schoenfeld.chess.model.PieceType;
 import de.schoenfeld.chess.rules.MoveGenerator;
+import de.schoenfeld.chess.rules.PositionAnalysis;
 
 import java.util.Optional;
 
+/**
+ * Ends the game if the side to move is in check and has no legal move.
+ * <p>
+ * The rule reads both from the {@link PositionAnalysis} of the position. Used on its own, the rule analyses
+ * the position with the given {@link MoveGenerator}, see {@link PositionAnalysis#of(GameState, MoveGenerator)}.
+ * </p>
+ */
 public class CheckMateRule implements GameEndRule {
     private final MoveGenerator moveGenerator;
 
@@ -17,37 +23,16 @@ public class CheckMateRule implements GameEndRule {
 
     @Override
     public Optional<GameConclusion> detectGameEndCause(GameState gameState) {
-        var moves = moveGenerator.generateMoves(gameState);
-
-        // If the current player has no legal moves, check if their king is attacked
-        if (moves.isEmpty() && isKingAttacked(gameState)) {
-            return Optional.of(new GameConclusion(
-                    gameState.isWhiteTurn() ? GameConclusion.Winner.BLACK
-                            : GameConclusion.Winner.WHITE,
-                    "Checkmate"
-            ));
-        }
-
-        return Optional.empty();
+        return detectGameEndCause(PositionAnalysis.of(gameState, moveGenerator));
     }
 
-    private boolean isKingAttacked(GameState gameState) {
-        var board = gameState.chessBoard();
-        boolean isWhiteTurn = gameState.isWhiteTurn();
-
-        // Locate the king
-        ChessPiece king = board.getPiecesOfType(PieceType.KING, isWhiteTurn)
-                .stream()
-                .findFirst()
-                .orElse(null);
-        if (king == null) return false; // Should never happen unless the game is corrupted
-
-        var enemyState = gameState.withIsWhiteTurn(!gameState.isWhiteTurn());
-        var opponentMoves = moveGenerator.generateMoves(enemyState);
-
-        // Check if any move targets the king's position
-        return opponentMoves
-                .stream()
-                .anyMatch(move -> move.to().equals(board.getPiecePosition(king)));
+    @Override
+    public Optional<GameConclusion> detectGameEndCause(PositionAnalysis analysis) {
+        if (!analysis.isInCheck() || analysis.hasLegalMove()) return Optional.empty();
+        return Optional.of(new GameConclusion(
+                analysis.gameState().isWhiteTurn() ? GameConclusion.Winner.BLACK
+                        : GameConclusion.Winner.WHITE,
+                "Checkmate"
+        ));
     }
 }
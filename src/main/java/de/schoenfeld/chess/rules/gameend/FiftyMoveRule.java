@@ -0,0 +1,22 @@
+package de.schoenfeld.chess.rules.gameend;
+
+import de.schoenfeld.chess.events.GameConclusion;
+import de.schoenfeld.chess.model.GameState;
+
+import java.util.Optional;
+
+/**
+ * Ends the game in a draw once each side made fifty moves without a capture or pawn move,
+ * see {@link GameState#halfmoveClock()}.
+ *
+ * @author Anton Schoenfeld
+ */
+public class FiftyMoveRule implements GameEndRule {
+    private static final int HALFMOVE_LIMIT = 100;
+
+    @Override
+    public Optional<GameConclusion> detectGameEndCause(GameState gameState) {
+        if (gameState.halfmoveClock() < HALFMOVE_LIMIT) return Optional.empty();
+        return Optional.of(new GameConclusion(GameConclusion.Winner.NONE, "Fifty-move rule"));
+    }
+}
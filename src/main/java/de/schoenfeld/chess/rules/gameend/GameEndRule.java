@@ -2,9 +2,23 @@ package de.schoenfeld.chess.rules.gameend;
 
 import de.schoenfeld.chess.events.GameConclusion;
 import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.rules.PositionAnalysis;
 
 import java.util.Optional;
 
 public interface GameEndRule {
     Optional<GameConclusion> detectGameEndCause(GameState gameState);
+
+    /**
+     * Detects the end of the game from an analysis of the position, whose legal moves and check status
+     * are already known. The rules pass every position through this method, see
+     * {@link de.schoenfeld.chess.rules.Rules#detectGameEndCause(GameState)}.
+     * The default implementation ignores them and evaluates the game state.
+     *
+     * @param analysis The analysis of the position, without a conclusion
+     * @return The conclusion of the game, or an empty optional if the game goes on
+     */
+    default Optional<GameConclusion> detectGameEndCause(PositionAnalysis analysis) {
+        return detectGameEndCause(analysis.gameState());
+    }
 }
@@ -0,0 +1,34 @@
+package de.schoenfeld.chess.rules.gameend;
+
+import de.schoenfeld.chess.events.GameConclusion;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.rules.MoveGenerator;
+import de.schoenfeld.chess.rules.PositionAnalysis;
+
+import java.util.Optional;
+
+/**
+ * Ends the game in a draw if the side to move is not in check and has no legal move.
+ * <p>
+ * The rule reads both from the {@link PositionAnalysis} of the position. Used on its own, the rule analyses
+ * the position with the given {@link MoveGenerator}, see {@link PositionAnalysis#of(GameState, MoveGenerator)}.
+ * </p>
+ */
+public class StalemateRule implements GameEndRule {
+    private final MoveGenerator moveGenerator;
+
+    public StalemateRule(MoveGenerator moveGenerator) {
+        this.moveGenerator = moveGenerator;
+    }
+
+    @Override
+    public Optional<GameConclusion> detectGameEndCause(GameState gameState) {
+        return detectGameEndCause(PositionAnalysis.of(gameState, moveGenerator));
+    }
+
+    @Override
+    public Optional<GameConclusion> detectGameEndCause(PositionAnalysis analysis) {
+        if (analysis.isInCheck() || analysis.hasLegalMove()) return Optional.empty();
+        return Optional.of(new GameConclusion(GameConclusion.Winner.NONE, "Stalemate"));
+    }
+}
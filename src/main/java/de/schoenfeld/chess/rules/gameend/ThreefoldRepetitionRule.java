@@ -0,0 +1,24 @@
+package de.schoenfeld.chess.rules.gameend;
+
+import de.schoenfeld.chess.events.GameConclusion;
+import de.schoenfeld.chess.model.GameState;
+
+import java.util.Optional;
+
+/**
+ * Ends the game in a draw once the same position occurs for the third time.
+ * <p>
+ * Positions are compared by their Zobrist keys, and only back to the last capture or pawn move,
+ * see {@link GameState#repetitionCount()}.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public class ThreefoldRepetitionRule implements GameEndRule {
+    @Override
+    public Optional<GameConclusion> detectGameEndCause(GameState gameState) {
+        // A position can occur for the third time after eight reversible moves at the earliest
+        if (gameState.halfmoveClock() < 8 || gameState.repetitionCount() < 3) return Optional.empty();
+        return Optional.of(new GameConclusion(GameConclusion.Winner.NONE, "Threefold repetition"));
+    }
+}
@@ -0,0 +1,108 @@
+package de.schoenfeld.chess.rules.generative;
+
+import de.schoenfeld.chess.board.BitboardChessBoard;
+import de.schoenfeld.chess.board.LeaperBitboards;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.GenerationMode;
+import de.schoenfeld.chess.move.Move;
+import de.schoenfeld.chess.move.MoveSink;
+import de.schoenfeld.chess.move.components.CaptureComponent;
+
+import java.util.List;
+
+/**
+ * A {@link KnightMoveRule} that generates the knight moves of a {@link BitboardChessBoard} with 8x8 bounds set-wise.
+ * <p>
+ * The targets of each knight are looked up in the {@link LeaperBitboards} and split into captures and quiet moves
+ * by masking them with the enemy pieces and the empty squares; the moves are then created by bit-scanning the masks.
+ * On other boards, the moves are generated by {@link KnightMoveRule}.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public class BitboardKnightMoveRule extends KnightMoveRule {
+    /**
+     * Generates the moves of the given knights.
+     *
+     * @param board   The current chess board
+     * @param knights The bitboard of the knights to generate moves for, all of the same colour
+     * @param isWhite The colour of the knights
+     * @param mode    The kind of moves to generate
+     * @param sink    The sink that receives the generated moves
+     */
+    private static void generateKnightMoves(BitboardChessBoard board,
+                                            long knights,
+                                            boolean isWhite,
+                                            GenerationMode mode,
+                                            MoveSink sink) {
+        long enemies = mode.includesCaptures() ? board.piecesOfColour(!isWhite) : 0L;
+        long empty = mode.includesQuiets() ? ~board.occupied() : 0L;
+
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            Position fromPosition = Bitboards.position(from);
+            var knight = board.getPieceAt(fromPosition);
+            long attacks = LeaperBitboards.knightAttacks(from);
+
+            for (long captures = attacks & enemies; captures != 0; captures &= captures - 1) {
+                Position to = Bitboards.position(Long.numberOfTrailingZeros(captures));
+                sink.accept(Move.of(knight, fromPosition, to, new CaptureComponent(board.getPieceAt(to))));
+            }
+            for (long quiets = attacks & empty; quiets != 0; quiets &= quiets - 1)
+                sink.accept(Move.of(knight, fromPosition, Bitboards.position(Long.numberOfTrailingZeros(quiets))));
+        }
+    }
+
+    @Override
+    public void generateMoves(GameState gameState, MoveSink sink) {
+        generateMoves(gameState, GenerationMode.ALL, sink);
+    }
+
+    @Override
+    public void generateMoves(GameState gameState, GenerationMode mode, MoveSink sink) {
+        BitboardChessBoard board = Bitboards.standardBoard(gameState);
+        if (board == null) {
+            super.generateMoves(gameState, mode, sink);
+            return;
+        }
+        if (mode == GenerationMode.EVASIONS) {
+            CheckEvasions evasions = CheckEvasions.of(gameState);
+            if (!evasions.allowsPieceType(pieceType())) return;
+            sink = evasions.filter(sink);
+        }
+        boolean isWhite = gameState.isWhiteTurn();
+        generateKnightMoves(board, board.knights() & board.piecesOfColour(isWhite), isWhite, mode, sink);
+    }
+
+    @Override
+    public void generateMoves(GameState gameState, Position from, GenerationMode mode, MoveSink sink) {
+        BitboardChessBoard board = Bitboards.standardBoard(gameState);
+        if (board == null) {
+            super.generateMoves(gameState, from, mode, sink);
+            return;
+        }
+        if (mode == GenerationMode.EVASIONS) {
+            sink = CheckEvasions.filter(gameState, sink);
+            mode = GenerationMode.ALL;
+        }
+        generateKnightMoves(board, 1L << Bitboards.square(from), gameState.isWhiteTurn(), mode, sink);
+    }
+
+    @Override
+    public List<Position> attackersOf(GameState gameState, Position square, boolean byWhite) {
+        BitboardChessBoard board = Bitboards.standardBoard(gameState);
+        if (board == null) return super.attackersOf(gameState, square, byWhite);
+        return Bitboards.positions(LeaperBitboards.knightAttacks(Bitboards.square(square))
+                & board.knights() & board.piecesOfColour(byWhite));
+    }
+
+    @Override
+    public boolean isAttacking(GameState gameState, Position square, boolean byWhite) {
+        BitboardChessBoard board = Bitboards.standardBoard(gameState);
+        if (board == null) return super.isAttacking(gameState, square, byWhite);
+        return (LeaperBitboards.knightAttacks(Bitboards.square(square))
+                & board.knights() & board.piecesOfColour(byWhite)) != 0;
+    }
+}
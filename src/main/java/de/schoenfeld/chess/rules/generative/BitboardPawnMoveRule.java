@@ -0,0 +1,156 @@
+package de.schoenfeld.chess.rules.generative;
+
+import de.schoenfeld.chess.board.BitboardChessBoard;
+import de.schoenfeld.chess.board.LeaperBitboards;
+import de.schoenfeld.chess.model.ChessPiece;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.GenerationMode;
+import de.schoenfeld.chess.move.Move;
+import de.schoenfeld.chess.move.MoveSink;
+import de.schoenfeld.chess.move.components.CaptureComponent;
+import de.schoenfeld.chess.move.components.PromotionComponent;
+
+import java.util.List;
+
+/**
+ * A {@link PawnMoveRule} that generates the pawn moves of a {@link BitboardChessBoard} with 8x8 bounds set-wise.
+ * <p>
+ * All pawns of the side to move are shifted at once: one rank forward onto the empty squares for the single pushes,
+ * the single pushes from the start rank once more for the double pushes, and diagonally onto the enemy pieces for
+ * the captures, with the pawns on the edge files masked out so that no shift wraps around the board.
+ * Targets on the last rank become promotions. The origin of each target is its square minus the shift,
+ * so the moves are created by bit-scanning the target masks.
+ * On other boards, the moves are generated by {@link PawnMoveRule}.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public class BitboardPawnMoveRule extends PawnMoveRule {
+    public BitboardPawnMoveRule(List<PieceType> promotionTypes) {
+        super(promotionTypes);
+    }
+
+    public BitboardPawnMoveRule() {
+        this(List.of(PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT));
+    }
+
+    private static long shift(long bitboard, int offset) {
+        return offset > 0 ? bitboard << offset : bitboard >>> -offset;
+    }
+
+    /**
+     * Generates the moves of the given pawns.
+     *
+     * @param board   The current chess board
+     * @param pawns   The bitboard of the pawns to generate moves for, all of the same colour
+     * @param isWhite The colour of the pawns
+     * @param mode    The kind of moves to generate
+     * @param sink    The sink that receives the generated moves
+     */
+    private void generatePawnMoves(BitboardChessBoard board,
+                                   long pawns,
+                                   boolean isWhite,
+                                   GenerationMode mode,
+                                   MoveSink sink) {
+        ChessPiece pawn = ChessPiece.of(PieceType.PAWN, isWhite);
+        int forward = isWhite ? 8 : -8;
+        long empty = ~board.occupied();
+        long promotionRank = isWhite ? LeaperBitboards.RANK_8 : LeaperBitboards.RANK_1;
+
+        long singlePushes = shift(pawns, forward) & empty;
+        if (mode.includesQuiets()) {
+            long doublePushes = shift(singlePushes & (isWhite ? LeaperBitboards.RANK_3 : LeaperBitboards.RANK_6),
+                    forward) & empty;
+            addMoves(board, pawn, singlePushes & ~promotionRank, forward, sink);
+            addMoves(board, pawn, doublePushes, 2 * forward, sink);
+        }
+        if (!mode.includesCaptures()) return;
+
+        // Promotions are generated with the captures
+        addMoves(board, pawn, singlePushes & promotionRank, forward, sink);
+        long enemies = board.piecesOfColour(!isWhite);
+        addMoves(board, pawn, shift(pawns & ~LeaperBitboards.FILE_A, forward - 1) & enemies, forward - 1, sink);
+        addMoves(board, pawn, shift(pawns & ~LeaperBitboards.FILE_H, forward + 1) & enemies, forward + 1, sink);
+    }
+
+    /**
+     * Creates the moves to the given targets, which the pawns reached by the given shift, as captures if the target
+     * is occupied and as promotions if it is on the last rank.
+     */
+    private void addMoves(BitboardChessBoard board, ChessPiece pawn, long targets, int offset, MoveSink sink) {
+        long promotionRank = pawn.isWhite() ? LeaperBitboards.RANK_8 : LeaperBitboards.RANK_1;
+        long occupied = board.occupied();
+
+        for (; targets != 0; targets &= targets - 1) {
+            int target = Long.numberOfTrailingZeros(targets);
+            long bit = 1L << target;
+            Position from = Bitboards.position(target - offset), to = Bitboards.position(target);
+            CaptureComponent capture = (occupied & bit) != 0 ? new CaptureComponent(board.getPieceAt(to)) : null;
+
+            if ((promotionRank & bit) == 0) {
+                sink.accept(capture == null ? Move.of(pawn, from, to) : Move.of(pawn, from, to, capture));
+                continue;
+            }
+            for (PieceType promotionType : promotionTypes()) {
+                PromotionComponent promotion = new PromotionComponent(promotionType);
+                sink.accept(capture == null
+                        ? Move.of(pawn, from, to, promotion)
+                        : Move.of(pawn, from, to, capture, promotion));
+            }
+        }
+    }
+
+    @Override
+    public void generateMoves(GameState gameState, MoveSink sink) {
+        generateMoves(gameState, GenerationMode.ALL, sink);
+    }
+
+    @Override
+    public void generateMoves(GameState gameState, GenerationMode mode, MoveSink sink) {
+        BitboardChessBoard board = Bitboards.standardBoard(gameState);
+        if (board == null) {
+            super.generateMoves(gameState, mode, sink);
+            return;
+        }
+        if (mode == GenerationMode.EVASIONS) {
+            CheckEvasions evasions = CheckEvasions.of(gameState);
+            if (!evasions.allowsPieceType(pieceType())) return;
+            sink = evasions.filter(sink);
+        }
+        boolean isWhite = gameState.isWhiteTurn();
+        generatePawnMoves(board, board.pawns() & board.piecesOfColour(isWhite), isWhite, mode, sink);
+    }
+
+    @Override
+    public void generateMoves(GameState gameState, Position from, GenerationMode mode, MoveSink sink) {
+        BitboardChessBoard board = Bitboards.standardBoard(gameState);
+        if (board == null) {
+            super.generateMoves(gameState, from, mode, sink);
+            return;
+        }
+        if (mode == GenerationMode.EVASIONS) {
+            sink = CheckEvasions.filter(gameState, sink);
+            mode = GenerationMode.ALL;
+        }
+        generatePawnMoves(board, 1L << Bitboards.square(from), gameState.isWhiteTurn(), mode, sink);
+    }
+
+    @Override
+    public List<Position> attackersOf(GameState gameState, Position square, boolean byWhite) {
+        BitboardChessBoard board = Bitboards.standardBoard(gameState);
+        if (board == null) return super.attackersOf(gameState, square, byWhite);
+        // A pawn attacks the square from the squares a pawn of the other colour would attack from it
+        return Bitboards.positions(LeaperBitboards.pawnAttacks(Bitboards.square(square), !byWhite)
+                & board.pawns() & board.piecesOfColour(byWhite));
+    }
+
+    @Override
+    public boolean isAttacking(GameState gameState, Position square, boolean byWhite) {
+        BitboardChessBoard board = Bitboards.standardBoard(gameState);
+        if (board == null) return super.isAttacking(gameState, square, byWhite);
+        return (LeaperBitboards.pawnAttacks(Bitboards.square(square), !byWhite)
+                & board.pawns() & board.piecesOfColour(byWhite)) != 0;
+    }
+}
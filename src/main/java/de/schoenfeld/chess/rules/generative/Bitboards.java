@@ -0,0 +1,48 @@
+package de.schoenfeld.chess.rules.generative;
+
+import de.schoenfeld.chess.board.BitboardChessBoard;
+import de.schoenfeld.chess.model.BoardGeometry;
+import de.schoenfeld.chess.model.ChessBoardBounds;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conversions between positions and the bit indices of a {@link BitboardChessBoard} with 8x8 bounds,
+ * for the set-wise generation of the bitboard rules.
+ *
+ * @author Anton Schoenfeld
+ */
+final class Bitboards {
+    private static final ChessBoardBounds STANDARD_BOUNDS = new ChessBoardBounds(8, 8);
+    private static final BoardGeometry GEOMETRY = BoardGeometry.of(STANDARD_BOUNDS);
+
+    private Bitboards() {
+    }
+
+    /**
+     * Returns the board of the game state if it is a {@link BitboardChessBoard} with 8x8 bounds.
+     *
+     * @return The board, or {@code null} if the moves have to be generated square by square
+     */
+    static BitboardChessBoard standardBoard(GameState gameState) {
+        return gameState.chessBoard() instanceof BitboardChessBoard board && STANDARD_BOUNDS.equals(board.bounds())
+                ? board : null;
+    }
+
+    static Position position(int square) {
+        return GEOMETRY.position(square);
+    }
+
+    static int square(Position position) {
+        return position.y() * 8 + position.x();
+    }
+
+    static List<Position> positions(long bitboard) {
+        List<Position> positions = new ArrayList<>(Long.bitCount(bitboard));
+        for (; bitboard != 0; bitboard &= bitboard - 1) positions.add(position(Long.numberOfTrailingZeros(bitboard)));
+        return positions;
+    }
+}
@@ -1,27 +1,34 @@
 package de.schoenfeld.chess.rules.generative;
 
+import de.schoenfeld.chess.board.BitboardChessBoard;
 import de.schoenfeld.chess.board.ImmutableChessBoard;
+import de.schoenfeld.chess.model.BoardGeometry;
+import de.schoenfeld.chess.model.CastlingRights;
+import de.schoenfeld.chess.model.ChessBoardBounds;
 import de.schoenfeld.chess.model.ChessPiece;
 import de.schoenfeld.chess.model.GameState;
 import de.schoenfeld.chess.model.PieceType;
 import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.GenerationMode;
 import de.schoenfeld.chess.move.Move;
-import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.move.MoveSink;
+import de.schoenfeld.chess.move.MoveStage;
 import de.schoenfeld.chess.move.components.CastlingComponent;
 
+import java.util.List;
 import java.util.Optional;
 
 public class CastlingRule implements GenerativeMoveRule {
+    private static final ChessBoardBounds STANDARD_BOUNDS = new ChessBoardBounds(8, 8);
 
     @Override
-    public MoveCollection generateMoves(GameState gameState) {
-        var moves = new MoveCollection();
+    public void generateMoves(GameState gameState, MoveSink sink) {
         var board = gameState.chessBoard(); // ImmutableChessBoard
         boolean isWhite = gameState.isWhiteTurn();
 
         // Get king position
         Optional<ChessPiece> king = board.getPiecesOfType(PieceType.KING, isWhite).stream().findFirst();
-        if (king.isEmpty()) return moves; // No king found (should never happen in normal chess)
+        if (king.isEmpty()) return; // No king found (should never happen in normal chess)
 
         Position kingPos = board.getPiecePosition(king.get());
 
@@ -34,10 +41,10 @@ public class CastlingRule implements GenerativeMoveRule {
         Position queenSideRookTarget = isWhite ? Position.of(3, 0) : Position.of(3, 7);
 
         // Try adding castling moves
-        checkAndAddCastlingMove(gameState, king.get(), kingPos, kingSideRookPos, kingSideCastlingTarget, kingSideRookTarget, moves);
-        checkAndAddCastlingMove(gameState, king.get(), kingPos, queenSideRookPos, queenSideCastlingTarget, queenSideRookTarget, moves);
-
-        return moves;
+        if ((gameState.castlingRights() & CastlingRights.of(isWhite, true)) != 0)
+            checkAndAddCastlingMove(gameState, king.get(), kingPos, kingSideRookPos, kingSideCastlingTarget, kingSideRookTarget, sink);
+        if ((gameState.castlingRights() & CastlingRights.of(isWhite, false)) != 0)
+            checkAndAddCastlingMove(gameState, king.get(), kingPos, queenSideRookPos, queenSideCastlingTarget, queenSideRookTarget, sink);
     }
 
     private void checkAndAddCastlingMove(GameState gameState,
@@ -46,27 +53,63 @@ public class CastlingRule implements GenerativeMoveRule {
                                          Position rookPos,
                                          Position kingTarget,
                                          Position rookTarget,
-                                         MoveCollection moves) {
+                                         MoveSink sink) {
         var board = gameState.chessBoard(); // ImmutableChessBoard
         ChessPiece rook = board.getPieceAt(rookPos);
 
-        if (rook == null || rook.pieceType() != PieceType.ROOK) return;
-        if (king.hasMoved() || rook.hasMoved()) return; // Castling not allowed if either piece has moved
+        // The castling rights guarantee that neither the king nor the rook has moved
+        if (rook == null || rook.pieceType() != PieceType.ROOK || rook.isWhite() != king.isWhite()) return;
 
         // Ensure the squares between king and rook are empty
         if (!areIntermediateSquaresEmpty(board, kingPos, rookPos)) return;
 
         // Create the castling move
-        moves.add(Move.of(king, kingPos, kingTarget, new CastlingComponent(rook, rookPos, rookTarget)));
+        sink.accept(Move.of(king, kingPos, kingTarget, new CastlingComponent(rook, rookPos, rookTarget)));
     }
 
     private boolean areIntermediateSquaresEmpty(ImmutableChessBoard board, Position from, Position to) {
-        int dx = Integer.signum(to.x() - from.x()); // +1 or -1 (direction)
-        for (int x = from.x() + dx; x != to.x(); x += dx) {
-            if (board.getPieceAt(Position.of(x, from.y())) != null) {
+        var bounds = board.getBounds();
+        var geometry = BoardGeometry.of(bounds);
+        if (board instanceof BitboardChessBoard bitboard && STANDARD_BOUNDS.equals(bounds))
+            return (geometry.betweenMask(bounds.toIndex(from), bounds.toIndex(to)) & bitboard.occupied()) == 0;
+        for (int square : geometry.between(bounds.toIndex(from), bounds.toIndex(to))) {
+            if (board.getPieceAt(square) != null) {
                 return false; // Square is occupied
             }
         }
         return true;
     }
+
+    /**
+     * Castling neither captures nor evades a check, so moves are only generated for
+     * {@link GenerationMode#ALL} and {@link GenerationMode#QUIETS}, and for {@link GenerationMode#EVASIONS} if the
+     * side to move is not in check.
+     */
+    @Override
+    public void generateMoves(GameState gameState, GenerationMode mode, MoveSink sink) {
+        switch (mode) {
+            case ALL, QUIETS -> generateMoves(gameState, sink);
+            case EVASIONS -> generateMoves(gameState, CheckEvasions.filter(gameState, sink));
+            case CAPTURES -> {
+            }
+        }
+    }
+
+    @Override
+    public MoveStage firstStage() {
+        return MoveStage.CASTLING;
+    }
+
+    /**
+     * Castling never captures, so it attacks no squares.
+     */
+    @Override
+    public List<Position> attackersOf(GameState gameState, Position square, boolean byWhite) {
+        return List.of();
+    }
+
+    @Override
+    public boolean isAttacking(GameState gameState, Position square, boolean byWhite) {
+        return false;
+    }
 }
@@ -0,0 +1,156 @@
+package de.schoenfeld.chess.rules.generative;
+
+import de.schoenfeld.chess.board.ImmutableChessBoard;
+import de.schoenfeld.chess.model.BoardGeometry;
+import de.schoenfeld.chess.model.ChessBoardBounds;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.GenerationMode;
+import de.schoenfeld.chess.move.Move;
+import de.schoenfeld.chess.move.MoveSink;
+import de.schoenfeld.chess.move.components.EnPassantComponent;
+import de.schoenfeld.chess.rules.generative.sliding.BishopMoveRule;
+import de.schoenfeld.chess.rules.generative.sliding.QueenMoveRule;
+import de.schoenfeld.chess.rules.generative.sliding.RookMoveRule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The moves that may get the side to move out of check, see {@link GenerationMode#EVASIONS}.
+ * <p>
+ * The checkers are the pieces attacking the king through the standard piece movements.
+ * With one checker, the king may move, and the other pieces may capture the checker or move to a square between it
+ * and the king. With two checkers, only the king may move. Castling is no evasion.
+ * If the side to move is not in check or has no single king, all moves are allowed.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public final class CheckEvasions {
+    private static final CheckEvasions NOT_IN_CHECK = new CheckEvasions(null, -1, 0, null);
+    private static final List<GenerativeMoveRule> ATTACKS = List.of(
+            new PawnMoveRule(),
+            new KnightMoveRule(),
+            new BishopMoveRule(),
+            new RookMoveRule(),
+            new QueenMoveRule(),
+            new KingMoveRule()
+    );
+
+    private final ChessBoardBounds bounds;
+    private final int king;
+    private final int checkers;
+    /**
+     * The squares a piece other than the king may move to, or capture a pawn on en passant.
+     */
+    private final boolean[] targets;
+
+    private CheckEvasions(ChessBoardBounds bounds, int king, int checkers, boolean[] targets) {
+        this.bounds = bounds;
+        this.king = king;
+        this.checkers = checkers;
+        this.targets = targets;
+    }
+
+    /**
+     * Finds the checkers of the side to move.
+     *
+     * @param gameState The current game state
+     * @return The evasions of the position
+     */
+    public static CheckEvasions of(GameState gameState) {
+        ImmutableChessBoard board = gameState.chessBoard();
+        boolean isWhite = gameState.isWhiteTurn();
+        List<Position> kings = board.getPiecePositions(PieceType.KING, isWhite);
+        if (kings.size() != 1) return NOT_IN_CHECK;
+
+        List<Position> checkers = new ArrayList<>(2);
+        for (GenerativeMoveRule rule : ATTACKS) checkers.addAll(rule.attackersOf(gameState, kings.get(0), !isWhite));
+        if (checkers.isEmpty()) return NOT_IN_CHECK;
+
+        ChessBoardBounds bounds = board.getBounds();
+        int king = bounds.toIndex(kings.get(0));
+        boolean[] targets = new boolean[bounds.squareCount()];
+        if (checkers.size() == 1) {
+            // Only sliders can check from a distance, so the squares between are the squares that block
+            int checker = bounds.toIndex(checkers.get(0));
+            targets[checker] = true;
+            for (int square : BoardGeometry.of(bounds).between(king, checker)) targets[square] = true;
+        }
+        return new CheckEvasions(bounds, king, checkers.size(), targets);
+    }
+
+    /**
+     * Returns a sink that passes only the moves that are evasions in the given position to the given sink.
+     * The checkers are searched when the first move is passed, so a rule that generates nothing costs nothing.
+     *
+     * @param gameState The current game state
+     * @param sink      The sink that receives the evasions
+     * @return The filtering sink
+     */
+    public static MoveSink filter(GameState gameState, MoveSink sink) {
+        return new MoveSink() {
+            private CheckEvasions evasions;
+
+            @Override
+            public void accept(Move move) {
+                if (evasions == null) evasions = of(gameState);
+                if (evasions.allows(move)) sink.accept(move);
+            }
+        };
+    }
+
+    /**
+     * Returns whether the side to move is in check.
+     *
+     * @return Whether the king is attacked
+     */
+    public boolean isInCheck() {
+        return checkers > 0;
+    }
+
+    /**
+     * Returns whether pieces of the given type may evade the check, i.e. whether they are the king or there is
+     * a single checker.
+     *
+     * @param pieceType The piece type
+     * @return Whether pieces of the type have evasions
+     */
+    public boolean allowsPieceType(PieceType pieceType) {
+        return checkers <= 1 || PieceType.KING.equals(pieceType);
+    }
+
+    /**
+     * Returns whether the move may evade the check.
+     *
+     * @param move The move
+     * @return Whether the move is an evasion, or {@code true} if the side to move is not in check
+     */
+    public boolean allows(Move move) {
+        if (checkers == 0) return true;
+        if (move.isCastling()) return false;
+        if (bounds.toIndex(move.from()) == king) return true;
+        if (checkers > 1) return false;
+        if (targets[bounds.toIndex(move.to())]) return true;
+
+        // En passant captures the checking pawn beside its target square
+        if (!move.hasComponent(EnPassantComponent.class)) return false;
+        Position captured = move.getComponent(EnPassantComponent.class).capturedPawnPosition();
+        return targets[bounds.toIndex(captured)];
+    }
+
+    /**
+     * Returns a sink that passes only the evasions to the given sink.
+     *
+     * @param sink The sink that receives the evasions
+     * @return The filtering sink, or the given sink if the side to move is not in check
+     */
+    public MoveSink filter(MoveSink sink) {
+        if (checkers == 0) return sink;
+        return move -> {
+            if (allows(move)) sink.accept(move);
+        };
+    }
+}
@@ -3,9 +3,13 @@ package de.schoenfeld.chess.rules.generative;
 import de.schoenfeld.chess.model.GameState;
 import de.schoenfeld.chess.model.PieceType;
 import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.GenerationMode;
 import de.schoenfeld.chess.move.Move;
-import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.move.MoveSink;
 import de.schoenfeld.chess.move.components.CaptureComponent;
+import de.schoenfeld.chess.move.components.EnPassantComponent;
+
+import java.util.List;
 
 /**
  * A rule that generates en passant moves.
@@ -21,59 +25,74 @@ import de.schoenfeld.chess.move.components.CaptureComponent;
  */
 public class EnPassantRule implements GenerativeMoveRule {
     /**
-     * Generates a collection of en passant moves.
+     * Generates the en passant moves.
      *
      * @param gameState The current game state
-     * @return A {@link MoveCollection} containing the generated moves
+     * @param sink      The sink that receives the generated moves
      * @throws NullPointerException if {@code gameState} is null
      */
     @Override
-    public MoveCollection generateMoves(GameState gameState) {
+    public void generateMoves(GameState gameState, MoveSink sink) {
         var board = gameState.chessBoard();
         var history = gameState.moveHistory();
 
         // check if there are any moves
-        if (history.getMoveCount() == 0) return new MoveCollection();
+        if (history.getMoveCount() == 0) return;
 
         // check if the last move was a pawn move
         var lastMove = history.getLastMove();
-        if (!PieceType.PAWN.equals(lastMove.movedPiece().pieceType()))
-            return new MoveCollection();
+        if (!PieceType.PAWN.equals(lastMove.movedPiece().pieceType())) return;
 
         // check if the last move was a double pawn move
-        if (Math.abs(lastMove.from().y() - lastMove.to().y()) != 2)
-            return new MoveCollection();
+        if (Math.abs(lastMove.from().y() - lastMove.to().y()) != 2) return;
 
+        // The target is the square the pawn skipped, the capturing pawns stand next to it
         int direction = lastMove.movedPiece().isWhite() ? 1 : -1;
-        Position enPassantTarget = Position.of(lastMove.to().x(), lastMove.to().y() + direction);
-        MoveCollection moves = new MoveCollection();
+        Position enPassantTarget = Position.of(lastMove.to().x(), lastMove.to().y() - direction);
+
+        for (int side : new int[]{1, -1}) {
+            var enPassantPosition = lastMove.to().offset(side, 0);
+            if (!board.getBounds().contains(enPassantPosition)) continue;
 
-        // Find the pawn that can capture the en passant target
-        var enPassantPawn = board.getPieceAt(enPassantTarget.offset(1, -direction));
-        // Check if the pawn is not null and is of the opposite color
-        if (enPassantPawn != null
-                && enPassantPawn.isWhite() != lastMove.movedPiece().isWhite()
-                && enPassantPawn.pieceType().equals(PieceType.PAWN)) {
-            moves.add(Move.of(
-                    enPassantPawn,
-                    board.getPiecePosition(enPassantPawn),
-                    enPassantTarget,
-                    new CaptureComponent(enPassantPawn)
-            ));
+            var enPassantPawn = board.getPieceAt(enPassantPosition);
+            // Check if the pawn is not null and is of the opposite color
+            if (enPassantPawn != null
+                    && enPassantPawn.isWhite() != lastMove.movedPiece().isWhite()
+                    && enPassantPawn.pieceType().equals(PieceType.PAWN)) {
+                sink.accept(Move.of(
+                        enPassantPawn,
+                        enPassantPosition,
+                        enPassantTarget,
+                        new CaptureComponent(lastMove.movedPiece()),
+                        new EnPassantComponent(lastMove.to())
+                ));
+            }
         }
+    }
 
-        enPassantPawn = board.getPieceAt(enPassantTarget.offset(-1, -direction));
-        if (enPassantPawn != null
-                && enPassantPawn.isWhite() != lastMove.movedPiece().isWhite()
-                && enPassantPawn.pieceType().equals(PieceType.PAWN)) {
-            moves.add(Move.of(
-                    enPassantPawn,
-                    board.getPiecePosition(enPassantPawn),
-                    enPassantTarget,
-                    new CaptureComponent(enPassantPawn)
-            ));
+    /**
+     * En passant moves are captures, so none are generated for {@link GenerationMode#QUIETS}.
+     */
+    @Override
+    public void generateMoves(GameState gameState, GenerationMode mode, MoveSink sink) {
+        switch (mode) {
+            case ALL, CAPTURES -> generateMoves(gameState, sink);
+            case EVASIONS -> generateMoves(gameState, CheckEvasions.filter(gameState, sink));
+            case QUIETS -> {
+            }
         }
+    }
 
-        return moves;
+    /**
+     * En passant only captures pawns beside its target square, so it attacks no squares.
+     */
+    @Override
+    public List<Position> attackersOf(GameState gameState, Position square, boolean byWhite) {
+        return List.of();
+    }
+
+    @Override
+    public boolean isAttacking(GameState gameState, Position square, boolean byWhite) {
+        return false;
     }
 }
@@ -0,0 +1,136 @@
+package de.schoenfeld.chess.rules.generative;
+
+import de.schoenfeld.chess.board.BitboardChessBoard;
+import de.schoenfeld.chess.board.ImmutableChessBoard;
+import de.schoenfeld.chess.model.BoardGeometry;
+import de.schoenfeld.chess.model.ChessBoardBounds;
+import de.schoenfeld.chess.model.ChessPiece;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.GenerationMode;
+import de.schoenfeld.chess.move.MoveSink;
+import de.schoenfeld.chess.move.MoveStage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link GenerativeMoveRule} that fuses several {@link PieceMoveRule}s into a single pass over the board.
+ * <p>
+ * The rules are kept in a table indexed by the type index of their piece type, see
+ * {@link ChessPiece#typeIndex(PieceType)}. To generate moves, the pieces of the side to move are visited once,
+ * on a {@link BitboardChessBoard} by iterating the bits of their colour, otherwise by scanning the squares,
+ * and each piece is passed to the rules of its type, which all pass their moves to the same sink.
+ * Several rules may share a piece type.
+ * </p>
+ * <p>
+ * Instances are created by {@link de.schoenfeld.chess.rules.Rules#compile()}.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public final class FusedMoveRule implements GenerativeMoveRule {
+    private static final ChessBoardBounds STANDARD_BOUNDS = new ChessBoardBounds(8, 8);
+    private static final PieceMoveRule[] NO_RULES = new PieceMoveRule[0];
+
+    private final List<PieceMoveRule> rules;
+    /**
+     * The rules of each piece type, indexed by type index.
+     */
+    private final PieceMoveRule[][] rulesByType;
+    private final MoveStage firstStage;
+
+    public FusedMoveRule(List<PieceMoveRule> rules) {
+        if (rules == null) throw new NullPointerException("rules");
+        this.rules = List.copyOf(rules);
+
+        List<List<PieceMoveRule>> byType = new ArrayList<>();
+        MoveStage firstStage = MoveStage.CASTLING;
+        for (PieceMoveRule rule : this.rules) {
+            int type = ChessPiece.of(rule.pieceType(), true).index() >> 1;
+            while (byType.size() <= type) byType.add(new ArrayList<>());
+            byType.get(type).add(rule);
+            if (rule.firstStage().compareTo(firstStage) < 0) firstStage = rule.firstStage();
+        }
+        this.rulesByType = new PieceMoveRule[byType.size()][];
+        for (int type = 0; type < rulesByType.length; type++)
+            rulesByType[type] = byType.get(type).toArray(NO_RULES);
+        this.firstStage = firstStage;
+    }
+
+    /**
+     * Returns the fused rules.
+     *
+     * @return The rules, in the order they were given
+     */
+    public List<PieceMoveRule> rules() {
+        return rules;
+    }
+
+    @Override
+    public void generateMoves(GameState gameState, MoveSink sink) {
+        generateMoves(gameState, GenerationMode.ALL, sink);
+    }
+
+    /**
+     * Generates the moves the given mode includes. For {@link GenerationMode#EVASIONS}, the checkers are searched
+     * once for all fused rules, and in double check only the rules of the king are run.
+     */
+    @Override
+    public void generateMoves(GameState gameState, GenerationMode mode, MoveSink sink) {
+        CheckEvasions evasions = null;
+        if (mode == GenerationMode.EVASIONS) {
+            evasions = CheckEvasions.of(gameState);
+            sink = evasions.filter(sink);
+            // The moves are filtered here, so the rules generate them all
+            mode = GenerationMode.ALL;
+        }
+        ImmutableChessBoard board = gameState.chessBoard();
+        boolean isWhite = gameState.isWhiteTurn();
+        BoardGeometry geometry = BoardGeometry.of(board.getBounds());
+
+        if (board instanceof BitboardChessBoard bitboard && STANDARD_BOUNDS.equals(bitboard.getBounds())) {
+            long pieces = bitboard.piecesOfColour(isWhite);
+            while (pieces != 0) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                dispatch(gameState, board.getPieceAt(square), geometry.position(square), mode, evasions, sink);
+            }
+            return;
+        }
+
+        for (int square = 0; square < board.getBounds().squareCount(); square++) {
+            ChessPiece piece = board.getPieceAt(square);
+            if (piece != null && piece.isWhite() == isWhite)
+                dispatch(gameState, piece, geometry.position(square), mode, evasions, sink);
+        }
+    }
+
+    private void dispatch(GameState gameState, ChessPiece piece, Position from,
+                          GenerationMode mode, CheckEvasions evasions, MoveSink sink) {
+        int type = piece.index() >> 1;
+        if (type >= rulesByType.length) return;
+        if (evasions != null && !evasions.allowsPieceType(piece.pieceType())) return;
+        for (PieceMoveRule rule : rulesByType[type]) rule.generateMoves(gameState, from, mode, sink);
+    }
+
+    @Override
+    public MoveStage firstStage() {
+        return firstStage;
+    }
+
+    @Override
+    public List<Position> attackersOf(GameState gameState, Position square, boolean byWhite) {
+        List<Position> attackers = new ArrayList<>();
+        for (PieceMoveRule rule : rules) attackers.addAll(rule.attackersOf(gameState, square, byWhite));
+        return attackers;
+    }
+
+    @Override
+    public boolean isAttacking(GameState gameState, Position square, boolean byWhite) {
+        for (PieceMoveRule rule : rules)
+            if (rule.isAttacking(gameState, square, byWhite)) return true;
+        return false;
+    }
+}
@@ -1,21 +1,114 @@
 package de.schoenfeld.chess.rules.generative;
 
+import de.schoenfeld.chess.model.ChessPiece;
 import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.GenerationMode;
+import de.schoenfeld.chess.move.Move;
 import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.move.MoveSink;
+import de.schoenfeld.chess.move.MoveStage;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * A functional interface that generates a collection of moves based on some rule.
+ * A functional interface that generates moves based on some rule.
  *
  * @author Anton Schoenfeld
  */
 @FunctionalInterface
 public interface GenerativeMoveRule {
+    /**
+     * Generates the moves of this rule and passes each to the given sink.
+     * Callers can reuse one sink for several rules and positions, so generation itself allocates only the moves.
+     *
+     * @param gameState The current game state
+     * @param sink      The sink that receives the generated moves
+     * @throws NullPointerException if {@code gameState} is null
+     */
+    void generateMoves(GameState gameState, MoveSink sink);
+
     /**
      * Generates a collection of moves based on some rule.
+     * The default implementation collects the moves of {@link #generateMoves(GameState, MoveSink)}.
      *
      * @param gameState The current game state
      * @return A {@link MoveCollection} containing the generated moves
      * @throws NullPointerException if {@code gameState} is null
      */
-    MoveCollection generateMoves(GameState gameState);
+    default MoveCollection generateMoves(GameState gameState) {
+        var moves = new MoveCollection(gameState.chessBoard().getBounds());
+        generateMoves(gameState, moves);
+        return moves;
+    }
+
+    /**
+     * Generates the moves of this rule that the given mode includes, see {@link GenerationMode}.
+     * The default implementation generates all moves and drops the excluded ones;
+     * the built-in rules skip them during generation.
+     *
+     * @param gameState The current game state
+     * @param mode      The kind of moves to generate
+     * @param sink      The sink that receives the generated moves
+     * @throws NullPointerException if {@code gameState} or {@code mode} is null
+     */
+    default void generateMoves(GameState gameState, GenerationMode mode, MoveSink sink) {
+        switch (mode) {
+            case ALL -> generateMoves(gameState, sink);
+            case EVASIONS -> generateMoves(gameState, CheckEvasions.filter(gameState, sink));
+            default -> generateMoves(gameState, move -> {
+                if (mode.includes(move)) sink.accept(move);
+            });
+        }
+    }
+
+    /**
+     * Returns the earliest stage whose moves this rule may generate, see {@link MoveStage}.
+     * A {@link de.schoenfeld.chess.rules.StagedMoveIterator} only runs the rule once this stage is reached.
+     * The default is {@link MoveStage#CAPTURES}, which is always correct.
+     *
+     * @return The first stage of this rule
+     */
+    default MoveStage firstStage() {
+        return MoveStage.CAPTURES;
+    }
+
+    /**
+     * Returns the positions of the pieces of the given colour that attack the given square through this rule,
+     * see {@link de.schoenfeld.chess.rules.AttackDetector}.
+     * The default implementation generates the moves of the attacking side and returns the origins of the moves
+     * to the square; built-in rules trace outward from the square instead.
+     * The moves are generated with a piece of the defending colour on the square, so that a square holding a piece
+     * of the attacking colour still counts as attacked and pieces that only attack by capturing are found.
+     *
+     * @param gameState The current game state
+     * @param square    The attacked square
+     * @param byWhite   The colour of the attacking pieces
+     * @return The positions of the attackers
+     */
+    default List<Position> attackersOf(GameState gameState, Position square, boolean byWhite) {
+        var board = gameState.chessBoard();
+        ChessPiece occupant = board.getPieceAt(square);
+        if (occupant == null || occupant.isWhite() == byWhite)
+            gameState = gameState.withChessBoard(board.withPieceAt(ChessPiece.of(PieceType.PAWN, !byWhite), square));
+
+        List<Position> attackers = new ArrayList<>();
+        for (Move move : generateMoves(gameState.withIsWhiteTurn(byWhite)).getMovesTo(square))
+            attackers.add(move.from());
+        return attackers;
+    }
+
+    /**
+     * Returns whether a piece of the given colour attacks the given square through this rule.
+     *
+     * @param gameState The current game state
+     * @param square    The attacked square
+     * @param byWhite   The colour of the attacking pieces
+     * @return Whether the square is attacked
+     */
+    default boolean isAttacking(GameState gameState, Position square, boolean byWhite) {
+        return !attackersOf(gameState, square, byWhite).isEmpty();
+    }
 }
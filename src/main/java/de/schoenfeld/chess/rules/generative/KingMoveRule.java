@@ -1,11 +1,13 @@
 package de.schoenfeld.chess.rules.generative;
 
+import de.schoenfeld.chess.model.BoardGeometry;
 import de.schoenfeld.chess.model.ChessPiece;
 import de.schoenfeld.chess.model.GameState;
 import de.schoenfeld.chess.model.PieceType;
 import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.GenerationMode;
 import de.schoenfeld.chess.move.Move;
-import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.move.MoveSink;
 import de.schoenfeld.chess.move.components.CaptureComponent;
 
 import java.util.List;
@@ -16,35 +18,33 @@ import java.util.List;
  *
  * @author Anton Schoenfeld
  */
-public class KingMoveRule implements GenerativeMoveRule {
-    private static final List<Position> KING_DIRECTIONS = List.of(
-            new Position(1, 0), new Position(-1, 0), new Position(0, 1), new Position(0, -1),
-            new Position(1, 1), new Position(-1, -1), new Position(1, -1), new Position(-1, 1)
-    );
-
+public class KingMoveRule implements PieceMoveRule {
     /**
      * Generates all possible moves for a given king.
      *
      * @param gameState The current game state
-     * @param king      The king to generate moves for
-     * @param moves     The collection to add the generated moves to
+     * @param from      The position of the king to generate moves for
+     * @param mode      The kind of moves to generate
+     * @param sink      The sink that receives the generated moves
      */
     private static void generateKingMoves(GameState gameState,
-                                          ChessPiece king,
-                                          MoveCollection moves) {
-        // Generate moves in all directions
-        for (var direction : KING_DIRECTIONS) {
-            var from = gameState.chessBoard().getPiecePosition(king);
-            var to = from.offset(direction);
-            // Check if the target position is on the board
-            if (gameState.chessBoard().getBounds().contains(to)) {
-                var targetPiece = gameState.chessBoard().getPieceAt(to);
-                // Check if the target position is empty or contains an enemy piece
-                if (targetPiece == null) moves.add(Move.of(king, from, to));
-                    // Capture
-                else if (targetPiece.isWhite() != king.isWhite())
-                    moves.add(Move.of(king, from, to, new CaptureComponent(targetPiece)));
+                                          Position from,
+                                          GenerationMode mode,
+                                          MoveSink sink) {
+        var board = gameState.chessBoard();
+        var geometry = BoardGeometry.of(board.getBounds());
+        var king = board.getPieceAt(from);
+
+        // Generate moves in all directions, the targets only contain squares on the board
+        for (int target : geometry.kingTargets(board.getBounds().toIndex(from))) {
+            var targetPiece = board.getPieceAt(target);
+            // Check if the target position is empty or contains an enemy piece
+            if (targetPiece == null) {
+                if (mode.includesQuiets()) sink.accept(Move.of(king, from, geometry.position(target)));
             }
+            // Capture
+            else if (mode.includesCaptures() && targetPiece.isWhite() != king.isWhite())
+                sink.accept(Move.of(king, from, geometry.position(target), new CaptureComponent(targetPiece)));
         }
     }
 
@@ -53,20 +53,43 @@ public class KingMoveRule implements GenerativeMoveRule {
      * Does not generate castling moves.
      *
      * @param gameState The current game state
-     * @return A {@link MoveCollection} containing the generated moves
+     * @param sink      The sink that receives the generated moves
      * @throws NullPointerException if {@code gameState} is null
      */
     @Override
-    public MoveCollection generateMoves(GameState gameState) {
-        var moves = new MoveCollection();
+    public void generateMoves(GameState gameState, MoveSink sink) {
         var board = gameState.chessBoard();
 
-        var kings = board.getPiecesOfType(PieceType.KING, gameState.isWhiteTurn())
-                .stream()
-                .toList();
+        var kings = board.getPiecePositions(PieceType.KING, gameState.isWhiteTurn());
 
-        for (var king : kings) generateKingMoves(gameState, king, moves);
+        for (var king : kings) generateKingMoves(gameState, king, GenerationMode.ALL, sink);
+    }
 
-        return moves;
+    @Override
+    public PieceType pieceType() {
+        return PieceType.KING;
+    }
+
+    @Override
+    public void generateMoves(GameState gameState, Position from, GenerationMode mode, MoveSink sink) {
+        if (mode == GenerationMode.EVASIONS) {
+            sink = CheckEvasions.filter(gameState, sink);
+            mode = GenerationMode.ALL;
+        }
+        generateKingMoves(gameState, from, mode, sink);
+    }
+
+    @Override
+    public List<Position> attackersOf(GameState gameState, Position square, boolean byWhite) {
+        var board = gameState.chessBoard();
+        var origins = BoardGeometry.of(board.getBounds()).kingTargets(board.getBounds().toIndex(square));
+        return LeaperAttacks.attackersOf(board, origins, ChessPiece.of(PieceType.KING, byWhite));
+    }
+
+    @Override
+    public boolean isAttacking(GameState gameState, Position square, boolean byWhite) {
+        var board = gameState.chessBoard();
+        var origins = BoardGeometry.of(board.getBounds()).kingTargets(board.getBounds().toIndex(square));
+        return LeaperAttacks.isAttacking(board, origins, ChessPiece.of(PieceType.KING, byWhite));
     }
 }
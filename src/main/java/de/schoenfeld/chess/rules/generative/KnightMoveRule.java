@@ -1,12 +1,14 @@
 package de.schoenfeld.chess.rules.generative;
 
 import de.schoenfeld.chess.board.ImmutableChessBoard;
+import de.schoenfeld.chess.model.BoardGeometry;
 import de.schoenfeld.chess.model.ChessPiece;
 import de.schoenfeld.chess.model.GameState;
 import de.schoenfeld.chess.model.PieceType;
 import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.GenerationMode;
 import de.schoenfeld.chess.move.Move;
-import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.move.MoveSink;
 import de.schoenfeld.chess.move.components.CaptureComponent;
 
 import java.util.List;
@@ -29,10 +31,9 @@ import java.util.List;
  * <h3>Move Generation Process:</h3>
  * <ol>
  *   <li>Find all knight pieces belonging to the current player.</li>
- *   <li>For each knight, calculate its potential destinations using predefined offsets.</li>
- *   <li>Check that the destination square is within the board bounds.</li>
+ *   <li>For each knight, look up its destinations within the board bounds in the {@link BoardGeometry}.</li>
  *   <li>Ensure that the destination is either empty or occupied by an enemy piece.</li>
- *   <li>Add the valid move to the {@link MoveCollection}.</li>
+ *   <li>Pass the valid move to the {@link MoveSink}.</li>
  * </ol>
  *
  * <p><strong>Note:</strong> This rule does not check for check conditions;
@@ -40,35 +41,30 @@ import java.util.List;
  *
  * @author Anton Schoenfeld
  */
-public class KnightMoveRule implements GenerativeMoveRule {
-    private static final List<Position> KNIGHT_MOVES = List.of(
-            new Position(2, 1), new Position(2, -1), new Position(-2, 1), new Position(-2, -1),
-            new Position(1, 2), new Position(1, -2), new Position(-1, 2), new Position(-1, -2)
-    );
-
+public class KnightMoveRule implements PieceMoveRule {
     /**
      * Generates all possible moves for a given knight.
      *
-     * @param board  The current chess board
-     * @param knight The knight to generate moves for
-     * @param moves  The collection to add the generated moves to
+     * @param board The current chess board
+     * @param from  The position of the knight to generate moves for
+     * @param mode  The kind of moves to generate
+     * @param sink  The sink that receives the generated moves
      */
     private static void generateKnightMoves(ImmutableChessBoard board,
-                                            ChessPiece knight,
-                                            MoveCollection moves) {
-        var from = board.getPiecePosition(knight);
-
-        for (var offset : KNIGHT_MOVES) {
-            var to = from.offset(offset.x(), offset.y());
+                                            Position from,
+                                            GenerationMode mode,
+                                            MoveSink sink) {
+        var geometry = BoardGeometry.of(board.getBounds());
+        var knight = board.getPieceAt(from);
 
-            // Ensure the move stays within the board boundaries
-            if (board.getBounds().contains(to)) {
-                var targetPiece = board.getPieceAt(to);
-                // Allow the move if the destination is empty or occupied by an opponent's piece
-                if (targetPiece == null) moves.add(Move.of(knight, from, to));
-                else if (targetPiece.isWhite() != knight.isWhite())
-                    moves.add(Move.of(knight, from, to, new CaptureComponent(targetPiece)));
-            }
+        // The targets only contain squares within the board boundaries
+        for (int target : geometry.knightTargets(board.getBounds().toIndex(from))) {
+            var targetPiece = board.getPieceAt(target);
+            // Allow the move if the destination is empty or occupied by an opponent's piece
+            if (targetPiece == null) {
+                if (mode.includesQuiets()) sink.accept(Move.of(knight, from, geometry.position(target)));
+            } else if (mode.includesCaptures() && targetPiece.isWhite() != knight.isWhite())
+                sink.accept(Move.of(knight, from, geometry.position(target), new CaptureComponent(targetPiece)));
         }
     }
 
@@ -80,18 +76,43 @@ public class KnightMoveRule implements GenerativeMoveRule {
      * </p>
      *
      * @param gameState The current state of the chess game.
-     * @return A {@link MoveCollection} containing all valid knight moves.
+     * @param sink      The sink that receives all valid knight moves.
      */
     @Override
-    public MoveCollection generateMoves(GameState gameState) {
-        var moves = new MoveCollection();
+    public void generateMoves(GameState gameState, MoveSink sink) {
         var board = gameState.chessBoard();
 
-        // Retrieve all knights belonging to the current player
-        var knights = board.getPiecesOfType(PieceType.KNIGHT, gameState.isWhiteTurn());
+        // Retrieve the positions of all knights belonging to the current player
+        var knights = board.getPiecePositions(PieceType.KNIGHT, gameState.isWhiteTurn());
+
+        for (var knight : knights) generateKnightMoves(board, knight, GenerationMode.ALL, sink);
+    }
+
+    @Override
+    public PieceType pieceType() {
+        return PieceType.KNIGHT;
+    }
+
+    @Override
+    public void generateMoves(GameState gameState, Position from, GenerationMode mode, MoveSink sink) {
+        if (mode == GenerationMode.EVASIONS) {
+            sink = CheckEvasions.filter(gameState, sink);
+            mode = GenerationMode.ALL;
+        }
+        generateKnightMoves(gameState.chessBoard(), from, mode, sink);
+    }
 
-        for (var knight : knights) generateKnightMoves(board, knight, moves);
+    @Override
+    public List<Position> attackersOf(GameState gameState, Position square, boolean byWhite) {
+        var board = gameState.chessBoard();
+        var origins = BoardGeometry.of(board.getBounds()).knightTargets(board.getBounds().toIndex(square));
+        return LeaperAttacks.attackersOf(board, origins, ChessPiece.of(PieceType.KNIGHT, byWhite));
+    }
 
-        return moves;
+    @Override
+    public boolean isAttacking(GameState gameState, Position square, boolean byWhite) {
+        var board = gameState.chessBoard();
+        var origins = BoardGeometry.of(board.getBounds()).knightTargets(board.getBounds().toIndex(square));
+        return LeaperAttacks.isAttacking(board, origins, ChessPiece.of(PieceType.KNIGHT, byWhite));
     }
 }
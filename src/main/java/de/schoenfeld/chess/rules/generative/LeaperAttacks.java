@@ -0,0 +1,34 @@
+package de.schoenfeld.chess.rules.generative;
+
+import de.schoenfeld.chess.board.ImmutableChessBoard;
+import de.schoenfeld.chess.model.BoardGeometry;
+import de.schoenfeld.chess.model.ChessPiece;
+import de.schoenfeld.chess.model.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reverse attack lookups of pieces with symmetric, fixed targets:
+ * such a piece attacks a square if it stands on one of the squares it could reach from that square.
+ *
+ * @author Anton Schoenfeld
+ */
+final class LeaperAttacks {
+    private LeaperAttacks() {
+    }
+
+    static List<Position> attackersOf(ImmutableChessBoard board, int[] origins, ChessPiece attacker) {
+        List<Position> attackers = new ArrayList<>(2);
+        BoardGeometry geometry = BoardGeometry.of(board.getBounds());
+        for (int origin : origins)
+            if (attacker.equals(board.getPieceAt(origin))) attackers.add(geometry.position(origin));
+        return attackers;
+    }
+
+    static boolean isAttacking(ImmutableChessBoard board, int[] origins, ChessPiece attacker) {
+        for (int origin : origins)
+            if (attacker.equals(board.getPieceAt(origin))) return true;
+        return false;
+    }
+}
@@ -1,13 +1,16 @@
 package de.schoenfeld.chess.rules.generative;
 
 import de.schoenfeld.chess.model.*;
+import de.schoenfeld.chess.move.GenerationMode;
 import de.schoenfeld.chess.move.Move;
-import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.move.MoveSink;
+import de.schoenfeld.chess.move.components.CaptureComponent;
+import de.schoenfeld.chess.move.components.MoveComponent;
 import de.schoenfeld.chess.move.components.PromotionComponent;
 
 import java.util.List;
 
-public class PawnMoveRule implements GenerativeMoveRule {
+public class PawnMoveRule implements PieceMoveRule {
     private final List<PieceType> promotionTypes;
 
     public PawnMoveRule(List<PieceType> promotionTypes) {
@@ -20,63 +23,77 @@ public class PawnMoveRule implements GenerativeMoveRule {
     }
 
     private static void generatePawnMoves(GameState gameState,
-                                          ChessPiece pawn,
-                                          MoveCollection moves,
+                                          Position from,
+                                          GenerationMode mode,
+                                          MoveSink sink,
                                           List<PieceType> promotionTypes) {
         int direction = gameState.isWhiteTurn() ? 1 : -1;
         var board = gameState.chessBoard();
 
-        var from = board.getPiecePosition(pawn);
+        var pawn = board.getPieceAt(from);
 
         // Add one-step move
         var oneForward = from.offset(0, direction);
         // Check if the one-step move is possible
         if (board.getBounds().contains(oneForward) && board.getPieceAt(oneForward) == null) {
-            // Check if the one-step move is a promotion
-            if (isPromotionRank(pawn, oneForward.y(), board.getBounds()))
-                addPromotionMoves(moves, pawn, from, oneForward, promotionTypes);
-                // Otherwise, add a normal one-step move
-            else moves.add(Move.of(pawn, from, oneForward));
-
-            // Add a two-step move if pawn hasn't moved yet
-            if (!pawn.hasMoved()) {
+            // Check if the one-step move is a promotion, promotions are generated with the captures
+            if (isPromotionRank(pawn, oneForward.y(), board.getBounds())) {
+                if (mode.includesCaptures()) addPromotionMoves(sink, pawn, from, oneForward, null, promotionTypes);
+            }
+            // Otherwise, add a normal one-step move
+            else if (mode.includesQuiets()) sink.accept(Move.of(pawn, from, oneForward));
+
+            // Add a two-step move if the pawn is still on its start rank
+            if (isStartRank(pawn, from.y(), board.getBounds())) {
                 var twoForward = oneForward.offset(0, direction);
                 // Check if the two-step move is possible
                 if (board.getBounds().contains(twoForward) && board.getPieceAt(twoForward) == null) {
                     // Check if the two-step move is a promotion
-                    if (isPromotionRank(pawn, twoForward.y(), board.getBounds()))
-                        addPromotionMoves(moves, pawn, from, twoForward, promotionTypes);
-                        // Otherwise, add a normal two-step move
-                    else moves.add(Move.of(pawn, from, twoForward));
+                    if (isPromotionRank(pawn, twoForward.y(), board.getBounds())) {
+                        if (mode.includesCaptures())
+                            addPromotionMoves(sink, pawn, from, twoForward, null, promotionTypes);
+                    }
+                    // Otherwise, add a normal two-step move
+                    else if (mode.includesQuiets()) sink.accept(Move.of(pawn, from, twoForward));
                 }
             }
         }
         // Add capture moves
-        int[] captureDirections = {1, -1};
-        for (int captureDirection : captureDirections) {
-            var capturePosition = from.offset(captureDirection, direction);
-            // Check if the capture is on the board
-            if (board.getBounds().contains(capturePosition)) {
-                var capturePiece = board.getPieceAt(capturePosition);
-                // Check if the capture is possible
-                if (capturePiece != null && capturePiece.isWhite() != pawn.isWhite()) {
-                    // Check if the capture is a promotion
-                    if (isPromotionRank(pawn, capturePosition.y(), board.getBounds()))
-                        addPromotionMoves(moves, pawn, from, capturePosition, promotionTypes);
-                        // Otherwise, add a normal capture
-                    else moves.add(Move.of(pawn, from, capturePosition));
-                }
+        if (!mode.includesCaptures()) return;
+        var geometry = BoardGeometry.of(board.getBounds());
+        for (int target : geometry.pawnAttacks(board.getBounds().toIndex(from), pawn.isWhite())) {
+            var capturePosition = geometry.position(target);
+            var capturePiece = board.getPieceAt(target);
+            // Check if the capture is possible
+            if (capturePiece != null && capturePiece.isWhite() != pawn.isWhite()) {
+                // Check if the capture is a promotion
+                if (isPromotionRank(pawn, capturePosition.y(), board.getBounds()))
+                    addPromotionMoves(sink, pawn, from, capturePosition, capturePiece, promotionTypes);
+                    // Otherwise, add a normal capture
+                else sink.accept(Move.of(pawn, from, capturePosition, new CaptureComponent(capturePiece)));
             }
         }
     }
 
-    private static void addPromotionMoves(MoveCollection moves,
+    private static void addPromotionMoves(MoveSink sink,
                                           ChessPiece pawn,
                                           Position from,
                                           Position to,
+                                          ChessPiece capturedPiece,
                                           List<PieceType> promotionTypes) {
-        for (PieceType promotionType : promotionTypes)
-            moves.add(Move.of(pawn, from, to, new PromotionComponent(promotionType)));
+        for (PieceType promotionType : promotionTypes) {
+            MoveComponent promotion = new PromotionComponent(promotionType);
+            sink.accept(capturedPiece == null
+                    ? Move.of(pawn, from, to, promotion)
+                    : Move.of(pawn, from, to, new CaptureComponent(capturedPiece), promotion));
+        }
+    }
+
+    private static boolean isStartRank(ChessPiece pawn,
+                                       int rank,
+                                       ChessBoardBounds bounds) {
+        int startRank = pawn.isWhite() ? 1 : bounds.rows() - 2;
+        return rank == startRank;
     }
 
     private static boolean isPromotionRank(ChessPiece pawn,
@@ -87,17 +104,51 @@ public class PawnMoveRule implements GenerativeMoveRule {
     }
 
     @Override
-    public MoveCollection generateMoves(GameState gameState) {
-        var moves = new MoveCollection();
-
+    public void generateMoves(GameState gameState, MoveSink sink) {
         var pawns = gameState
                 .chessBoard()
-                .getPiecesOfType(PieceType.PAWN, gameState.isWhiteTurn());
+                .getPiecePositions(PieceType.PAWN, gameState.isWhiteTurn());
 
         for (var pawn : pawns) {
-            generatePawnMoves(gameState, pawn, moves, promotionTypes);
+            generatePawnMoves(gameState, pawn, GenerationMode.ALL, sink, promotionTypes);
         }
+    }
+
+    @Override
+    public PieceType pieceType() {
+        return PieceType.PAWN;
+    }
 
-        return moves;
+    /**
+     * Returns the piece types a pawn may promote to.
+     *
+     * @return An unmodifiable list of the promotion types, in the order their moves are generated
+     */
+    public List<PieceType> promotionTypes() {
+        return promotionTypes;
+    }
+
+    @Override
+    public void generateMoves(GameState gameState, Position from, GenerationMode mode, MoveSink sink) {
+        if (mode == GenerationMode.EVASIONS) {
+            sink = CheckEvasions.filter(gameState, sink);
+            mode = GenerationMode.ALL;
+        }
+        generatePawnMoves(gameState, from, mode, sink, promotionTypes);
+    }
+
+    @Override
+    public List<Position> attackersOf(GameState gameState, Position square, boolean byWhite) {
+        var board = gameState.chessBoard();
+        // A pawn attacks the square from the squares a pawn of the other colour would attack from it
+        var origins = BoardGeometry.of(board.getBounds()).pawnAttacks(board.getBounds().toIndex(square), !byWhite);
+        return LeaperAttacks.attackersOf(board, origins, ChessPiece.of(PieceType.PAWN, byWhite));
+    }
+
+    @Override
+    public boolean isAttacking(GameState gameState, Position square, boolean byWhite) {
+        var board = gameState.chessBoard();
+        var origins = BoardGeometry.of(board.getBounds()).pawnAttacks(board.getBounds().toIndex(square), !byWhite);
+        return LeaperAttacks.isAttacking(board, origins, ChessPiece.of(PieceType.PAWN, byWhite));
     }
 }
@@ -0,0 +1,67 @@
+package de.schoenfeld.chess.rules.generative;
+
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.GenerationMode;
+import de.schoenfeld.chess.move.MoveSink;
+
+/**
+ * A {@link GenerativeMoveRule} that moves the pieces of a single type, one piece at a time.
+ * <p>
+ * Rules of this kind can be fused by {@link de.schoenfeld.chess.rules.Rules#compile()}: the {@link FusedMoveRule}
+ * walks the pieces of the side to move once and calls
+ * {@link #generateMoves(GameState, Position, GenerationMode, MoveSink)} for every piece of the rule's type,
+ * instead of each rule looking up its own pieces.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ */
+public interface PieceMoveRule extends GenerativeMoveRule {
+    /**
+     * Returns the type of the pieces this rule moves.
+     *
+     * @return The piece type
+     */
+    PieceType pieceType();
+
+    /**
+     * Generates the moves of the piece on the given position, which belongs to the side to move, that the
+     * given mode includes. For {@link GenerationMode#EVASIONS}, only the moves that resolve a check are passed
+     * to the sink, see {@link CheckEvasions#filter(GameState, MoveSink)}.
+     *
+     * @param gameState The current game state
+     * @param from      The position of the piece
+     * @param mode      The kind of moves to generate
+     * @param sink      The sink that receives the generated moves
+     */
+    void generateMoves(GameState gameState, Position from, GenerationMode mode, MoveSink sink);
+
+    /**
+     * Generates all moves of the piece on the given position, which belongs to the side to move.
+     *
+     * @param gameState The current game state
+     * @param from      The position of the piece
+     * @param sink      The sink that receives the generated moves
+     */
+    default void generateMoves(GameState gameState, Position from, MoveSink sink) {
+        generateMoves(gameState, from, GenerationMode.ALL, sink);
+    }
+
+    @Override
+    default void generateMoves(GameState gameState, MoveSink sink) {
+        generateMoves(gameState, GenerationMode.ALL, sink);
+    }
+
+    @Override
+    default void generateMoves(GameState gameState, GenerationMode mode, MoveSink sink) {
+        if (mode == GenerationMode.EVASIONS) {
+            CheckEvasions evasions = CheckEvasions.of(gameState);
+            if (!evasions.allowsPieceType(pieceType())) return;
+            sink = evasions.filter(sink);
+            mode = GenerationMode.ALL;
+        }
+        for (Position from : gameState.chessBoard().getPiecePositions(pieceType(), gameState.isWhiteTurn()))
+            generateMoves(gameState, from, mode, sink);
+    }
+}
@@ -2,7 +2,8 @@ package de.schoenfeld.chess.rules.generative.sliding;
 
 import de.schoenfeld.chess.model.GameState;
 import de.schoenfeld.chess.model.PieceType;
-import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.move.MoveSink;
+import de.schoenfeld.chess.rules.generative.PieceMoveRule;
 
 /**
  * Move rule for bishops, generating all legal moves based on sliding movement in diagonal directions.
@@ -14,37 +15,33 @@ import de.schoenfeld.chess.move.MoveCollection;
  * <h3>Implementation Details:</h3>
  * <ul>
  *     <li>Uses {@link SlidingPieceMoveRule} to handle diagonal movement logic.</li>
- *     <li>Retrieves all bishops of the active player from the board.</li>
+ *     <li>Retrieves the positions of all bishops of the active player from the board.</li>
  *     <li>Calls {@code generateMoves()} from {@link SlidingPieceMoveRule} for each bishop.</li>
  * </ul>
  *
  * @author Anton Schoenfeld
  */
-public class BishopMoveRule extends SlidingPieceMoveRule {
+public class BishopMoveRule extends SlidingPieceMoveRule implements PieceMoveRule {
 
     /**
      * Constructs a new {@code BishopMoveRule} using diagonal directions only.
      */
     public BishopMoveRule() {
-        super(SlidingPieceMoveRule.DIAGONAL_DIRECTIONS);
+        super(PieceType.BISHOP, SlidingPieceMoveRule.DIAGONAL_DIRECTIONS);
     }
 
     /**
      * Generates all legal moves for bishops of the current player.
      *
      * @param gameState The current state of the game.
-     * @return A {@code MoveCollection} containing all possible bishop moves.
+     * @param sink      The sink that receives all possible bishop moves.
      */
     @Override
-    public MoveCollection generateMoves(GameState gameState) {
-        var board = gameState.chessBoard();
-        var bishops = board.getPiecesOfType(PieceType.BISHOP, gameState.isWhiteTurn());
-        var moves = new MoveCollection();
+    public void generateMoves(GameState gameState, MoveSink sink) {
+        var positions = gameState.chessBoard().getPiecePositions(PieceType.BISHOP, gameState.isWhiteTurn());
 
-        for (var bishop : bishops) {
-            generateMoves(gameState, bishop, moves);
+        for (var position : positions) {
+            generateMoves(gameState, position, sink);
         }
-
-        return moves;
     }
 }
@@ -2,7 +2,8 @@ package de.schoenfeld.chess.rules.generative.sliding;
 
 import de.schoenfeld.chess.model.GameState;
 import de.schoenfeld.chess.model.PieceType;
-import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.move.MoveSink;
+import de.schoenfeld.chess.rules.generative.PieceMoveRule;
 
 /**
  * Move rule for queens, generating all legal moves based on sliding movement in all directions.
@@ -18,36 +19,33 @@ import de.schoenfeld.chess.move.MoveCollection;
  * <h3>Implementation Details:</h3>
  * <ul>
  *     <li>Uses {@link SlidingPieceMoveRule} to handle movement logic.</li>
- *     <li>Retrieves all queens of the active player from the board.</li>
+ *     <li>Retrieves the positions of all queens of the active player from the board.</li>
  *     <li>Calls {@code generateMoves()} from {@link SlidingPieceMoveRule} for each queen.</li>
  * </ul>
  *
  * @author Anton Schoenfeld
  */
-public class QueenMoveRule extends SlidingPieceMoveRule {
+public class QueenMoveRule extends SlidingPieceMoveRule implements PieceMoveRule {
 
     /**
      * Constructs a new {@link QueenMoveRule} using all possible sliding directions.
      */
     public QueenMoveRule() {
-        super(SlidingPieceMoveRule.ALL_DIRECTIONS);
+        super(PieceType.QUEEN, SlidingPieceMoveRule.ALL_DIRECTIONS);
     }
 
     /**
      * Generates all legal moves for queens of the current player.
      *
      * @param gameState The current state of the game.
-     * @return A {@link MoveCollection} containing all possible queen moves.
+     * @param sink      The sink that receives all possible queen moves.
      */
     @Override
-    public MoveCollection generateMoves(GameState gameState) {
-        var queens = gameState.chessBoard().getPiecesOfType(PieceType.QUEEN, gameState.isWhiteTurn());
-        var moves = new MoveCollection();
+    public void generateMoves(GameState gameState, MoveSink sink) {
+        var positions = gameState.chessBoard().getPiecePositions(PieceType.QUEEN, gameState.isWhiteTurn());
 
-        for (var queen : queens) {
-            generateMoves(gameState, queen, moves);
+        for (var position : positions) {
+            generateMoves(gameState, position, sink);
         }
-
-        return moves;
     }
 }
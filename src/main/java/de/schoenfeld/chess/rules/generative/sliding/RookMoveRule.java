@@ -2,7 +2,8 @@ package de.schoenfeld.chess.rules.generative.sliding;
 
 import de.schoenfeld.chess.model.GameState;
 import de.schoenfeld.chess.model.PieceType;
-import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.move.MoveSink;
+import de.schoenfeld.chess.rules.generative.PieceMoveRule;
 
 /**
  * Move rule for rooks, generating all legal moves based on sliding movement in straight directions.
@@ -14,37 +15,33 @@ import de.schoenfeld.chess.move.MoveCollection;
  * <h3>Implementation Details:</h3>
  * <ul>
  *     <li>Uses {@link SlidingPieceMoveRule} to handle straight-line movement logic.</li>
- *     <li>Retrieves all rooks of the active player from the board.</li>
+ *     <li>Retrieves the positions of all rooks of the active player from the board.</li>
  *     <li>Calls {@code generateMoves()} from {@link SlidingPieceMoveRule} for each rook.</li>
  * </ul>
  *
  * @author Anton Schoenfeld
  */
-public class RookMoveRule extends SlidingPieceMoveRule {
+public class RookMoveRule extends SlidingPieceMoveRule implements PieceMoveRule {
 
     /**
      * Constructs a new {@code RookMoveRule} using straight directions only.
      */
     public RookMoveRule() {
-        super(SlidingPieceMoveRule.STRAIGHT_DIRECTIONS);
+        super(PieceType.ROOK, SlidingPieceMoveRule.STRAIGHT_DIRECTIONS);
     }
 
     /**
      * Generates all legal moves for rooks of the current player.
      *
      * @param gameState The current state of the game.
-     * @return A {@code MoveCollection} containing all possible rook moves.
+     * @param sink      The sink that receives all possible rook moves.
      */
     @Override
-    public MoveCollection generateMoves(GameState gameState) {
-        var board = gameState.chessBoard();
-        var rooks = board.getPiecesOfType(PieceType.ROOK, gameState.isWhiteTurn());
-        var moves = new MoveCollection();
+    public void generateMoves(GameState gameState, MoveSink sink) {
+        var positions = gameState.chessBoard().getPiecePositions(PieceType.ROOK, gameState.isWhiteTurn());
 
-        for (var rook : rooks) {
-            generateMoves(gameState, rook, moves);
+        for (var position : positions) {
+            generateMoves(gameState, position, sink);
         }
-
-        return moves;
     }
 }
@@ -1,14 +1,23 @@
 package de.schoenfeld.chess.rules.generative.sliding;
 
+import de.schoenfeld.chess.board.BitboardChessBoard;
+import de.schoenfeld.chess.board.MagicBitboards;
+import de.schoenfeld.chess.model.BoardGeometry;
+import de.schoenfeld.chess.model.ChessBoardBounds;
 import de.schoenfeld.chess.model.ChessPiece;
 import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.PieceType;
 import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.GenerationMode;
 import de.schoenfeld.chess.move.Move;
-import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.move.MoveSink;
 import de.schoenfeld.chess.move.components.CaptureComponent;
+import de.schoenfeld.chess.rules.generative.CheckEvasions;
 import de.schoenfeld.chess.rules.generative.GenerativeMoveRule;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Abstract base class for generating moves of sliding chess pieces.
@@ -31,6 +40,11 @@ import java.util.List;
  * </ol>
  *
  * <p>
+ * On a {@link BitboardChessBoard} with 8x8 bounds, rules whose directions are exactly the straight and/or diagonal
+ * directions look their targets up in the {@link MagicBitboards} tables instead of walking the rays.
+ * </p>
+ *
+ * <p>
  * This class is meant to be extended by specific piece rules, such as {@link QueenMoveRule}, which will
  * provide the appropriate movement directions.
  * </p>
@@ -70,10 +84,20 @@ public abstract class SlidingPieceMoveRule implements GenerativeMoveRule {
             Position.of(-1, 0), Position.of(0, -1)
     );
 
+    private static final ChessBoardBounds STANDARD_BOUNDS = new ChessBoardBounds(8, 8);
+
+    /**
+     * The x- and y-components of the movement directions that this sliding piece can follow.
+     */
+    private final int[] directionsX, directionsY;
+    /**
+     * Whether the directions are covered by the rook and/or bishop magic tables.
+     */
+    private final boolean straight, diagonal;
     /**
-     * The movement directions that this sliding piece can follow.
+     * The type of the pieces this rule moves, or {@code null} if unknown.
      */
-    private final List<Position> directions;
+    private final PieceType pieceType;
 
     /**
      * Constructs a {@link SlidingPieceMoveRule} with the given movement directions.
@@ -81,42 +105,214 @@ public abstract class SlidingPieceMoveRule implements GenerativeMoveRule {
      * @param directions The allowed movement directions for the piece.
      */
     public SlidingPieceMoveRule(List<Position> directions) {
-        this.directions = directions;
+        this(null, directions);
+    }
+
+    /**
+     * Constructs a {@link SlidingPieceMoveRule} for the given piece type with the given movement directions.
+     * Knowing the piece type allows the rule to find attackers by tracing the rays outward from the attacked square,
+     * see {@link #attackersOf(GameState, Position, boolean)}.
+     *
+     * @param pieceType  The type of the pieces this rule moves, or {@code null} if unknown.
+     * @param directions The allowed movement directions for the piece.
+     */
+    public SlidingPieceMoveRule(PieceType pieceType, List<Position> directions) {
+        this.pieceType = pieceType;
+        this.directionsX = new int[directions.size()];
+        this.directionsY = new int[directions.size()];
+        for (int i = 0; i < directions.size(); i++) {
+            directionsX[i] = directions.get(i).x();
+            directionsY[i] = directions.get(i).y();
+        }
+
+        boolean hasStraight = directions.containsAll(STRAIGHT_DIRECTIONS);
+        boolean hasDiagonal = directions.containsAll(DIAGONAL_DIRECTIONS);
+        boolean exact = Set.copyOf(directions).size() == (hasStraight ? 4 : 0) + (hasDiagonal ? 4 : 0);
+        this.straight = exact && hasStraight;
+        this.diagonal = exact && hasDiagonal;
     }
 
     /**
-     * Generates all legal moves for a given sliding piece and adds them to the provided {@link MoveCollection}.
+     * Generates all legal moves for a given sliding piece and passes them to the provided {@link MoveSink}.
      * <p>
      * The method iterates in all possible directions, stopping when it encounters a piece or the board boundary.
      * If an enemy piece is found, a capturing move is added. Empty squares are valid normal moves.
+     * The rays are looked up in the {@link BoardGeometry} of the board as square indices;
+     * the only objects created are the moves.
      * </p>
      *
      * @param gameState The current state of the chess game.
      * @param piece     The piece for which moves should be generated.
-     * @param moves     The collection to which valid moves will be added.
+     * @param sink      The sink that receives the valid moves.
+     * @deprecated Equal pieces are the same instance, so the piece only identifies a square if it is unique on the
+     * board; use {@link #generateMoves(GameState, Position, MoveSink)} with the positions of
+     * {@link de.schoenfeld.chess.board.ImmutableChessBoard#getPiecePositions(PieceType, boolean)} instead.
      */
+    @Deprecated
     protected void generateMoves(GameState gameState,
                                  ChessPiece piece,
-                                 MoveCollection moves) {
+                                 MoveSink sink) {
+        generateMoves(gameState, gameState.chessBoard().getPiecePosition(piece), sink);
+    }
+
+    /**
+     * Generates all moves for the sliding piece on the given position, see
+     * {@link #generateMoves(GameState, ChessPiece, MoveSink)}.
+     *
+     * @param gameState The current state of the chess game.
+     * @param position  The position of the piece for which moves should be generated.
+     * @param sink      The sink that receives the valid moves.
+     */
+    public void generateMoves(GameState gameState,
+                              Position position,
+                              MoveSink sink) {
+        generateMoves(gameState, position, GenerationMode.ALL, sink);
+    }
+
+    /**
+     * Generates the moves for the sliding piece on the given position that the given mode includes.
+     * The rays are still walked up to the first piece, but only the included moves are created.
+     * For {@link GenerationMode#EVASIONS}, only the moves that resolve a check are passed to the sink.
+     *
+     * @param gameState The current state of the chess game.
+     * @param position  The position of the piece for which moves should be generated.
+     * @param mode      The kind of moves to generate.
+     * @param sink      The sink that receives the valid moves.
+     */
+    public void generateMoves(GameState gameState,
+                              Position position,
+                              GenerationMode mode,
+                              MoveSink sink) {
+        if (mode == GenerationMode.EVASIONS) {
+            sink = CheckEvasions.filter(gameState, sink);
+            mode = GenerationMode.ALL;
+        }
         var board = gameState.chessBoard();
-        var position = board.getPiecePosition(piece);
+        if ((straight || diagonal) && board instanceof BitboardChessBoard bitboard
+                && STANDARD_BOUNDS.equals(bitboard.bounds())) {
+            generateMagicMoves(bitboard, position, mode, sink);
+            return;
+        }
+        boolean captures = mode.includesCaptures(), quiets = mode.includesQuiets();
 
-        for (var direction : directions) {
-            var current = position.offset(direction);
+        var geometry = BoardGeometry.of(board.getBounds());
+        var piece = board.getPieceAt(position);
+        int square = board.getBounds().toIndex(position);
 
-            while (board.getBounds().contains(current)) {
-                ChessPiece target = board.getPieceAt(current);
+        for (int i = 0; i < directionsX.length; i++) {
+            // The ray ends at the edge of the board
+            for (int target : geometry.rays(directionsX[i], directionsY[i])[square]) {
+                ChessPiece targetPiece = board.getPieceAt(target);
 
-                if (target != null) {
+                if (targetPiece != null) {
                     // If target is an opponent's piece, add a capturing move
-                    moves.add(Move.of(piece, position, current, new CaptureComponent(target)));
+                    if (captures && targetPiece.isWhite() != piece.isWhite())
+                        sink.accept(Move.of(piece, position, geometry.position(target), new CaptureComponent(targetPiece)));
                     break;
                 }
 
                 // Add normal move if the square is empty
-                moves.add(Move.of(piece, position, current));
-                current = current.offset(direction);
+                if (quiets) sink.accept(Move.of(piece, position, geometry.position(target)));
             }
         }
     }
+
+    /**
+     * Returns the type of the pieces this rule moves.
+     *
+     * @return The piece type, or {@code null} if unknown.
+     */
+    public PieceType pieceType() {
+        return pieceType;
+    }
+
+    /**
+     * Returns the positions of the pieces of this rule's type and the given colour that attack the given square.
+     * The rays opposite to the movement directions are traced outward from the square, and the first piece on
+     * each ray is an attacker if it is of the rule's type and colour.
+     * Without a piece type, the rays are walked up to and including the first occupied square of either colour,
+     * and only if one of them ends on a piece of the attacking colour are the moves of the attacking side generated
+     * to tell which of those pieces this rule moves, see
+     * {@link GenerativeMoveRule#attackersOf(GameState, Position, boolean)}.
+     *
+     * @param gameState The current state of the chess game.
+     * @param square    The attacked square.
+     * @param byWhite   The colour of the attacking pieces.
+     * @return The positions of the attackers.
+     */
+    @Override
+    public List<Position> attackersOf(GameState gameState, Position square, boolean byWhite) {
+        var board = gameState.chessBoard();
+        var geometry = BoardGeometry.of(board.getBounds());
+        List<Position> attackers = new ArrayList<>(2);
+
+        if (pieceType == null) {
+            int target = board.getBounds().toIndex(square);
+            for (int i = 0; i < directionsX.length; i++) {
+                for (int origin : geometry.rays(-directionsX[i], -directionsY[i])[target]) {
+                    ChessPiece piece = board.getPieceAt(origin);
+                    if (piece == null) continue;
+                    if (piece.isWhite() == byWhite) attackers.add(geometry.position(origin));
+                    break;
+                }
+            }
+            if (attackers.isEmpty()) return attackers;
+            attackers.retainAll(GenerativeMoveRule.super.attackersOf(gameState, square, byWhite));
+            return attackers;
+        }
+
+        if ((straight || diagonal) && board instanceof BitboardChessBoard bitboard
+                && STANDARD_BOUNDS.equals(bitboard.bounds())) {
+            long candidates = magicAttacks(square.y() * 8 + square.x(), bitboard.occupied())
+                    & bitboard.piecesOfType(pieceType) & bitboard.piecesOfColour(byWhite);
+            while (candidates != 0) {
+                int origin = Long.numberOfTrailingZeros(candidates);
+                candidates &= candidates - 1;
+                attackers.add(Position.of(origin & 7, origin >>> 3));
+            }
+            return attackers;
+        }
+
+        ChessPiece attacker = ChessPiece.of(pieceType, byWhite);
+        int target = board.getBounds().toIndex(square);
+        for (int i = 0; i < directionsX.length; i++) {
+            for (int origin : geometry.rays(-directionsX[i], -directionsY[i])[target]) {
+                ChessPiece piece = board.getPieceAt(origin);
+                if (piece == null) continue;
+                if (attacker.equals(piece)) attackers.add(geometry.position(origin));
+                break;
+            }
+        }
+        return attackers;
+    }
+
+    private long magicAttacks(int square, long occupied) {
+        long attacks = 0L;
+        if (straight) attacks |= MagicBitboards.rookAttacks(square, occupied);
+        if (diagonal) attacks |= MagicBitboards.bishopAttacks(square, occupied);
+        return attacks;
+    }
+
+    /**
+     * Generates the moves of the sliding piece on the given position from the magic attack tables.
+     */
+    private void generateMagicMoves(BitboardChessBoard board, Position position, GenerationMode mode, MoveSink sink) {
+        int square = position.y() * 8 + position.x();
+        var piece = board.getPieceAt(position);
+        long occupied = board.occupied();
+
+        long attacks = magicAttacks(square, occupied) & ~board.piecesOfColour(piece.isWhite());
+        if (!mode.includesCaptures()) attacks &= ~occupied;
+        if (!mode.includesQuiets()) attacks &= occupied;
+
+        while (attacks != 0) {
+            int target = Long.numberOfTrailingZeros(attacks);
+            attacks &= attacks - 1;
+            Position to = Position.of(target & 7, target >>> 3);
+
+            if ((occupied & (1L << target)) != 0)
+                sink.accept(Move.of(piece, position, to, new CaptureComponent(board.getPieceAt(to))));
+            else sink.accept(Move.of(piece, position, to));
+        }
+    }
 }
@@ -1,42 +1,87 @@
 package de.schoenfeld.chess.rules.restrictive;
 
-import de.schoenfeld.chess.model.ChessPiece;
 import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.MutableGameState;
 import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
 import de.schoenfeld.chess.move.Move;
 import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.rules.AttackDetector;
 import de.schoenfeld.chess.rules.MoveGenerator;
 
 import java.util.Iterator;
 import java.util.List;
 
 public class CheckRule implements RestrictiveMoveRule {
-    private final MoveGenerator moveGenerator;
+    private final AttackDetector attackDetector;
 
     public CheckRule(MoveGenerator moveGenerator) {
-        this.moveGenerator = moveGenerator;
+        this.attackDetector = AttackDetector.of(moveGenerator);
+    }
+
+    private CheckRule(AttackDetector attackDetector) {
+        this.attackDetector = attackDetector;
+    }
+
+    /**
+     * Creates a rule that asks the given detector whether squares are attacked.
+     * Generators that are detectors themselves can be passed to the constructor instead.
+     *
+     * @param attackDetector The attack detector
+     * @return The rule
+     */
+    public static CheckRule of(AttackDetector attackDetector) {
+        if (attackDetector == null) throw new NullPointerException("attackDetector");
+        return new CheckRule(attackDetector);
     }
 
     @Override
     public void filterMoves(MoveCollection moves, GameState gameState) {
+        if (moves.isEmpty()) return;
+        // Simulate all moves on one mutable copy instead of creating a new state per move
+        filterMoves(moves, gameState, new MutableGameState(gameState));
+    }
+
+    /**
+     * Returns a rule that copies the board for the simulation only once, on its first non-empty set of moves.
+     */
+    @Override
+    public RestrictiveMoveRule prepare(GameState gameState) {
+        return new RestrictiveMoveRule() {
+            private MutableGameState simulation;
+
+            @Override
+            public void filterMoves(MoveCollection moves, GameState ignored) {
+                if (moves.isEmpty()) return;
+                if (simulation == null) simulation = new MutableGameState(gameState);
+                CheckRule.this.filterMoves(moves, gameState, simulation);
+            }
+        };
+    }
+
+    private void filterMoves(MoveCollection moves, GameState gameState, MutableGameState simulation) {
         // Loop through all moves
         Iterator<Move> iterator = moves.iterator();
-        if (!iterator.hasNext()) return;
-        for (Move move = iterator.next(); iterator.hasNext(); move = iterator.next()) {
+        while (iterator.hasNext()) {
+            Move move = iterator.next();
             // Simulate move
-            GameState future = move.executeOn(gameState);
-            // Get valid moves in simulated future state
-            MoveCollection futureMoves = moveGenerator.generateMoves(future);
+            simulation.makeMove(move);
+            GameState future = simulation.asGameState();
 
-            List<ChessPiece> kings = future.chessBoard()
-                    .getPiecesOfType(PieceType.KING, gameState.isWhiteTurn());
+            List<Position> kings = future.chessBoard()
+                    .getPiecePositions(PieceType.KING, gameState.isWhiteTurn());
 
             // Check if the move results in a king being in check
-            for (ChessPiece king : kings) {
-                if (futureMoves.containsMoveTo(future.chessBoard().getPiecePosition(king))) {
-                    iterator.remove();
+            boolean isKingAttacked = false;
+            for (Position king : kings) {
+                if (attackDetector.isSquareAttacked(future, king, !gameState.isWhiteTurn())) {
+                    isKingAttacked = true;
+                    break;
                 }
             }
+            simulation.unmakeMove();
+
+            if (isKingAttacked) iterator.remove();
         }
     }
 }
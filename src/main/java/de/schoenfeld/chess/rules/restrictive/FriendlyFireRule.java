@@ -11,9 +11,9 @@ public class FriendlyFireRule implements RestrictiveMoveRule {
     @Override
     public void filterMoves(MoveCollection moves, GameState gameState) {
         Iterator<Move> iterator = moves.iterator();
-        if (!iterator.hasNext()) return;
 
-        for (Move move = iterator.next(); iterator.hasNext(); move = iterator.next()) {
+        while (iterator.hasNext()) {
+            Move move = iterator.next();
             ChessPiece targetPiece = gameState.chessBoard().getPieceAt(move.to());
             if (targetPiece == null) continue;
 
@@ -1,20 +1,38 @@
 package de.schoenfeld.chess.rules.restrictive;
 
+import de.schoenfeld.chess.model.BoardGeometry;
 import de.schoenfeld.chess.model.GameState;
 import de.schoenfeld.chess.model.Position;
 import de.schoenfeld.chess.move.Move;
 import de.schoenfeld.chess.move.MoveCollection;
-import de.schoenfeld.chess.move.components.CastlingComponent;
+import de.schoenfeld.chess.rules.AttackDetector;
 import de.schoenfeld.chess.rules.MoveGenerator;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
 public class NoCastlingThroughCheckRule implements RestrictiveMoveRule {
-    private final MoveGenerator moveGenerator;
+    private final AttackDetector attackDetector;
 
     public NoCastlingThroughCheckRule(MoveGenerator moveGenerator) {
-        this.moveGenerator = moveGenerator;
+        this.attackDetector = AttackDetector.of(moveGenerator);
+    }
+
+    private NoCastlingThroughCheckRule(AttackDetector attackDetector) {
+        this.attackDetector = attackDetector;
+    }
+
+    /**
+     * Creates a rule that asks the given detector whether squares are attacked.
+     * Generators that are detectors themselves can be passed to the constructor instead.
+     *
+     * @param attackDetector The attack detector
+     * @return The rule
+     */
+    public static NoCastlingThroughCheckRule of(AttackDetector attackDetector) {
+        if (attackDetector == null) throw new NullPointerException("attackDetector");
+        return new NoCastlingThroughCheckRule(attackDetector);
     }
 
     @Override
@@ -24,11 +42,11 @@ public class NoCastlingThroughCheckRule implements RestrictiveMoveRule {
         while (iterator.hasNext()) {
             Move move = iterator.next();
 
-            if (!move.hasComponent(CastlingComponent.class)) continue;
+            if (!move.isCastling()) continue;
 
             var kingFrom = move.from();
             var kingTo = move.to();
-            var intermediatePositions = getIntermediateKingPositions(kingFrom, kingTo);
+            var intermediatePositions = getIntermediateKingPositions(kingFrom, kingTo, gameState);
 
             if (isAnyPositionAttacked(intermediatePositions, gameState)) {
                 iterator.remove();
@@ -36,20 +54,19 @@ public class NoCastlingThroughCheckRule implements RestrictiveMoveRule {
         }
     }
 
-    private List<Position> getIntermediateKingPositions(Position from, Position to) {
-        int direction = Integer.compare(to.x(), from.x()); // Only horizontal movement
-        return List.of(
-                new Position(from.x() + direction, from.y()),
-                new Position(from.x() + 2 * direction, from.y()) // King's destination
-        );
+    private List<Position> getIntermediateKingPositions(Position from, Position to, GameState gameState) {
+        var bounds = gameState.chessBoard().getBounds();
+        var geometry = BoardGeometry.of(bounds);
+        List<Position> positions = new ArrayList<>();
+        for (int square : geometry.between(bounds.toIndex(from), bounds.toIndex(to)))
+            positions.add(geometry.position(square));
+        positions.add(to); // King's destination
+        return positions;
     }
 
     private boolean isAnyPositionAttacked(List<Position> positions, GameState gameState) {
-        var enemyState = gameState.withIsWhiteTurn(!gameState.isWhiteTurn());
-        var opponentMoves = moveGenerator.generateMoves(enemyState);
-
-        for (var move : opponentMoves) {
-            if (positions.contains(move.to())) {
+        for (var position : positions) {
+            if (attackDetector.isSquareAttacked(gameState, position, !gameState.isWhiteTurn())) {
                 return true;
             }
         }
@@ -15,4 +15,16 @@ public interface RestrictiveMoveRule {
      * @param gameState The current game state
      */
     void filterMoves(MoveCollection moves, GameState gameState);
+
+    /**
+     * Prepares this rule for filtering the moves of the given position several times, e.g. stage by stage.
+     * A rule that analyses the position before filtering returns a rule that does so only once.
+     * The returned rule must only be used with the given game state. The default returns this rule.
+     *
+     * @param gameState The game state whose moves will be filtered
+     * @return The rule to filter the moves of the game state with
+     */
+    default RestrictiveMoveRule prepare(GameState gameState) {
+        return this;
+    }
 }
@@ -0,0 +1,167 @@
+package de.schoenfeld.chess.board;
+
+import de.schoenfeld.chess.model.ChessBoardBounds;
+import de.schoenfeld.chess.model.ChessPiece;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArrayChessBoardTest {
+    private ArrayChessBoard tested;
+    private ChessBoardBounds bounds;
+
+    @BeforeEach
+    public void setUp() {
+        bounds = new ChessBoardBounds(12, 12);
+        tested = new ArrayChessBoard(bounds);
+    }
+
+    @Test
+    public void givenNoPieces_whenGetPieceAt_thenNull() {
+        // Given
+        // Board is already empty
+        // When
+        ChessPiece piece = tested.getPieceAt(Position.of(11, 11));
+        // Then
+        assertNull(piece);
+    }
+
+    @Test
+    public void givenPieceAtPosition_whenGetPieceAt_thenPiece() {
+        // Given
+        ChessPiece piece = ChessPiece.of(PieceType.ROOK, true);
+        Position position = Position.of(10, 3);
+        tested = tested.withPieceAt(piece, position);
+        // When
+        ChessPiece result = tested.getPieceAt(position);
+        // Then
+        assertSame(piece, result);
+    }
+
+    @Test
+    public void givenPieceAtPosition_whenGetPiecePosition_thenPosition() {
+        // Given
+        ChessPiece piece = ChessPiece.of(PieceType.ROOK, true);
+        Position position = Position.of(10, 3);
+        tested = tested.withPieceAt(piece, position);
+        // When
+        Position result = tested.getPiecePosition(piece);
+        // Then
+        assertEquals(position, result);
+    }
+
+    @Test
+    public void givenPositionOutOfBounds_whenWithPieceAt_thenThrowException() {
+        ChessPiece piece = ChessPiece.of(PieceType.ROOK, true);
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> tested.withPieceAt(piece, Position.of(12, 0)));
+    }
+
+    @Test
+    public void givenPieceAtPosition_whenWithPieceMoved_thenMovedPieceAtNewPosition() {
+        // Given
+        ChessPiece piece = ChessPiece.of(PieceType.KNIGHT, false);
+        Position from = Position.of(1, 11);
+        Position to = Position.of(2, 9);
+        tested = tested.withPieceAt(piece, from);
+        // When
+        ArrayChessBoard result = tested.withPieceMoved(from, to);
+        // Then
+        assertNull(result.getPieceAt(from));
+        assertSame(piece, result.getPieceAt(to));
+        assertSame(piece, tested.getPieceAt(from)); // Original remains unchanged
+    }
+
+    @Test
+    public void givenPiecesOfBothColours_whenGetPiecesOfType_thenPiecesOfTypeAndColour() {
+        // Given
+        tested = tested
+                .withPieceAt(ChessPiece.of(PieceType.PAWN, true), Position.of(0, 1))
+                .withPieceAt(ChessPiece.of(PieceType.PAWN, true), Position.of(1, 1))
+                .withPieceAt(ChessPiece.of(PieceType.PAWN, false), Position.of(0, 10))
+                .withPieceAt(ChessPiece.of(PieceType.KING, true), Position.of(5, 0));
+        // When
+        var whitePawns = tested.getPiecesOfType(PieceType.PAWN, true);
+        var whitePieces = tested.getPiecesOfColour(true);
+        // Then
+        assertEquals(2, whitePawns.size());
+        assertEquals(3, whitePieces.size());
+        assertEquals(4, tested.getPieces().size());
+    }
+
+    @Test
+    public void givenMorePiecesThanCodes_whenWithPieceAt_thenTableIsCompacted() {
+        // Given
+        Position position = Position.of(0, 0);
+        ChessPiece last = null;
+        // When
+        for (int i = 0; i < 600; i++) {
+            last = ChessPiece.of(new PieceType(i, "X"), i % 2 == 0);
+            tested = tested.withPieceAt(last, position);
+        }
+        // Then
+        assertSame(last, tested.getPieceAt(position));
+        assertEquals(1, tested.getPieces().size());
+    }
+
+    @Test
+    public void givenPieces_whenWithAllPieces_thenAllPieces() {
+        // Given
+        ChessPiece piece1 = ChessPiece.of(PieceType.BISHOP, true);
+        ChessPiece piece2 = ChessPiece.of(PieceType.BISHOP, false);
+        Map<Position, ChessPiece> pieces = new HashMap<>();
+        pieces.put(Position.of(0, 0), piece1);
+        pieces.put(Position.of(11, 11), piece2);
+        // When
+        tested = tested.withAllPieces(pieces);
+        // Then
+        assertEquals(2, tested.getPieces().size());
+        assertSame(piece1, tested.getPieceAt(Position.of(0, 0)));
+        assertSame(piece2, tested.getPieceAt(Position.of(11, 11)));
+    }
+
+    @Test
+    public void givenPieces_whenWithBounds_thenOverlappingPiecesAreKept() {
+        // Given
+        tested = tested
+                .withPieceAt(ChessPiece.of(PieceType.KING, true), Position.of(2, 2))
+                .withPieceAt(ChessPiece.of(PieceType.KING, false), Position.of(10, 10));
+        ChessBoardBounds newBounds = new ChessBoardBounds(8, 8);
+        // When
+        tested = tested.withBounds(newBounds);
+        // Then
+        assertEquals(newBounds, tested.getBounds());
+        assertEquals(1, tested.getPieces().size());
+        assertNotNull(tested.getPieceAt(Position.of(2, 2)));
+    }
+
+    @Test
+    public void givenDefaultPosition_whenToFen_thenSameFenAsBitboardBoard() {
+        // Given
+        var arrayBoard = BoardUtility.getDefaultBoard(ArrayChessBoard::new);
+        var bitboard = BoardUtility.getDefaultBoard(BitboardChessBoard::new);
+        // When
+        String result = arrayBoard.toFen();
+        // Then
+        assertEquals(bitboard.toFen(), result);
+    }
+
+    @Test
+    public void givenSamePieces_whenEquals_thenTrue() {
+        // Given
+        ChessPiece piece = ChessPiece.of(PieceType.KING, true);
+        ArrayChessBoard first = tested.withPieceAt(piece, Position.of(1, 1));
+        ArrayChessBoard second = new ArrayChessBoard(bounds).withPieceAt(piece, Position.of(1, 1));
+        // When
+        boolean result = first.equals(second);
+        // Then
+        assertTrue(result);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+}
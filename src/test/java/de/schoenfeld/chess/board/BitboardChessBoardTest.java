@@ -0,0 +1,182 @@
+package de.schoenfeld.chess.board;
+
+import de.schoenfeld.chess.model.ChessBoardBounds;
+import de.schoenfeld.chess.model.ChessPiece;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitboardChessBoardTest {
+    private static final String DEFAULT_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR";
+
+    private BitboardChessBoard tested;
+
+    @BeforeEach
+    public void setUp() {
+        tested = new BitboardChessBoard(new ChessBoardBounds(8, 8));
+    }
+
+    @Test
+    public void givenNoPieces_whenGetPieceAt_thenNull() {
+        // Given
+        // Board is already empty
+        // When
+        ChessPiece piece = tested.getPieceAt(Position.of(0, 0));
+        // Then
+        assertNull(piece);
+    }
+
+    @Test
+    public void givenPieceAtPosition_whenGetPieceAt_thenEquivalentPiece() {
+        // Given
+        Position position = Position.of(3, 4);
+        tested = tested.withPieceAt(ChessPiece.of(PieceType.QUEEN, false), position);
+        // When
+        ChessPiece result = tested.getPieceAt(position);
+        // Then
+        assertEquals(PieceType.QUEEN, result.pieceType());
+        assertFalse(result.isWhite());
+        assertSame(ChessPiece.of(PieceType.QUEEN, false), result);
+    }
+
+    @Test
+    public void givenPieceFromBoard_whenGetPiecePosition_thenPosition() {
+        // Given
+        Position position = Position.of(6, 0);
+        tested = tested.withPieceAt(ChessPiece.of(PieceType.KNIGHT, true), position);
+        ChessPiece piece = tested.getPieceAt(position);
+        // When
+        Position result = tested.getPiecePosition(piece);
+        // Then
+        assertEquals(position, result);
+    }
+
+    @Test
+    public void givenPieceRemoved_whenGetPiecePosition_thenNull() {
+        // Given
+        Position position = Position.of(6, 0);
+        tested = tested.withPieceAt(ChessPiece.of(PieceType.KNIGHT, true), position);
+        ChessPiece piece = tested.getPieceAt(position);
+        tested = tested.withoutPieceAt(position);
+        // When
+        Position result = tested.getPiecePosition(piece);
+        // Then
+        assertNull(result);
+    }
+
+    @Test
+    public void givenPieceAtPosition_whenWithPieceMoved_thenMovedPieceAtNewPosition() {
+        // Given
+        Position from = Position.of(4, 1);
+        Position to = Position.of(4, 3);
+        tested = tested.withPieceAt(ChessPiece.of(PieceType.PAWN, true), from);
+        // When
+        BitboardChessBoard result = tested.withPieceMoved(from, to);
+        // Then
+        assertNull(result.getPieceAt(from));
+        assertEquals(PieceType.PAWN, result.getPieceAt(to).pieceType());
+        assertNotNull(tested.getPieceAt(from)); // Original remains unchanged
+    }
+
+    @Test
+    public void givenEnemyPieceAtTarget_whenWithPieceMoved_thenTargetIsReplaced() {
+        // Given
+        Position from = Position.of(0, 0);
+        Position to = Position.of(0, 7);
+        tested = tested
+                .withPieceAt(ChessPiece.of(PieceType.ROOK, true), from)
+                .withPieceAt(ChessPiece.of(PieceType.ROOK, false), to);
+        // When
+        tested = tested.withPieceMoved(from, to);
+        // Then
+        assertEquals(1, tested.getPieces().size());
+        assertTrue(tested.getPieceAt(to).isWhite());
+        assertTrue(tested.getPiecesOfColour(false).isEmpty());
+    }
+
+    @Test
+    public void givenDefaultPosition_whenGetPiecesOfType_thenPiecesOfType() {
+        // Given
+        tested = (BitboardChessBoard) BoardUtility.getDefaultBoard(BitboardChessBoard::new);
+        // When
+        var whitePawns = tested.getPiecesOfType(PieceType.PAWN, true);
+        var blackKnights = tested.getPiecesOfType(PieceType.KNIGHT, false);
+        // Then
+        assertEquals(8, whitePawns.size());
+        assertEquals(2, blackKnights.size());
+        assertEquals(16, tested.getPiecesOfColour(true).size());
+        assertEquals(32, tested.getPieces().size());
+    }
+
+    @Test
+    public void givenDefaultPosition_whenToFen_thenDefaultFen() {
+        // Given
+        tested = (BitboardChessBoard) BoardUtility.fromFen(DEFAULT_FEN, BitboardChessBoard::new);
+        // When
+        String result = tested.toFen();
+        // Then
+        assertEquals(DEFAULT_FEN, result);
+    }
+
+    @Test
+    public void givenPieces_whenWithAllPieces_thenAllPieces() {
+        // Given
+        Map<Position, ChessPiece> pieces = new HashMap<>();
+        pieces.put(Position.of(4, 0), ChessPiece.of(PieceType.KING, true));
+        pieces.put(Position.of(4, 7), ChessPiece.of(PieceType.KING, false));
+        // When
+        tested = tested.withAllPieces(pieces);
+        // Then
+        assertEquals(2, tested.getPieces().size());
+        assertTrue(tested.getPieceAt(Position.of(4, 0)).isWhite());
+        assertFalse(tested.getPieceAt(Position.of(4, 7)).isWhite());
+    }
+
+    @Test
+    public void givenUnsupportedPieceType_whenWithPieceAt_thenThrowException() {
+        ChessPiece piece = ChessPiece.of(new PieceType(4, "A"), true);
+        assertThrows(IllegalArgumentException.class,
+                () -> tested.withPieceAt(piece, Position.of(0, 0)));
+    }
+
+    @Test
+    public void givenSmallerBounds_whenWithBounds_thenPiecesOutsideAreDropped() {
+        // Given
+        tested = tested
+                .withPieceAt(ChessPiece.of(PieceType.KING, true), Position.of(1, 1))
+                .withPieceAt(ChessPiece.of(PieceType.KING, false), Position.of(6, 6));
+        ChessBoardBounds newBounds = new ChessBoardBounds(4, 4);
+        // When
+        tested = tested.withBounds(newBounds);
+        // Then
+        assertEquals(newBounds, tested.getBounds());
+        assertEquals(1, tested.getPieces().size());
+    }
+
+    @Test
+    public void givenBoundsLargerThanEightByEight_whenConstructor_thenThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BitboardChessBoard(new ChessBoardBounds(10, 10)));
+    }
+
+    @Test
+    public void givenSmallerBounds_whenGetPieceAtSquareIndex_thenPieceOfBoundsIndex() {
+        // Given
+        ChessBoardBounds bounds = new ChessBoardBounds(5, 6);
+        Position position = Position.of(3, 2);
+        tested = new BitboardChessBoard(bounds).withPieceAt(ChessPiece.of(PieceType.ROOK, true), position);
+        // When
+        ChessPiece piece = tested.getPieceAt(bounds.toIndex(position));
+        BitboardChessBoard moved = tested.withPieceMoved(bounds.toIndex(position), bounds.toIndex(0, 5));
+        // Then
+        assertEquals(PieceType.ROOK, piece.pieceType());
+        assertEquals(PieceType.ROOK, moved.getPieceAt(Position.of(0, 5)).pieceType());
+        assertNull(moved.getPieceAt(position));
+    }
+}
@@ -0,0 +1,61 @@
+package de.schoenfeld.chess.board;
+
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.MoveHistory;
+import de.schoenfeld.chess.rules.generative.sliding.QueenMoveRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MagicBitboardsTest {
+
+    private static long walk(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] direction : directions) {
+            int x = (square & 7) + direction[0], y = (square >>> 3) + direction[1];
+            while (x >= 0 && x < 8 && y >= 0 && y < 8) {
+                attacks |= 1L << (y * 8 + x);
+                if ((occupied & (1L << (y * 8 + x))) != 0) break;
+                x += direction[0];
+                y += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    @Test
+    public void givenRandomOccupancies_whenAttacks_thenEqualToRayWalk() {
+        // Given
+        Random random = new Random(42);
+        int[][] straight = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        int[][] diagonal = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+        for (int i = 0; i < 1000; i++) {
+            long occupied = random.nextLong() & random.nextLong();
+            int square = random.nextInt(64);
+            // When
+            long rook = MagicBitboards.rookAttacks(square, occupied);
+            long bishop = MagicBitboards.bishopAttacks(square, occupied);
+            // Then
+            assertEquals(walk(square, occupied, straight), rook);
+            assertEquals(walk(square, occupied, diagonal), bishop);
+            assertEquals(rook | bishop, MagicBitboards.queenAttacks(square, occupied));
+        }
+    }
+
+    @Test
+    public void givenBitboardAndMapBoard_whenQueenMoves_thenMovesAreEqual() {
+        // Given
+        String fen = "r3k2r/pp3ppp/8/3Q4/8/8/PPP2PPP/R3K2R";
+        var bitboard = BoardUtility.fromFen(fen, BitboardChessBoard::new);
+        var map = BoardUtility.fromFen(fen, MapChessBoard::new);
+        var rule = new QueenMoveRule();
+        // When
+        var bitboardMoves = rule.generateMoves(new GameState(bitboard, new MoveHistory(), true));
+        var mapMoves = rule.generateMoves(new GameState(map, new MoveHistory(), true));
+        // Then
+        assertFalse(bitboardMoves.isEmpty());
+        assertEquals(mapMoves, bitboardMoves);
+    }
+}
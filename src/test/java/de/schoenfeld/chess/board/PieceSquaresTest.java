@@ -0,0 +1,52 @@
+package de.schoenfeld.chess.board;
+
+import de.schoenfeld.chess.model.ChessPiece;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PieceSquaresTest {
+    private static final ChessPiece WHITE_ROOK = ChessPiece.of(PieceType.ROOK, true);
+    private static final ChessPiece BLACK_ROOK = ChessPiece.of(PieceType.ROOK, false);
+
+    @Test
+    public void givenPiecesInAnyOrder_whenPositionsOf_thenRowMajorPositionsOfTypeAndColour() {
+        // Given
+        PieceSquares tested = PieceSquares.EMPTY
+                .with(WHITE_ROOK, Position.of(7, 0))
+                .with(BLACK_ROOK, Position.of(0, 7))
+                .with(WHITE_ROOK, Position.of(0, 0))
+                .with(WHITE_ROOK, Position.of(3, 5));
+        // When
+        List<Position> positions = tested.positionsOf(PieceType.ROOK, true);
+        // Then
+        assertEquals(List.of(Position.of(0, 0), Position.of(7, 0), Position.of(3, 5)), positions);
+        assertEquals(List.of(Position.of(0, 7)), tested.positionsOf(PieceType.ROOK, false));
+        assertTrue(tested.positionsOf(PieceType.KING, true).isEmpty());
+    }
+
+    @Test
+    public void givenPiece_whenWithout_thenOnlyThatPositionIsRemoved() {
+        // Given
+        PieceSquares original = PieceSquares.of(Map.of(
+                Position.of(0, 0), WHITE_ROOK,
+                Position.of(7, 0), WHITE_ROOK
+        ));
+        // When
+        PieceSquares tested = original.without(WHITE_ROOK, Position.of(0, 0));
+        // Then
+        assertEquals(List.of(Position.of(7, 0)), tested.positionsOf(PieceType.ROOK, true));
+        assertEquals(2, original.positionsOf(PieceType.ROOK, true).size());
+    }
+
+    @Test
+    public void givenNullPiece_whenWithAndWithout_thenUnchanged() {
+        assertSame(PieceSquares.EMPTY, PieceSquares.EMPTY.with(null, Position.of(0, 0)));
+        assertSame(PieceSquares.EMPTY, PieceSquares.EMPTY.without(null, Position.of(0, 0)));
+    }
+}
@@ -0,0 +1,94 @@
+package de.schoenfeld.chess.board;
+
+import de.schoenfeld.chess.model.ChessBoardBounds;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.MoveHistory;
+import de.schoenfeld.chess.model.MutableGameState;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.Move;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZobristTest {
+    private static final List<Function<ChessBoardBounds, ? extends ImmutableChessBoard>> BOARDS = List.of(
+            MapChessBoard::new, ListChessBoard::new, BitboardChessBoard::new, ArrayChessBoard::new
+    );
+
+    private static GameState play(GameState state, int... squares) {
+        for (int i = 0; i < squares.length; i += 4) {
+            Position from = Position.of(squares[i], squares[i + 1]);
+            Position to = Position.of(squares[i + 2], squares[i + 3]);
+            state = Move.of(state.chessBoard().getPieceAt(from), from, to).executeOn(state);
+        }
+        return state;
+    }
+
+    @Test
+    public void givenMoves_whenZobristKey_thenIncrementalKeyEqualsFullKey() {
+        for (var factory : BOARDS) {
+            // Given
+            GameState state = new GameState(BoardUtility.getDefaultBoard(factory), new MoveHistory(), true);
+            // When
+            state = play(state, 4, 1, 4, 3, 3, 6, 3, 4, 4, 3, 3, 4);
+            // Then
+            assertEquals(Zobrist.keyOf(state.chessBoard()), state.chessBoard().zobristKey(),
+                    state.chessBoard().getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    public void givenDifferentBoards_whenZobristKey_thenKeysAreEqual() {
+        // Given
+        String fen = "r3k2r/pp3ppp/8/3Q4/8/8/PPP2PPP/R3K2R";
+        long expected = BoardUtility.fromFen(fen).zobristKey();
+        for (var factory : BOARDS) {
+            // When
+            long key = BoardUtility.fromFen(fen, factory).zobristKey();
+            // Then
+            assertEquals(expected, key, factory.apply(new ChessBoardBounds(8, 8)).getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    public void givenTransposedMoveOrders_whenZobristKey_thenKeysAreEqual() {
+        // Given
+        GameState initial = new GameState(BoardUtility.getDefaultBoard(), new MoveHistory(), true);
+        // When
+        GameState first = play(initial, 6, 0, 5, 2, 6, 7, 5, 5, 1, 0, 2, 2);
+        GameState second = play(initial, 1, 0, 2, 2, 6, 7, 5, 5, 6, 0, 5, 2);
+        // Then
+        assertEquals(first.zobristKey(), second.zobristKey());
+        assertNotEquals(first.zobristKey(), first.withIsWhiteTurn(true).zobristKey());
+    }
+
+    @Test
+    public void givenDoubleStepNextToEnemyPawn_whenZobristKey_thenEnPassantFileIsIncluded() {
+        // Given
+        GameState initial = new GameState(BoardUtility.fromFen("4k3/8/8/8/5p2/8/4P3/4K3"), new MoveHistory(), true);
+        // When
+        GameState doubleStep = play(initial, 4, 1, 4, 3);
+        GameState withoutHistory = doubleStep.withMoveHistory(new MoveHistory());
+        // Then
+        assertNotEquals(doubleStep.zobristKey(), withoutHistory.zobristKey());
+        assertEquals(withoutHistory.zobristKey() ^ Zobrist.enPassantKey(4), doubleStep.zobristKey());
+    }
+
+    @Test
+    public void givenMadeAndUnmadeMove_whenZobristKey_thenKeyIsRestored() {
+        // Given
+        GameState initial = new GameState(BoardUtility.getDefaultBoard(), new MoveHistory(), true);
+        MutableGameState tested = new MutableGameState(initial);
+        Position from = Position.of(6, 0);
+        // When
+        tested.makeMove(Move.of(initial.chessBoard().getPieceAt(from), from, Position.of(5, 2)));
+        long afterMove = tested.chessBoard().zobristKey();
+        tested.unmakeMove();
+        // Then
+        assertEquals(play(initial, 6, 0, 5, 2).chessBoard().zobristKey(), afterMove);
+        assertEquals(initial.chessBoard().zobristKey(), tested.chessBoard().zobristKey());
+    }
+}
@@ -0,0 +1,82 @@
+package de.schoenfeld.chess.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardGeometryTest {
+    private static final ChessBoardBounds BOUNDS = new ChessBoardBounds(8, 8);
+    private static final BoardGeometry GEOMETRY = BoardGeometry.of(BOUNDS);
+
+    private static int square(int x, int y) {
+        return BOUNDS.toIndex(x, y);
+    }
+
+    @Test
+    public void givenSameBounds_whenOf_thenGeometryIsShared() {
+        assertSame(GEOMETRY, BoardGeometry.of(new ChessBoardBounds(8, 8)));
+    }
+
+    @Test
+    public void givenCornerAndCenter_whenKnightTargets_thenOnlySquaresOnBoard() {
+        assertEquals(2, GEOMETRY.knightTargets(square(0, 0)).length);
+        assertEquals(8, GEOMETRY.knightTargets(square(4, 4)).length);
+        assertEquals(3, GEOMETRY.kingTargets(square(7, 7)).length);
+        assertEquals(1, GEOMETRY.pawnAttacks(square(0, 1), true).length);
+    }
+
+    @Test
+    public void givenDirection_whenRays_thenSquaresUpToEdgeNearestFirst() {
+        // When
+        int[] ray = GEOMETRY.rays(1, 1)[square(5, 4)];
+        // Then
+        assertArrayEquals(new int[]{square(6, 5), square(7, 6)}, ray);
+        assertEquals(0, GEOMETRY.rays(0, -1)[square(3, 0)].length);
+    }
+
+    @Test
+    public void givenAlignedAndUnalignedSquares_whenBetween_thenSquaresStrictlyBetween() {
+        // Then
+        assertArrayEquals(new int[]{square(5, 0), square(6, 0)}, GEOMETRY.between(square(4, 0), square(7, 0)));
+        assertEquals(0, GEOMETRY.between(square(0, 0), square(1, 2)).length);
+        assertEquals(1L << square(1, 1) | 1L << square(2, 2), GEOMETRY.betweenMask(square(0, 0), square(3, 3)));
+        assertEquals(7, GEOMETRY.distance(square(0, 0), square(7, 3)));
+    }
+
+    @Test
+    public void givenSquares_whenBetweenTwice_thenSharedTableIsReturned() {
+        // When
+        int[] between = GEOMETRY.between(square(0, 0), square(7, 7));
+        // Then
+        assertSame(between, GEOMETRY.between(square(0, 0), square(7, 7)));
+        assertEquals(6, between.length);
+        assertTrue(GEOMETRY.isBetween(square(0, 0), square(7, 7), square(3, 3)));
+        assertFalse(GEOMETRY.isBetween(square(0, 0), square(7, 7), square(7, 7)));
+    }
+
+    @Test
+    public void givenBoardWithoutBetweenMasks_whenIsBetween_thenBetweenSquaresAreFound() {
+        // Given
+        var bounds = new ChessBoardBounds(10, 10);
+        var geometry = BoardGeometry.of(bounds);
+        // Then
+        assertTrue(geometry.isBetween(bounds.toIndex(0, 9), bounds.toIndex(9, 0), bounds.toIndex(5, 4)));
+        assertFalse(geometry.isBetween(bounds.toIndex(0, 9), bounds.toIndex(9, 0), bounds.toIndex(5, 5)));
+    }
+
+    @Test
+    public void givenLargeBoard_whenGeometry_thenTablesCoverAllSquares() {
+        // Given
+        var bounds = new ChessBoardBounds(20, 20);
+        var geometry = BoardGeometry.of(bounds);
+        // When
+        int[] ray = geometry.rays(1, 0)[bounds.toIndex(0, 0)];
+        // Then
+        assertEquals(19, ray.length);
+        assertEquals(19, geometry.distance(bounds.toIndex(0, 0), bounds.toIndex(19, 19)));
+        assertTrue(Arrays.stream(geometry.knightTargets(bounds.toIndex(10, 10))).allMatch(s -> s < 400));
+        assertThrows(UnsupportedOperationException.class, () -> geometry.betweenMask(0, 2));
+    }
+}
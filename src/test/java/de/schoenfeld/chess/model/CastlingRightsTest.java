@@ -0,0 +1,46 @@
+package de.schoenfeld.chess.model;
+
+import de.schoenfeld.chess.board.BoardUtility;
+import de.schoenfeld.chess.move.Move;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CastlingRightsTest {
+    private static final ChessBoardBounds BOUNDS = new ChessBoardBounds(8, 8);
+
+    @Test
+    public void givenDefaultBoard_whenOf_thenAllRights() {
+        assertEquals(CastlingRights.ALL, CastlingRights.of(BoardUtility.getDefaultBoard()));
+    }
+
+    @Test
+    public void givenMissingRook_whenOf_thenOnlyRightsWithRook() {
+        // Given
+        var board = BoardUtility.fromFen("4k3/8/8/8/8/8/8/R3K3");
+        // When
+        int rights = CastlingRights.of(board);
+        // Then
+        assertEquals(CastlingRights.WHITE_QUEEN_SIDE, rights);
+    }
+
+    @Test
+    public void givenKingMove_whenAfter_thenBothRightsOfColourAreLost() {
+        // Given
+        Move move = Move.of(ChessPiece.of(PieceType.KING, true), Position.of(4, 0), Position.of(4, 1));
+        // When
+        int rights = CastlingRights.after(CastlingRights.ALL, move, BOUNDS);
+        // Then
+        assertEquals(CastlingRights.of(false), rights);
+    }
+
+    @Test
+    public void givenCaptureOnRookCorner_whenAfter_thenRightOfThatRookIsLost() {
+        // Given
+        Move move = Move.of(ChessPiece.of(PieceType.BISHOP, true), Position.of(1, 6), Position.of(7, 7));
+        // When
+        int rights = CastlingRights.after(CastlingRights.ALL, move, BOUNDS);
+        // Then
+        assertEquals(CastlingRights.ALL & ~CastlingRights.BLACK_KING_SIDE, rights);
+    }
+}
@@ -64,4 +64,18 @@ public class ChessBoardBoundsTest {
         Position outOfBoundsPosition = new Position(8, 7);
         Assertions.assertFalse(dimensions.contains(outOfBoundsPosition));
     }
+
+    @Test
+    public void givenEightByEightDimensionsAndCoordinates_whenContains_thenSameAsPosition() {
+        Assertions.assertTrue(dimensions.contains(7, 0));
+        Assertions.assertFalse(dimensions.contains(8, 0));
+        Assertions.assertFalse(dimensions.contains(0, -1));
+    }
+
+    @Test
+    public void givenRectangularDimensions_whenToIndexAndToPosition_thenRoundTrip() {
+        ChessBoardBounds bounds = new ChessBoardBounds(5, 7);
+        for (int i = 0; i < bounds.squareCount(); i++)
+            Assertions.assertEquals(i, bounds.toIndex(bounds.toPosition(i)));
+    }
 }
@@ -0,0 +1,58 @@
+package de.schoenfeld.chess.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChessPieceTest {
+
+    @Test
+    public void givenStandardTypes_whenOf_thenPiecesAreCanonicalAndDenselyIndexed() {
+        // When
+        ChessPiece whiteRook = ChessPiece.of(PieceType.ROOK, true);
+        ChessPiece blackKing = ChessPiece.of(PieceType.KING, false);
+        // Then
+        assertSame(whiteRook, ChessPiece.of(PieceType.ROOK, true));
+        assertEquals(6, whiteRook.index());
+        assertEquals(11, blackKing.index());
+        assertSame(blackKing, ChessPiece.ofIndex(11));
+        assertSame(whiteRook, whiteRook.withIsWhite(false).withIsWhite(true));
+    }
+
+    @Test
+    public void givenUnseenType_whenTypeIndex_thenNoIndexIsAssigned() {
+        // Given
+        PieceType type = new PieceType(2, "U");
+        // When
+        int index = ChessPiece.typeIndex(type);
+        // Then
+        assertEquals(-1, index);
+        assertEquals(-1, ChessPiece.typeIndex(type));
+        int assigned = ChessPiece.of(type, false).index() >> 1;
+        assertEquals(assigned, ChessPiece.typeIndex(type));
+        assertTrue(assigned >= 6);
+    }
+
+    @Test
+    public void givenSerializedPiece_whenDeserialized_thenCanonicalPieceIsReturned() throws Exception {
+        // Given
+        ChessPiece piece = ChessPiece.of(PieceType.QUEEN, false);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(piece);
+        }
+        // When
+        Object deserialized;
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            deserialized = input.readObject();
+        }
+        // Then
+        assertSame(piece, deserialized);
+        assertEquals(9, ((ChessPiece) deserialized).index());
+    }
+}
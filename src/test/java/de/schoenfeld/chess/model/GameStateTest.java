@@ -0,0 +1,160 @@
+package de.schoenfeld.chess.model;
+
+import de.schoenfeld.chess.board.ArrayChessBoard;
+import de.schoenfeld.chess.board.BitboardChessBoard;
+import de.schoenfeld.chess.board.BoardUtility;
+import de.schoenfeld.chess.board.ImmutableChessBoard;
+import de.schoenfeld.chess.move.Move;
+import de.schoenfeld.chess.rules.Rules;
+import de.schoenfeld.chess.rules.RulesTestFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameStateTest {
+    private static final List<String> FENS = List.of(
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R",
+            "r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R"
+    );
+    private static final Rules RULES = RulesTestFixtures.fullRules();
+
+    private static void assertSameState(GameState expected, GameState actual) {
+        assertEquals(BoardUtility.toFen(expected.chessBoard()), BoardUtility.toFen(actual.chessBoard()));
+        assertEquals(expected.isWhiteTurn(), actual.isWhiteTurn());
+        assertEquals(expected.castlingRights(), actual.castlingRights());
+        assertEquals(expected.moveHistory(), actual.moveHistory());
+        assertEquals(expected.zobristKey(), actual.zobristKey());
+    }
+
+    @Test
+    public void givenEveryLegalMove_whenUndo_thenPreviousStateIsRestored() {
+        List<Function<String, ImmutableChessBoard>> boards = List.of(
+                fen -> BoardUtility.fromFen(fen, BitboardChessBoard::new),
+                fen -> BoardUtility.fromFen(fen, ArrayChessBoard::new));
+        for (var board : boards) {
+            for (String fen : FENS) {
+                for (boolean isWhiteTurn : new boolean[]{true, false}) {
+                    GameState initial = new GameState(board.apply(fen), new MoveHistory(), isWhiteTurn);
+                    for (Move move : RULES.generateMoves(initial)) {
+                        // Given
+                        GameState played = move.executeOn(initial);
+                        // When
+                        GameState undone = played.undo();
+                        // Then
+                        assertSameState(initial, undone);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void givenEnPassantCapture_whenUndo_thenCapturedPawnIsRestored() {
+        // Given
+        GameState initial = new GameState(BoardUtility.fromFen("4k3/2p5/8/1P6/8/8/8/4K3", BitboardChessBoard::new), new MoveHistory(), false);
+        Position from = Position.of(2, 6);
+        GameState pushed = Move.of(initial.chessBoard().getPieceAt(from), from, Position.of(2, 4)).executeOn(initial);
+        Move enPassant = RULES.generateMoves(pushed).stream()
+                .filter(move -> move.to().equals(Position.of(2, 5)))
+                .findFirst().orElseThrow();
+        GameState captured = enPassant.executeOn(pushed);
+        // When
+        GameState undone = captured.undo();
+        // Then
+        assertNull(captured.chessBoard().getPieceAt(Position.of(2, 4)));
+        assertSameState(pushed, undone);
+        assertSameState(initial, undone.undo());
+    }
+
+    @Test
+    public void givenLongGame_whenAtPly_thenStateOfThatPlyIsRestored() {
+        // Given
+        List<GameState> states = new ArrayList<>();
+        GameState gameState = new GameState(BoardUtility.fromFen(FENS.get(0), BitboardChessBoard::new),
+                new MoveHistory(), true);
+        states.add(gameState);
+        for (int ply = 0; ply < 3 * MoveHistory.CHECKPOINT_INTERVAL + 5; ply++) {
+            List<Move> moves = new ArrayList<>(RULES.generateMoves(gameState));
+            if (moves.isEmpty()) break;
+            moves.sort(Comparator.comparing(Move::toString));
+            gameState = moves.get(ply * 7 % moves.size()).executeOn(gameState);
+            states.add(gameState);
+        }
+        for (int ply = 0; ply < states.size(); ply++) {
+            // When
+            GameState atPly = gameState.atPly(ply);
+            // Then
+            assertSameState(states.get(ply), atPly);
+        }
+    }
+
+    @Test
+    public void givenCheckpointPly_whenExecuteOn_thenOnlyImmutableBoardIsKept() {
+        // Given
+        GameState initial = new GameState(BoardUtility.getDefaultBoard(), new MoveHistory(), true);
+        Position from = Position.of(4, 1);
+        Move move = Move.of(initial.chessBoard().getPieceAt(from), from, Position.of(4, 3));
+        // When
+        GameState played = move.executeOn(initial);
+        GameState simulated = move.executeOn(new MutableGameState(initial).asGameState());
+        // Then
+        assertSame(initial.chessBoard(), played.moveHistory().getLastDelta().snapshot());
+        assertNull(simulated.moveHistory().getLastDelta().snapshot());
+    }
+
+    @Test
+    public void givenInvalidPly_whenAtPly_thenThrowException() {
+        GameState gameState = new GameState(BoardUtility.getDefaultBoard(), new MoveHistory(), true);
+        assertThrows(IndexOutOfBoundsException.class, () -> gameState.atPly(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> gameState.atPly(-1));
+    }
+
+    @Test
+    public void givenSerializedGame_whenDeserialized_thenMovesCanBeUndone() throws Exception {
+        // Given
+        GameState gameState = new GameState(BoardUtility.fromFen(FENS.get(0), BitboardChessBoard::new),
+                new MoveHistory(), true);
+        for (int ply = 0; ply < MoveHistory.CHECKPOINT_INTERVAL + 3; ply++)
+            gameState = RULES.generateMoves(gameState).iterator().next().executeOn(gameState);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(gameState);
+        }
+        // When
+        GameState deserialized;
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            deserialized = (GameState) input.readObject();
+        }
+        // Then
+        assertSameState(gameState.undo(), deserialized.undo());
+        assertSameState(gameState.atPly(1), deserialized.atPly(1));
+        assertEquals(gameState.repetitionCount(), deserialized.repetitionCount());
+    }
+
+    @Test
+    public void givenNoMoves_whenUndo_thenThrowException() {
+        GameState gameState = new GameState(BoardUtility.getDefaultBoard(), new MoveHistory(), true);
+        assertThrows(IllegalStateException.class, gameState::undo);
+    }
+
+    @Test
+    public void givenMoveRecordedWithoutDelta_whenUndo_thenThrowException() {
+        // Given
+        GameState initial = new GameState(BoardUtility.getDefaultBoard(), new MoveHistory(), true);
+        Position from = Position.of(4, 1);
+        Move move = Move.of(initial.chessBoard().getPieceAt(from), from, Position.of(4, 3));
+        // When
+        GameState gameState = initial.withMoveHistory(new MoveHistory(List.of(move)));
+        // Then
+        assertThrows(IllegalStateException.class, gameState::undo);
+    }
+}
@@ -4,6 +4,8 @@ import de.schoenfeld.chess.move.Move;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -50,4 +52,30 @@ public class MoveHistoryTest {
         assertEquals(1, reducedHistory.getMoveCount());
         assertEquals(move1, reducedHistory.getLastMove());
     }
+
+    @Test
+    public void givenRecordedMoves_whenGetAllMoves_thenMovesInPlayedOrder() {
+        // Given
+        Move move1 = Move.of(null, Position.of(0, 1), Position.of(0, 2));
+        Move move2 = Move.of(null, Position.of(0, 6), Position.of(0, 5));
+        // When
+        MoveHistory history = tested.withMoveRecorded(move1).withMoveRecorded(move2);
+        // Then
+        assertEquals(List.of(move1, move2), history.getAllMoves());
+        assertEquals(List.of(move1), history.withoutLastMove().getAllMoves());
+    }
+
+    @Test
+    public void givenHistoriesOfEqualMoves_whenCompared_thenEqual() {
+        // Given
+        Move move1 = Move.of(null, Position.of(0, 1), Position.of(0, 2));
+        Move move2 = Move.of(null, Position.of(0, 6), Position.of(0, 5));
+        MoveHistory recorded = tested.withMoveRecorded(move1).withMoveRecorded(move2);
+        // When
+        MoveHistory copied = new MoveHistory(List.of(move1, move2));
+        // Then
+        assertEquals(recorded, copied);
+        assertEquals(recorded.hashCode(), copied.hashCode());
+        assertNotEquals(recorded, copied.withoutLastMove());
+    }
 }
@@ -0,0 +1,77 @@
+package de.schoenfeld.chess.model;
+
+import de.schoenfeld.chess.board.BoardUtility;
+import de.schoenfeld.chess.move.Move;
+import de.schoenfeld.chess.move.components.PromotionComponent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MutableGameStateTest {
+    private GameState initial;
+    private MutableGameState tested;
+
+    @BeforeEach
+    public void setup() {
+        initial = new GameState(BoardUtility.getDefaultBoard(), new MoveHistory(), true);
+        tested = new MutableGameState(initial);
+    }
+
+    @Test
+    public void givenMove_whenMakeMove_thenSameResultAsExecuteOn() {
+        // Given
+        Position from = Position.of(4, 1);
+        Move move = Move.of(initial.chessBoard().getPieceAt(from), from, Position.of(4, 3));
+        GameState expected = move.executeOn(initial);
+        // When
+        tested.makeMove(move);
+        // Then
+        assertEquals(BoardUtility.toFen(expected.chessBoard()), tested.chessBoard().toFen());
+        assertEquals(expected.isWhiteTurn(), tested.isWhiteTurn());
+        assertEquals(1, tested.moveHistory().getMoveCount());
+        assertNull(tested.moveHistory().getLastDelta());
+    }
+
+    @Test
+    public void givenMadeMoves_whenUnmakeMove_thenInitialPositionIsRestored() {
+        // Given
+        Position whiteFrom = Position.of(6, 0);
+        Position blackFrom = Position.of(1, 7);
+        tested.makeMove(Move.of(initial.chessBoard().getPieceAt(whiteFrom), whiteFrom, Position.of(5, 2)));
+        tested.makeMove(Move.of(initial.chessBoard().getPieceAt(blackFrom), blackFrom, Position.of(2, 5)));
+        // When
+        tested.unmakeMove();
+        tested.unmakeMove();
+        // Then
+        assertEquals(BoardUtility.toFen(initial.chessBoard()), tested.chessBoard().toFen());
+        assertSame(initial.chessBoard().getPieceAt(whiteFrom), tested.chessBoard().getPieceAt(whiteFrom));
+        assertTrue(tested.isWhiteTurn());
+        assertEquals(0, tested.moveHistory().getMoveCount());
+        assertEquals(0, tested.getUndoDepth());
+    }
+
+    @Test
+    public void givenPromotion_whenMakeAndUnmakeMove_thenPawnIsRestored() {
+        // Given
+        initial = new GameState(BoardUtility.fromFen("8/P7/8/8/8/8/8/8"), new MoveHistory(), true);
+        tested = new MutableGameState(initial);
+        Position from = Position.of(0, 6);
+        Position to = Position.of(0, 7);
+        Move promotion = Move.of(initial.chessBoard().getPieceAt(from), from, to,
+                new PromotionComponent(PieceType.QUEEN));
+        // When
+        tested.makeMove(promotion);
+        ChessPiece promoted = tested.chessBoard().getPieceAt(to);
+        tested.unmakeMove();
+        // Then
+        assertEquals(PieceType.QUEEN, promoted.pieceType());
+        assertNull(tested.chessBoard().getPieceAt(to));
+        assertEquals(PieceType.PAWN, tested.chessBoard().getPieceAt(from).pieceType());
+    }
+
+    @Test
+    public void givenNoMoves_whenUnmakeMove_thenThrowException() {
+        assertThrows(IllegalStateException.class, () -> tested.unmakeMove());
+    }
+}
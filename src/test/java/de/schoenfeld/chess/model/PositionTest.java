@@ -35,4 +35,15 @@ public class PositionTest {
                         () -> startPosition.offset(null));
         Assertions.assertEquals("position must not be null", exception.getMessage());
     }
+
+    @Test
+    public void givenSmallCoordinates_whenOf_thenSameInstance() {
+        Assertions.assertSame(Position.of(3, 5), Position.of(3, 5));
+        Assertions.assertSame(Position.of(3, 5), startPosition.offset(3, 5));
+    }
+
+    @Test
+    public void givenNegativeCoordinates_whenOf_thenEqualPosition() {
+        Assertions.assertEquals(new Position(-1, 2), Position.of(-1, 2));
+    }
 }
@@ -0,0 +1,62 @@
+package de.schoenfeld.chess.move;
+
+import de.schoenfeld.chess.model.ChessBoardBounds;
+import de.schoenfeld.chess.model.ChessPiece;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveCollectionTest {
+    private static final ChessPiece ROOK = ChessPiece.of(PieceType.ROOK, true);
+    private static final ChessPiece KNIGHT = ChessPiece.of(PieceType.KNIGHT, true);
+
+    @Test
+    public void givenMovesToSameSquare_whenGetMovesTo_thenAllMovesAreReturned() {
+        // Given
+        var moves = new MoveCollection(new ChessBoardBounds(8, 8));
+        Move rookMove = Move.of(ROOK, Position.of(0, 0), Position.of(2, 0));
+        Move knightMove = Move.of(KNIGHT, Position.of(1, 2), Position.of(2, 0));
+        // When
+        moves.add(rookMove);
+        moves.add(knightMove);
+        // Then
+        assertEquals(2, moves.getMovesTo(Position.of(2, 0)).size());
+        assertEquals(1, moves.getMovesFrom(Position.of(1, 2)).size());
+        assertEquals(1, moves.getMovesForPiece(KNIGHT).size());
+        assertTrue(moves.getMovesTo(Position.of(3, 3)).isEmpty());
+    }
+
+    @Test
+    public void givenRemovalThroughIterator_whenContainsMoveTo_thenOnlyRemainingMovesAreIndexed() {
+        // Given
+        var moves = new MoveCollection();
+        Move rookMove = Move.of(ROOK, Position.of(0, 0), Position.of(2, 0));
+        Move knightMove = Move.of(KNIGHT, Position.of(1, 2), Position.of(2, 0));
+        moves.add(rookMove);
+        moves.add(knightMove);
+        // When
+        Iterator<Move> iterator = moves.iterator();
+        while (iterator.hasNext())
+            if (iterator.next().equals(rookMove)) iterator.remove();
+        // Then
+        assertTrue(moves.containsMoveTo(Position.of(2, 0)));
+        assertFalse(moves.containsMoveFrom(Position.of(0, 0)));
+        assertEquals(knightMove, moves.getMoveTo(Position.of(2, 0)));
+    }
+
+    @Test
+    public void givenMoveOutsideBounds_whenAdd_thenIndexGrows() {
+        // Given
+        var moves = new MoveCollection(new ChessBoardBounds(8, 8));
+        moves.add(Move.of(ROOK, Position.of(0, 0), Position.of(0, 5)));
+        // When
+        moves.add(Move.of(ROOK, Position.of(9, 11), Position.of(9, 3)));
+        // Then
+        assertEquals(1, moves.getMovesFrom(Position.of(9, 11)).size());
+        assertEquals(1, moves.getMovesTo(Position.of(0, 5)).size());
+    }
+}
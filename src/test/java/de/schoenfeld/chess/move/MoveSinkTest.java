@@ -0,0 +1,58 @@
+package de.schoenfeld.chess.move;
+
+import de.schoenfeld.chess.board.BoardUtility;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.MoveHistory;
+import de.schoenfeld.chess.rules.Rules;
+import de.schoenfeld.chess.rules.generative.CastlingRule;
+import de.schoenfeld.chess.rules.generative.GenerativeMoveRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveSinkTest {
+    private static final String FEN = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R";
+
+    private static List<GenerativeMoveRule> rules() {
+        List<GenerativeMoveRule> rules = new ArrayList<>(Rules.DEFAULT.generativeMoveRules());
+        rules.add(new CastlingRule());
+        return rules;
+    }
+
+    @Test
+    public void givenCallbackSink_whenGenerateMoves_thenSinkReceivesAllMoves() {
+        // Given
+        var gameState = new GameState(BoardUtility.fromFen(FEN), new MoveHistory(), true);
+        for (GenerativeMoveRule rule : rules()) {
+            List<Move> received = new ArrayList<>();
+            // When
+            rule.generateMoves(gameState, received::add);
+            // Then
+            assertEquals(rule.generateMoves(gameState), new HashSet<>(received));
+            assertEquals(received.size(), new HashSet<>(received).size());
+        }
+    }
+
+    @Test
+    public void givenReusedIntMoveList_whenGenerateMovesOfTwoPositions_thenListHoldsOnlyTheLastPosition() {
+        // Given
+        var board = BoardUtility.fromFen(FEN);
+        var white = new GameState(board, new MoveHistory(), true);
+        var black = white.withIsWhiteTurn(false);
+        IntMoveList list = new IntMoveList();
+        MoveSink sink = list.sink(board.getBounds());
+        for (GenerativeMoveRule rule : rules()) rule.generateMoves(white, sink);
+        // When
+        list.clear();
+        for (GenerativeMoveRule rule : rules()) rule.generateMoves(black, sink);
+        // Then
+        MoveCollection expected = new MoveCollection(board.getBounds());
+        for (GenerativeMoveRule rule : rules()) rule.generateMoves(black, expected);
+        assertEquals(expected.size(), list.size());
+        assertEquals(expected, list.toMoveCollection(board));
+    }
+}
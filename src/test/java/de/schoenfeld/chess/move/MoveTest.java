@@ -0,0 +1,68 @@
+package de.schoenfeld.chess.move;
+
+import de.schoenfeld.chess.board.ImmutableChessBoard;
+import de.schoenfeld.chess.model.ChessPiece;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.components.CaptureComponent;
+import de.schoenfeld.chess.move.components.CastlingComponent;
+import de.schoenfeld.chess.move.components.MoveComponent;
+import de.schoenfeld.chess.move.components.PromotionComponent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveTest {
+    private static final ChessPiece PAWN = ChessPiece.of(PieceType.PAWN, true);
+
+    private interface MarkerComponent extends MoveComponent {
+    }
+
+    private record CustomComponent() implements MarkerComponent {
+        @Override
+        public ImmutableChessBoard executeOn(GameState gameState, Move move) {
+            return gameState.chessBoard();
+        }
+    }
+
+    @Test
+    public void givenBuiltInComponents_whenQueried_thenFlagsAndFieldsMatch() {
+        // Given
+        var capture = new CaptureComponent(ChessPiece.of(PieceType.ROOK, false));
+        var promotion = new PromotionComponent(PieceType.QUEEN);
+        // When
+        Move move = Move.of(PAWN, Position.of(0, 6), Position.of(1, 7), capture, promotion);
+        // Then
+        assertTrue(move.isCapture());
+        assertTrue(move.isPromotion());
+        assertFalse(move.isCastling());
+        assertSame(capture, move.capture());
+        assertSame(promotion, move.getComponent(PromotionComponent.class));
+        assertNull(move.castling());
+        assertFalse(move.hasComponent(CastlingComponent.class));
+    }
+
+    @Test
+    public void givenCustomComponent_whenHasComponent_thenMatchesClassAndSupertype() {
+        // When
+        Move move = Move.of(PAWN, Position.of(0, 1), Position.of(0, 2), new CustomComponent());
+        // Then
+        assertTrue(move.hasComponent(CustomComponent.class));
+        assertTrue(move.hasComponent(MarkerComponent.class));
+        assertFalse(move.hasComponent(CaptureComponent.class));
+        assertInstanceOf(CustomComponent.class, move.getComponent(MarkerComponent.class));
+    }
+
+    @Test
+    public void givenMoveWithComponents_whenWithoutComponent_thenOnlyThatComponentIsRemoved() {
+        // Given
+        Move move = Move.of(PAWN, Position.of(0, 6), Position.of(0, 7),
+                new PromotionComponent(PieceType.QUEEN), new CustomComponent());
+        // When
+        Move result = move.withoutComponent(PromotionComponent.class);
+        // Then
+        assertFalse(result.isPromotion());
+        assertTrue(result.hasComponent(CustomComponent.class));
+    }
+}
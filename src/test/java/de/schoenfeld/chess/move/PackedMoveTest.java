@@ -0,0 +1,82 @@
+package de.schoenfeld.chess.move;
+
+import de.schoenfeld.chess.board.BoardUtility;
+import de.schoenfeld.chess.board.ImmutableChessBoard;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.MoveHistory;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.rules.generative.CastlingRule;
+import de.schoenfeld.chess.rules.generative.EnPassantRule;
+import de.schoenfeld.chess.rules.generative.PawnMoveRule;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedMoveTest {
+
+    private static void assertRoundTrip(MoveCollection moves, ImmutableChessBoard board) {
+        assertFalse(moves.isEmpty());
+        for (Move move : moves)
+            assertEquals(move, PackedMove.toMove(PackedMove.of(move, board.getBounds()), board));
+    }
+
+    @Test
+    public void givenPawnMovesWithCapturesAndPromotions_whenPackedAndRestored_thenMovesAreEqual() {
+        // Given
+        var board = BoardUtility.fromFen("1r2k3/P7/8/8/8/8/8/4K3");
+        var gameState = new GameState(board, new MoveHistory(), true);
+        // When
+        var moves = new PawnMoveRule().generateMoves(gameState);
+        // Then
+        assertEquals(8, moves.size());
+        assertRoundTrip(moves, board);
+    }
+
+    @Test
+    public void givenCastlingMoves_whenPackedAndRestored_thenMovesAreEqual() {
+        // Given
+        var board = BoardUtility.fromFen("4k3/8/8/8/8/8/8/R3K2R");
+        var gameState = new GameState(board, new MoveHistory(), true);
+        // When
+        var moves = new CastlingRule().generateMoves(gameState);
+        // Then
+        assertEquals(2, moves.size());
+        assertTrue(moves.stream().allMatch(move -> PackedMove.isCastling(PackedMove.of(move, board.getBounds()))));
+        assertRoundTrip(moves, board);
+    }
+
+    @Test
+    public void givenEnPassantCapture_whenPackedAndRestored_thenMoveIsEqualAndRemovesPawn() {
+        // Given
+        var board = BoardUtility.fromFen("4k3/8/8/8/3p4/8/4P3/4K3");
+        var gameState = new GameState(board, new MoveHistory(), true);
+        Position from = Position.of(4, 1), to = Position.of(4, 3);
+        gameState = Move.of(board.getPieceAt(from), from, to).executeOn(gameState);
+        // When
+        var moves = new EnPassantRule().generateMoves(gameState);
+        // Then
+        assertEquals(1, moves.size());
+        Move move = moves.iterator().next();
+        int packed = PackedMove.of(move, board.getBounds());
+        assertTrue(PackedMove.isEnPassant(packed));
+        assertTrue(PackedMove.isCapture(packed));
+        assertEquals(move, PackedMove.toMove(packed, gameState.chessBoard()));
+
+        var after = move.executeOn(gameState).chessBoard();
+        assertNull(after.getPieceAt(to));
+        assertEquals(PieceType.PAWN, after.getPieceAt(Position.of(4, 2)).pieceType());
+    }
+
+    @Test
+    public void givenMoreMovesThanCapacity_whenAdd_thenListGrowsAndKeepsOrder() {
+        // Given
+        var list = new IntMoveList(1);
+        // When
+        for (int i = 0; i < 100; i++) list.add(PackedMove.of(i, i + 1, 0));
+        // Then
+        assertEquals(100, list.size());
+        assertEquals(42, PackedMove.from(list.get(42)));
+        assertEquals(43, PackedMove.to(list.get(42)));
+    }
+}
@@ -0,0 +1,87 @@
+package de.schoenfeld.chess.rules;
+
+import de.schoenfeld.chess.board.BitboardChessBoard;
+import de.schoenfeld.chess.board.MapChessBoard;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.MoveSink;
+import de.schoenfeld.chess.rules.generative.sliding.SlidingPieceMoveRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static de.schoenfeld.chess.rules.RulesTestFixtures.state;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AttackDetectorTest {
+    private static final String FEN = "4k3/8/8/3r4/8/1n6/2P5/R2QK3";
+
+    @Test
+    public void givenBlockedAndOpenRays_whenIsSquareAttacked_thenOnlyOpenRaysAttack() {
+        // Given
+        GameState gameState = state(FEN);
+        // Then
+        assertTrue(Rules.DEFAULT.isSquareAttacked(gameState, Position.of(3, 4), true)); // queen up the file
+        assertFalse(Rules.DEFAULT.isSquareAttacked(gameState, Position.of(3, 5), true)); // blocked by the rook
+        assertTrue(Rules.DEFAULT.isSquareAttacked(gameState, Position.of(3, 0), false)); // rook down the file
+    }
+
+    @Test
+    public void givenPawn_whenIsSquareAttacked_thenOnlyDiagonalSquaresAreAttacked() {
+        // Given
+        GameState gameState = state(FEN);
+        // Then
+        assertTrue(Rules.DEFAULT.isSquareAttacked(gameState, Position.of(1, 2), true));
+        assertFalse(Rules.DEFAULT.isSquareAttacked(gameState, Position.of(2, 2), true));
+    }
+
+    @Test
+    public void givenSeveralAttackers_whenAttackersOf_thenAllAreReturned() {
+        // Given
+        GameState gameState = state(FEN);
+        // When
+        List<Position> attackers = Rules.DEFAULT.attackersOf(gameState, Position.of(3, 1), true);
+        // Then
+        assertEquals(Set.of(Position.of(3, 0), Position.of(4, 0)), new HashSet<>(attackers));
+        assertEquals(Set.of(Position.of(1, 2), Position.of(3, 4)),
+                new HashSet<>(Rules.DEFAULT.attackersOf(gameState, Position.of(3, 1), false)));
+    }
+
+    @Test
+    public void givenBitboardAndMapBoard_whenAttackersOf_thenAttackersAreEqual() {
+        // Given
+        var bitboard = state(FEN, true, BitboardChessBoard::new);
+        var map = state(FEN, true, MapChessBoard::new);
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                Position square = Position.of(x, y);
+                // When
+                var bitboardAttackers = new HashSet<>(Rules.DEFAULT.attackersOf(bitboard, square, true));
+                var mapAttackers = new HashSet<>(Rules.DEFAULT.attackersOf(map, square, true));
+                // Then
+                assertEquals(mapAttackers, bitboardAttackers, square.toString());
+            }
+        }
+    }
+
+    @Test
+    public void givenSlidingRuleWithoutPieceType_whenAttackersOf_thenDefendedPiecesAreAttacked() {
+        // Given
+        var rule = new SlidingPieceMoveRule(SlidingPieceMoveRule.STRAIGHT_DIRECTIONS) {
+            @Override
+            public void generateMoves(GameState gameState, MoveSink sink) {
+                for (var position : gameState.chessBoard().getPiecePositions(PieceType.ROOK, gameState.isWhiteTurn()))
+                    generateMoves(gameState, position, sink);
+            }
+        };
+        GameState gameState = state("4k3/8/8/8/3N4/8/8/R2QK3");
+        // When
+        List<Position> attackers = rule.attackersOf(gameState, Position.of(3, 0), true);
+        // Then
+        assertEquals(List.of(Position.of(0, 0)), attackers); // the knight up the file is not moved by the rule
+        assertTrue(rule.attackersOf(gameState, Position.of(4, 0), true).isEmpty()); // blocked by the queen
+    }
+}
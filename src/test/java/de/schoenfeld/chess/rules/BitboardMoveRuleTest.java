@@ -0,0 +1,130 @@
+package de.schoenfeld.chess.rules;
+
+import de.schoenfeld.chess.board.ArrayChessBoard;
+import de.schoenfeld.chess.board.BitboardChessBoard;
+import de.schoenfeld.chess.board.BoardUtility;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.MoveHistory;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.GenerationMode;
+import de.schoenfeld.chess.move.Move;
+import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.rules.generative.BitboardKingMoveRule;
+import de.schoenfeld.chess.rules.generative.BitboardKnightMoveRule;
+import de.schoenfeld.chess.rules.generative.BitboardPawnMoveRule;
+import de.schoenfeld.chess.rules.generative.CheckEvasions;
+import de.schoenfeld.chess.rules.generative.GenerativeMoveRule;
+import de.schoenfeld.chess.rules.generative.KingMoveRule;
+import de.schoenfeld.chess.rules.generative.KnightMoveRule;
+import de.schoenfeld.chess.rules.generative.PawnMoveRule;
+import de.schoenfeld.chess.rules.generative.PieceMoveRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static de.schoenfeld.chess.rules.RulesTestFixtures.state;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitboardMoveRuleTest {
+    private static final List<String> FENS = List.of(
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R",
+            "r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R",
+            "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N"
+    );
+    private static final List<PieceMoveRule> GENERIC_RULES = List.of(
+            new PawnMoveRule(), new KnightMoveRule(), new KingMoveRule());
+    private static final List<PieceMoveRule> BITBOARD_RULES = List.of(
+            new BitboardPawnMoveRule(), new BitboardKnightMoveRule(), new BitboardKingMoveRule());
+
+    private static MoveCollection moves(GenerativeMoveRule rule, GameState gameState, GenerationMode mode) {
+        MoveCollection moves = new MoveCollection(gameState.chessBoard().getBounds());
+        rule.generateMoves(gameState, mode, moves);
+        return moves;
+    }
+
+    @Test
+    public void givenBitboard_whenGenerateMoves_thenMovesEqualGenericRules() {
+        for (int i = 0; i < GENERIC_RULES.size(); i++) {
+            for (String fen : FENS) {
+                for (boolean isWhiteTurn : new boolean[]{true, false}) {
+                    for (GenerationMode mode : GenerationMode.values()) {
+                        // Given
+                        GameState gameState = state(fen, isWhiteTurn, BitboardChessBoard::new);
+                        // When
+                        MoveCollection moves = moves(BITBOARD_RULES.get(i), gameState, mode);
+                        // Then
+                        assertEquals(moves(GENERIC_RULES.get(i), gameState, mode), moves, fen + " " + mode);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void givenBitboard_whenGenerateMovesOfOnePiece_thenOnlyMovesOfThatPiece() {
+        // Given
+        GameState gameState = state(FENS.get(2), true, BitboardChessBoard::new);
+        Position from = Position.of(1, 6);
+        // When
+        MoveCollection moves = new MoveCollection(gameState.chessBoard().getBounds());
+        BITBOARD_RULES.get(0).generateMoves(gameState, from, GenerationMode.ALL, moves);
+        // Then
+        assertEquals(8, moves.size());
+        for (Move move : moves) assertEquals(from, move.from());
+    }
+
+    @Test
+    public void givenCheck_whenGenerateEvasionsOfOnePiece_thenOnlyEvasions() {
+        // Given
+        GameState gameState = state("7k/8/8/b7/8/8/2P5/1N2K3", true, BitboardChessBoard::new);
+        CheckEvasions evasions = CheckEvasions.of(gameState);
+        for (PieceMoveRule rule : List.of(GENERIC_RULES.get(0), BITBOARD_RULES.get(0),
+                GENERIC_RULES.get(1), BITBOARD_RULES.get(1))) {
+            Position from = rule.pieceType().equals(PieceType.PAWN) ? Position.of(2, 1) : Position.of(1, 0);
+            // When
+            MoveCollection moves = new MoveCollection(gameState.chessBoard().getBounds());
+            rule.generateMoves(gameState, from, GenerationMode.EVASIONS, moves);
+            // Then
+            MoveCollection expected = new MoveCollection(gameState.chessBoard().getBounds());
+            rule.generateMoves(gameState, from, GenerationMode.ALL, expected);
+            expected.removeIf(move -> !evasions.allows(move));
+            assertFalse(moves.isEmpty());
+            assertEquals(expected, moves);
+        }
+    }
+
+    @Test
+    public void givenBitboard_whenAttackersOf_thenAttackersEqualGenericRules() {
+        GameState gameState = state(FENS.get(1), true, BitboardChessBoard::new);
+        for (int i = 0; i < GENERIC_RULES.size(); i++) {
+            for (int square = 0; square < 64; square++) {
+                for (boolean byWhite : new boolean[]{true, false}) {
+                    // Given
+                    Position position = Position.of(square & 7, square >>> 3);
+                    // When
+                    var attackers = BITBOARD_RULES.get(i).attackersOf(gameState, position, byWhite);
+                    // Then
+                    var expected = GENERIC_RULES.get(i).attackersOf(gameState, position, byWhite);
+                    assertEquals(expected.size(), attackers.size());
+                    assertTrue(attackers.containsAll(expected));
+                    assertEquals(!expected.isEmpty(), BITBOARD_RULES.get(i).isAttacking(gameState, position, byWhite));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void givenOtherBoard_whenGenerateMoves_thenGenericRulesAreUsed() {
+        // Given
+        String fen = FENS.get(1);
+        GameState gameState = new GameState(BoardUtility.fromFen(fen, ArrayChessBoard::new), new MoveHistory(), true);
+        for (int i = 0; i < GENERIC_RULES.size(); i++) {
+            // When
+            MoveCollection moves = BITBOARD_RULES.get(i).generateMoves(gameState);
+            // Then
+            assertEquals(GENERIC_RULES.get(i).generateMoves(gameState), moves);
+        }
+    }
+}
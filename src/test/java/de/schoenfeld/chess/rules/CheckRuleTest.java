@@ -1,4 +1,42 @@
 package de.schoenfeld.chess.rules;
 
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.rules.restrictive.CheckRule;
+import org.junit.jupiter.api.Test;
+
+import static de.schoenfeld.chess.rules.RulesTestFixtures.state;
+import static org.junit.jupiter.api.Assertions.*;
+
 public class CheckRuleTest {
+    private static final String PINNED_ROOK = "k3r3/8/8/8/8/8/4R3/4K3";
+
+    @Test
+    public void givenPinnedRook_whenFilterMoves_thenOnlyMovesAlongThePinRemain() {
+        // Given
+        GameState gameState = state(PINNED_ROOK);
+        var generator = new SimpleMoveGenerator(Rules.DEFAULT.generativeMoveRules());
+        MoveCollection moves = generator.generateMoves(gameState);
+        // When
+        new CheckRule(generator).filterMoves(moves, gameState);
+        // Then
+        assertFalse(moves.getMovesFrom(Position.of(4, 1)).isEmpty());
+        assertTrue(moves.getMovesFrom(Position.of(4, 1)).stream().allMatch(move -> move.to().x() == 4));
+    }
+
+    @Test
+    public void givenAttackDetector_whenOf_thenMovesAreFilteredAsByGenerator() {
+        // Given
+        GameState gameState = state(PINNED_ROOK);
+        var generator = new SimpleMoveGenerator(Rules.DEFAULT.generativeMoveRules());
+        MoveCollection expected = generator.generateMoves(gameState);
+        MoveCollection actual = generator.generateMoves(gameState);
+        new CheckRule(generator).filterMoves(expected, gameState);
+        // When
+        CheckRule.of(Rules.DEFAULT).filterMoves(actual, gameState);
+        // Then
+        assertEquals(expected.size(), actual.size());
+        assertTrue(actual.containsAll(expected));
+    }
 }
@@ -0,0 +1,76 @@
+package de.schoenfeld.chess.rules;
+
+import de.schoenfeld.chess.board.BoardUtility;
+import de.schoenfeld.chess.events.GameConclusion;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.MoveHistory;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.Move;
+import de.schoenfeld.chess.rules.gameend.FiftyMoveRule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FiftyMoveRuleTest {
+    private FiftyMoveRule tested;
+    private GameState initial;
+
+    private static GameState move(GameState gameState, Position from, Position to) {
+        return Move.of(gameState.chessBoard().getPieceAt(from), from, to).executeOn(gameState);
+    }
+
+    /**
+     * Moves both kings back and forth for the given number of moves.
+     */
+    private static GameState shuffleKings(GameState gameState, int moves) {
+        for (int i = 0; i < moves; i++) {
+            int y = gameState.isWhiteTurn() ? 0 : 7;
+            int x = gameState.chessBoard().getPieceAt(Position.of(4, y)) != null ? 4 : 3;
+            gameState = move(gameState, Position.of(x, y), Position.of(7 - x, y));
+        }
+        return gameState;
+    }
+
+    @BeforeEach
+    public void setup() {
+        tested = new FiftyMoveRule();
+        initial = new GameState(BoardUtility.fromFen("4k3/4p3/8/8/8/8/4P3/4K3"), new MoveHistory(), true);
+    }
+
+    @Test
+    public void givenFewerThanHundredReversibleMoves_whenDetectGameEndCause_thenGameGoesOn() {
+        // Given
+        GameState gameState = shuffleKings(initial, 99);
+        // When
+        Optional<GameConclusion> conclusion = tested.detectGameEndCause(gameState);
+        // Then
+        assertEquals(99, gameState.halfmoveClock());
+        assertTrue(conclusion.isEmpty());
+    }
+
+    @Test
+    public void givenHundredReversibleMoves_whenDetectGameEndCause_thenDraw() {
+        // Given
+        GameState gameState = shuffleKings(initial, 100);
+        // When
+        Optional<GameConclusion> conclusion = tested.detectGameEndCause(gameState);
+        // Then
+        assertTrue(conclusion.isPresent());
+        assertTrue(conclusion.get().isDraw());
+    }
+
+    @Test
+    public void givenPawnMove_whenHalfmoveClock_thenClockIsReset() {
+        // Given
+        GameState gameState = shuffleKings(initial, 60);
+        // When
+        gameState = move(gameState, Position.of(4, 1), Position.of(4, 3));
+        // Then
+        assertEquals(0, gameState.halfmoveClock());
+        assertTrue(tested.detectGameEndCause(shuffleKings(gameState, 99)).isEmpty());
+        assertEquals(60, gameState.undo().halfmoveClock());
+    }
+}
@@ -0,0 +1,68 @@
+package de.schoenfeld.chess.rules;
+
+import de.schoenfeld.chess.board.ArrayChessBoard;
+import de.schoenfeld.chess.board.BitboardChessBoard;
+import de.schoenfeld.chess.board.BoardUtility;
+import de.schoenfeld.chess.board.MapChessBoard;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.MoveHistory;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.move.Move;
+import de.schoenfeld.chess.rules.generative.CastlingRule;
+import de.schoenfeld.chess.rules.generative.FusedMoveRule;
+import de.schoenfeld.chess.rules.generative.KnightMoveRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FusedMoveRuleTest {
+    private static final List<String> FENS = List.of(
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8"
+    );
+
+    @Test
+    public void givenDefaultRules_whenCompile_thenMovesAreEqual() {
+        // Given
+        Rules compiled = Rules.DEFAULT.compile();
+        for (String fen : FENS) {
+            for (var board : List.of(BoardUtility.fromFen(fen, MapChessBoard::new),
+                    BoardUtility.fromFen(fen, BitboardChessBoard::new),
+                    BoardUtility.fromFen(fen, ArrayChessBoard::new))) {
+                GameState gameState = new GameState(board, new MoveHistory(), true);
+                // When
+                var moves = compiled.generateMoves(gameState);
+                // Then
+                assertEquals(Rules.DEFAULT.generateMoves(gameState), moves, fen);
+            }
+        }
+    }
+
+    @Test
+    public void givenRulesWithCastling_whenCompile_thenPieceRulesAreFusedAndOthersKept() {
+        // Given
+        Rules rules = RulesTestFixtures.rulesWithCastling();
+        // When
+        Rules compiled = rules.compile().compile();
+        // Then
+        assertEquals(2, compiled.generativeMoveRules().size());
+        var fused = assertInstanceOf(FusedMoveRule.class, compiled.generativeMoveRules().get(0));
+        assertEquals(6, fused.rules().size());
+        assertInstanceOf(CastlingRule.class, compiled.generativeMoveRules().get(1));
+    }
+
+    @Test
+    public void givenCustomRuleList_whenCompile_thenOnlyConfiguredPiecesMove() {
+        // Given
+        Rules rules = Rules.DEFAULT.withoutGenerativeMoveRule(KnightMoveRule.class).compile();
+        GameState gameState = new GameState(BoardUtility.fromFen(FENS.get(0)), new MoveHistory(), true);
+        // When
+        var moves = rules.generateMoves(gameState);
+        // Then
+        assertEquals(16, moves.size());
+        for (Move move : moves) assertEquals(PieceType.PAWN, move.movedPiece().pieceType());
+    }
+}
@@ -0,0 +1,96 @@
+package de.schoenfeld.chess.rules;
+
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.GenerationMode;
+import de.schoenfeld.chess.move.Move;
+import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.move.components.EnPassantComponent;
+import de.schoenfeld.chess.rules.generative.GenerativeMoveRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static de.schoenfeld.chess.rules.RulesTestFixtures.fullRules;
+import static de.schoenfeld.chess.rules.RulesTestFixtures.state;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GenerationModeTest {
+    private static final List<String> FENS = List.of(
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R",
+            "r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8"
+    );
+
+    private static Set<Move> pseudoLegalMoves(Rules rules, GameState gameState, GenerationMode mode) {
+        MoveCollection moves = new MoveCollection(gameState.chessBoard().getBounds());
+        for (GenerativeMoveRule rule : rules.generativeMoveRules()) rule.generateMoves(gameState, mode, moves);
+        return new HashSet<>(moves);
+    }
+
+    @Test
+    public void givenPositions_whenGeneratingCapturesAndQuiets_thenTheyPartitionAllMoves() {
+        for (Rules rules : List.of(fullRules(), fullRules().compile())) {
+            for (String fen : FENS) {
+                for (boolean isWhiteTurn : new boolean[]{true, false}) {
+                    // Given
+                    GameState gameState = state(fen, isWhiteTurn);
+                    // When
+                    Set<Move> captures = pseudoLegalMoves(rules, gameState, GenerationMode.CAPTURES);
+                    Set<Move> quiets = pseudoLegalMoves(rules, gameState, GenerationMode.QUIETS);
+                    // Then
+                    for (Move move : captures) assertTrue(move.isCapture() || move.isPromotion());
+                    for (Move move : quiets) assertFalse(move.isCapture() || move.isPromotion());
+                    Set<Move> union = new HashSet<>(captures);
+                    union.addAll(quiets);
+                    assertEquals(pseudoLegalMoves(rules, gameState, GenerationMode.ALL), union);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void givenCheck_whenGeneratingEvasions_thenLegalMovesEqualAllLegalMoves() {
+        // Given
+        List<GameState> checks = List.of(
+                state("4r2k/8/8/8/8/8/R7/4K3", true),
+                state("4r2k/8/8/8/8/3n4/8/R3K3", true),
+                state("r3k2r/8/8/1B6/8/8/8/4K3", false)
+        );
+        for (Rules rules : List.of(fullRules(), fullRules().compile())) {
+            for (GameState gameState : checks) {
+                // When
+                MoveCollection evasions = rules.generateMoves(gameState, GenerationMode.EVASIONS);
+                // Then
+                assertEquals(rules.generateMoves(gameState), evasions);
+            }
+        }
+    }
+
+    @Test
+    public void givenDoubleCheck_whenGeneratingEvasions_thenOnlyKingMoves() {
+        // Given
+        GameState gameState = state("4r2k/8/8/8/8/3n4/8/R3K3", true);
+        // When
+        Set<Move> evasions = pseudoLegalMoves(fullRules().compile(), gameState, GenerationMode.EVASIONS);
+        // Then
+        assertFalse(evasions.isEmpty());
+        for (Move move : evasions) assertEquals(PieceType.KING, move.movedPiece().pieceType());
+    }
+
+    @Test
+    public void givenCheckByDoubleSteppedPawn_whenGeneratingEvasions_thenEnPassantCaptureIsIncluded() {
+        // Given
+        GameState beforeDoubleStep = state("7k/3p4/8/4P3/4K3/8/8/8", false);
+        var pawn = beforeDoubleStep.chessBoard().getPieceAt(Position.of(3, 6));
+        GameState gameState = Move.of(pawn, Position.of(3, 6), Position.of(3, 4)).executeOn(beforeDoubleStep);
+        // When
+        MoveCollection evasions = fullRules().generateMoves(gameState, GenerationMode.EVASIONS);
+        // Then
+        assertTrue(evasions.stream().anyMatch(move -> move.hasComponent(EnPassantComponent.class)));
+        assertEquals(fullRules().generateMoves(gameState), evasions);
+    }
+}
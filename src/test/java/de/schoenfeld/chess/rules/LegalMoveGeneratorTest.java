@@ -0,0 +1,127 @@
+package de.schoenfeld.chess.rules;
+
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.Move;
+import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.rules.generative.CastlingRule;
+import de.schoenfeld.chess.rules.generative.EnPassantRule;
+import de.schoenfeld.chess.rules.generative.GenerativeMoveRule;
+import de.schoenfeld.chess.rules.generative.KingMoveRule;
+import de.schoenfeld.chess.rules.generative.KnightMoveRule;
+import de.schoenfeld.chess.rules.generative.PawnMoveRule;
+import de.schoenfeld.chess.rules.generative.sliding.BishopMoveRule;
+import de.schoenfeld.chess.rules.generative.sliding.QueenMoveRule;
+import de.schoenfeld.chess.rules.generative.sliding.RookMoveRule;
+import de.schoenfeld.chess.rules.restrictive.FriendlyFireRule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static de.schoenfeld.chess.rules.RulesTestFixtures.state;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LegalMoveGeneratorTest {
+    private LegalMoveGenerator tested;
+
+    @BeforeEach
+    public void setup() {
+        List<GenerativeMoveRule> generativeMoveRules = List.of(
+                new PawnMoveRule(),
+                new KnightMoveRule(),
+                new BishopMoveRule(),
+                new RookMoveRule(),
+                new QueenMoveRule(),
+                new KingMoveRule(),
+                new CastlingRule(),
+                new EnPassantRule()
+        );
+        tested = new LegalMoveGenerator(generativeMoveRules);
+    }
+
+    private MoveCollection legalMoves(GameState gameState) {
+        MoveCollection moves = tested.generateMoves(gameState);
+        new FriendlyFireRule().filterMoves(moves, gameState);
+        return moves;
+    }
+
+    @Test
+    public void givenPinnedRook_whenGenerateMoves_thenRookOnlyMovesAlongPin() {
+        // Given
+        GameState gameState = state("4r2k/8/8/8/8/8/4R3/4K3", true);
+        // When
+        MoveCollection moves = legalMoves(gameState);
+        // Then
+        List<Move> rookMoves = moves.getMovesFrom(Position.of(4, 1));
+        assertEquals(6, rookMoves.size());
+        for (Move move : rookMoves) assertEquals(4, move.to().x());
+        assertTrue(moves.containsMoveTo(Position.of(4, 7)));
+    }
+
+    @Test
+    public void givenDoubleCheck_whenGenerateMoves_thenOnlyKingMoves() {
+        // Given
+        GameState gameState = state("4r2k/8/8/8/8/3n4/8/R3K3", true);
+        // When
+        MoveCollection moves = legalMoves(gameState);
+        // Then
+        assertFalse(moves.isEmpty());
+        for (Move move : moves) assertEquals(PieceType.KING, move.movedPiece().pieceType());
+    }
+
+    @Test
+    public void givenSingleCheck_whenGenerateMoves_thenOtherPiecesOnlyBlockOrCapture() {
+        // Given
+        GameState gameState = state("4r2k/8/8/8/8/8/R7/4K3", true);
+        // When
+        MoveCollection moves = legalMoves(gameState);
+        // Then
+        List<Move> rookMoves = moves.getMovesFrom(Position.of(0, 1));
+        assertEquals(1, rookMoves.size());
+        assertEquals(Position.of(4, 1), rookMoves.get(0).to());
+        assertTrue(moves.containsMoveTo(Position.of(5, 0)));
+    }
+
+    @Test
+    public void givenAttackedSquareBetween_whenGenerateMoves_thenNoCastlingThroughCheck() {
+        // Given
+        GameState gameState = state("5r1k/8/8/8/8/8/8/R3K2R", true);
+        // When
+        MoveCollection moves = legalMoves(gameState);
+        // Then
+        assertNull(castlingMove(moves, Position.of(6, 0)));
+        assertNotNull(castlingMove(moves, Position.of(2, 0)));
+    }
+
+    @Test
+    public void givenCheck_whenGenerateMoves_thenNoCastling() {
+        // Given
+        GameState gameState = state("4r2k/8/8/8/8/8/8/R3K2R", true);
+        // When
+        MoveCollection moves = legalMoves(gameState);
+        // Then
+        assertNull(castlingMove(moves, Position.of(6, 0)));
+        assertNull(castlingMove(moves, Position.of(2, 0)));
+    }
+
+    @Test
+    public void givenEnPassantRemovingBothPawnsFromPinnedRank_whenGenerateMoves_thenEnPassantIsIllegal() {
+        // Given
+        GameState beforeDoubleStep = state("7k/3p4/8/K3P2r/8/8/8/8", false);
+        var pawn = beforeDoubleStep.chessBoard().getPieceAt(Position.of(3, 6));
+        GameState gameState = Move.of(pawn, Position.of(3, 6), Position.of(3, 4)).executeOn(beforeDoubleStep);
+        // When
+        MoveCollection moves = legalMoves(gameState);
+        // Then
+        assertFalse(moves.containsMoveTo(Position.of(3, 5)));
+        assertTrue(moves.containsMoveTo(Position.of(4, 5)));
+    }
+
+    private static Move castlingMove(MoveCollection moves, Position kingTarget) {
+        for (Move move : moves.getMovesTo(kingTarget))
+            if (move.isCastling()) return move;
+        return null;
+    }
+}
@@ -0,0 +1,73 @@
+package de.schoenfeld.chess.rules;
+
+import de.schoenfeld.chess.events.GameConclusion;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.rules.gameend.CheckMateRule;
+import de.schoenfeld.chess.rules.gameend.StalemateRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static de.schoenfeld.chess.rules.RulesTestFixtures.state;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionAnalysisTest {
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR";
+    private static final String CHECKMATE = "7k/6Q1/6K1/8/8/8/8/8";
+
+    @Test
+    public void givenStartingPosition_whenAnalyse_thenGameGoesOn() {
+        // Given
+        GameState gameState = state(START, true);
+        // When
+        PositionAnalysis analysis = Rules.DEFAULT.analyse(gameState);
+        // Then
+        assertEquals(20, analysis.legalMoves().size());
+        assertFalse(analysis.isInCheck());
+        assertFalse(analysis.isGameOver());
+        assertEquals(analysis.legalMoves(), Rules.DEFAULT.generateMoves(gameState));
+    }
+
+    @Test
+    public void givenCheckmate_whenAnalyse_thenConclusionIsCheckmate() {
+        // Given
+        GameState gameState = state(CHECKMATE, false);
+        // When
+        PositionAnalysis analysis = Rules.DEFAULT.analyse(gameState);
+        // Then
+        assertTrue(analysis.isInCheck());
+        assertTrue(analysis.legalMoves().isEmpty());
+        assertEquals(GameConclusion.Winner.WHITE, analysis.conclusion().winner());
+        assertTrue(analysis.moves().isEmpty());
+    }
+
+    @Test
+    public void givenAnalysis_whenGameEndRulesDetect_thenNoMovesAreGenerated() {
+        // Given
+        MoveGenerator failing = gameState -> {
+            throw new AssertionError("moves generated again");
+        };
+        Rules rules = Rules.DEFAULT.withGameEndRules(List.of(
+                new CheckMateRule(failing),
+                new StalemateRule(failing)));
+        // When
+        PositionAnalysis analysis = rules.analyse(state(CHECKMATE, false));
+        // Then
+        assertEquals("Checkmate", analysis.conclusion().description());
+    }
+
+    @Test
+    public void givenOldGameEndRule_whenAnalyse_thenRuleReceivesGameState() {
+        // Given
+        GameState gameState = state(START, true);
+        GameConclusion resignation = new GameConclusion(GameConclusion.Winner.BLACK, "Resignation");
+        Rules rules = Rules.DEFAULT.withGameEndRule(state -> state == gameState
+                ? Optional.of(resignation) : Optional.empty());
+        // When
+        PositionAnalysis analysis = rules.analyse(gameState);
+        // Then
+        assertEquals(resignation, analysis.conclusion());
+        assertTrue(rules.generateMoves(gameState).isEmpty());
+    }
+}
@@ -0,0 +1,82 @@
+package de.schoenfeld.chess.rules;
+
+import de.schoenfeld.chess.board.BoardUtility;
+import de.schoenfeld.chess.board.ImmutableChessBoard;
+import de.schoenfeld.chess.model.ChessBoardBounds;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.MoveHistory;
+import de.schoenfeld.chess.rules.generative.CastlingRule;
+import de.schoenfeld.chess.rules.generative.EnPassantRule;
+import de.schoenfeld.chess.rules.generative.GenerativeMoveRule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Game states and rule sets shared by the rule tests.
+ *
+ * @author Anton Schoenfeld
+ */
+public final class RulesTestFixtures {
+
+    private RulesTestFixtures() {
+    }
+
+    /**
+     * Creates a game state without history for the piece placement of the given FEN, with white to move.
+     *
+     * @param fen The FEN
+     * @return The game state
+     */
+    public static GameState state(String fen) {
+        return state(fen, true);
+    }
+
+    /**
+     * Creates a game state without history for the piece placement of the given FEN.
+     *
+     * @param fen         The FEN
+     * @param isWhiteTurn Whether white is to move
+     * @return The game state
+     */
+    public static GameState state(String fen, boolean isWhiteTurn) {
+        return new GameState(BoardUtility.fromFen(fen), new MoveHistory(), isWhiteTurn);
+    }
+
+    /**
+     * Creates a game state without history for the piece placement of the given FEN on a board of the given kind.
+     *
+     * @param fen          The FEN
+     * @param isWhiteTurn  Whether white is to move
+     * @param boardFactory Creates an empty board for the given bounds
+     * @return The game state
+     */
+    public static GameState state(String fen, boolean isWhiteTurn,
+                                  Function<ChessBoardBounds, ? extends ImmutableChessBoard> boardFactory) {
+        return new GameState(BoardUtility.fromFen(fen, boardFactory), new MoveHistory(), isWhiteTurn);
+    }
+
+    /**
+     * Returns the default rules with castling.
+     *
+     * @return The rules
+     */
+    public static Rules rulesWithCastling() {
+        List<GenerativeMoveRule> generativeMoveRules = new ArrayList<>(Rules.DEFAULT.generativeMoveRules());
+        generativeMoveRules.add(new CastlingRule());
+        return Rules.DEFAULT.withGenerativeMoveRules(generativeMoveRules);
+    }
+
+    /**
+     * Returns the default rules with castling and en passant.
+     *
+     * @return The rules
+     */
+    public static Rules fullRules() {
+        List<GenerativeMoveRule> generativeMoveRules = new ArrayList<>(Rules.DEFAULT.generativeMoveRules());
+        generativeMoveRules.add(new CastlingRule());
+        generativeMoveRules.add(new EnPassantRule());
+        return Rules.DEFAULT.withGenerativeMoveRules(generativeMoveRules);
+    }
+}
@@ -0,0 +1,156 @@
+package de.schoenfeld.chess.rules;
+
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.PieceType;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.GenerationMode;
+import de.schoenfeld.chess.move.Move;
+import de.schoenfeld.chess.move.MoveCollection;
+import de.schoenfeld.chess.move.MoveSink;
+import de.schoenfeld.chess.move.MoveStage;
+import de.schoenfeld.chess.rules.generative.BitboardKnightMoveRule;
+import de.schoenfeld.chess.rules.generative.BitboardPawnMoveRule;
+import de.schoenfeld.chess.rules.generative.CastlingRule;
+import de.schoenfeld.chess.rules.generative.GenerativeMoveRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static de.schoenfeld.chess.rules.RulesTestFixtures.rulesWithCastling;
+import static de.schoenfeld.chess.rules.RulesTestFixtures.state;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StagedMoveIteratorTest {
+    private static final String FEN = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R";
+
+    private static List<Move> drain(StagedMoveIterator iterator) {
+        List<Move> moves = new ArrayList<>();
+        while (iterator.hasNext()) moves.add(iterator.next());
+        return moves;
+    }
+
+    @Test
+    public void givenPosition_whenIteratingAllStages_thenMovesEqualGeneratedMoves() {
+        // Given
+        Rules rules = rulesWithCastling();
+        GameState gameState = state(FEN);
+        // When
+        List<Move> staged = drain(rules.stagedMoves(gameState));
+        // Then
+        MoveCollection generated = rules.generateMoves(gameState);
+        assertEquals(generated.size(), staged.size());
+        assertEquals(generated, new HashSet<>(staged));
+    }
+
+    @Test
+    public void givenPosition_whenIterating_thenStagesAreInOrder() {
+        // Given
+        StagedMoveIterator iterator = rulesWithCastling().stagedMoves(state(FEN));
+        MoveStage previous = MoveStage.HASH_MOVE;
+        while (iterator.hasNext()) {
+            // When
+            Move move = iterator.next();
+            // Then
+            assertTrue(iterator.stage().compareTo(previous) >= 0);
+            assertEquals(MoveStage.of(move), iterator.stage());
+            previous = iterator.stage();
+        }
+        assertEquals(MoveStage.CASTLING, previous);
+    }
+
+    @Test
+    public void givenCaptures_whenIterating_thenMostValuableVictimComesFirst() {
+        // Given
+        GameState gameState = state("4k3/8/8/2q1r3/3P4/8/8/7K");
+        StagedMoveIterator iterator = Rules.DEFAULT.stagedMoves(gameState);
+        // When
+        Move first = iterator.next();
+        Move second = iterator.next();
+        // Then
+        assertEquals(PieceType.QUEEN, first.capture().capturedPiece().pieceType());
+        assertEquals(PieceType.ROOK, second.capture().capturedPiece().pieceType());
+    }
+
+    @Test
+    public void givenCapturesOfSameVictim_whenIterating_thenKingCapturesLast() {
+        // Given
+        GameState gameState = state("4k3/8/8/8/8/3n4/2P1K3/8");
+        StagedMoveIterator iterator = Rules.DEFAULT.stagedMoves(gameState);
+        // When
+        Move first = iterator.next();
+        Move second = iterator.next();
+        // Then
+        assertEquals(PieceType.PAWN, first.movedPiece().pieceType());
+        assertEquals(PieceType.KING, second.movedPiece().pieceType());
+    }
+
+    @Test
+    public void givenHashMove_whenIterating_thenHashMoveComesFirstAndOnce() {
+        // Given
+        Rules rules = rulesWithCastling();
+        GameState gameState = state(FEN);
+        Move hashMove = rules.generateMoves(gameState).getMovesFrom(Position.of(0, 1)).get(0);
+        // When
+        List<Move> moves = drain(rules.stagedMoves(gameState, hashMove));
+        // Then
+        assertEquals(hashMove, moves.get(0));
+        assertEquals(1, moves.stream().filter(hashMove::equals).count());
+    }
+
+    @Test
+    public void givenHashMoveOfOtherPosition_whenIterating_thenHashMoveIsSkipped() {
+        // Given
+        GameState gameState = state(FEN);
+        var pawn = gameState.chessBoard().getPieceAt(Position.of(0, 1));
+        Move hashMove = Move.of(pawn, Position.of(0, 1), Position.of(0, 5));
+        // When
+        List<Move> moves = drain(Rules.DEFAULT.stagedMoves(gameState, hashMove));
+        // Then
+        assertFalse(moves.contains(hashMove));
+        assertEquals(Rules.DEFAULT.generateMoves(gameState).size(), moves.size());
+    }
+
+    @Test
+    public void givenEarlyStop_whenIterating_thenNoQuietMovesAreGenerated() {
+        // Given
+        List<GenerationMode> modes = new ArrayList<>();
+        GenerativeMoveRule knights = new BitboardKnightMoveRule() {
+            @Override
+            public void generateMoves(GameState gameState, GenerationMode mode, MoveSink sink) {
+                modes.add(mode);
+                super.generateMoves(gameState, mode, sink);
+            }
+        };
+        StagedMoveIterator iterator = Rules.DEFAULT.withGenerativeMoveRules(List.of(new BitboardPawnMoveRule(), knights))
+                .stagedMoves(state(FEN));
+        // When
+        iterator.next();
+        // Then
+        assertEquals(MoveStage.CAPTURES, iterator.stage());
+        assertEquals(List.of(GenerationMode.CAPTURES), modes);
+    }
+
+    @Test
+    public void givenEarlyStop_whenIterating_thenLaterRulesAreNotRun() {
+        // Given
+        int[] runs = new int[1];
+        GenerativeMoveRule castling = new CastlingRule() {
+            @Override
+            public void generateMoves(GameState gameState, MoveSink sink) {
+                runs[0]++;
+                super.generateMoves(gameState, sink);
+            }
+        };
+        List<GenerativeMoveRule> generativeMoveRules = new ArrayList<>(Rules.DEFAULT.generativeMoveRules());
+        generativeMoveRules.add(castling);
+        StagedMoveIterator iterator = Rules.DEFAULT.withGenerativeMoveRules(generativeMoveRules)
+                .stagedMoves(state(FEN));
+        // When
+        iterator.next();
+        // Then
+        assertEquals(MoveStage.CAPTURES, iterator.stage());
+        assertEquals(0, runs[0]);
+    }
+}
@@ -0,0 +1,113 @@
+package de.schoenfeld.chess.rules;
+
+import de.schoenfeld.chess.board.BoardUtility;
+import de.schoenfeld.chess.events.GameConclusion;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.MoveHistory;
+import de.schoenfeld.chess.rules.gameend.CheckMateRule;
+import de.schoenfeld.chess.rules.gameend.StalemateRule;
+import de.schoenfeld.chess.rules.generative.GenerativeMoveRule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StalemateRuleTest {
+    private static final String STALEMATE = "7k/5Q2/6K1/8/8/8/8/8";
+    private static final String CHECKMATE = "7k/6Q1/6K1/8/8/8/8/8";
+
+    private StalemateRule tested;
+
+    private static GameState blackToMove(String fen) {
+        return new GameState(BoardUtility.fromFen(fen), new MoveHistory(), false);
+    }
+
+    @BeforeEach
+    public void setup() {
+        tested = new StalemateRule(new LegalMoveGenerator(Rules.DEFAULT.generativeMoveRules()));
+    }
+
+    @Test
+    public void givenNoLegalMoveWithoutCheck_whenDetectGameEndCause_thenDraw() {
+        // Given
+        GameState gameState = blackToMove(STALEMATE);
+        // When
+        Optional<GameConclusion> conclusion = tested.detectGameEndCause(gameState);
+        // Then
+        assertTrue(conclusion.isPresent());
+        assertTrue(conclusion.get().isDraw());
+    }
+
+    @Test
+    public void givenCheckmate_whenDetectGameEndCause_thenNoStalemate() {
+        // Given
+        GameState gameState = blackToMove(CHECKMATE);
+        // When
+        Optional<GameConclusion> conclusion = tested.detectGameEndCause(gameState);
+        // Then
+        assertTrue(conclusion.isEmpty());
+        assertEquals(GameConclusion.Winner.WHITE, new CheckMateRule(Rules.DEFAULT)
+                .detectGameEndCause(gameState).map(GameConclusion::winner).orElse(null));
+    }
+
+    @Test
+    public void givenLegalMoves_whenDetectGameEndCause_thenGameGoesOn() {
+        // Given
+        GameState gameState = new GameState(BoardUtility.fromFen(STALEMATE), new MoveHistory(), true);
+        // When
+        Optional<GameConclusion> conclusion = tested.detectGameEndCause(gameState);
+        // Then
+        assertTrue(conclusion.isEmpty());
+    }
+
+    @Test
+    public void givenTerminalAndOpenPositions_whenHasAnyLegalMove_thenMatchesGeneratedMoves() {
+        // Given
+        GameState stalemate = blackToMove(STALEMATE);
+        GameState checkmate = blackToMove(CHECKMATE);
+        GameState open = new GameState(BoardUtility.fromFen(STALEMATE), new MoveHistory(), true);
+        // Then
+        assertFalse(Rules.DEFAULT.hasAnyLegalMove(stalemate));
+        assertFalse(Rules.DEFAULT.hasAnyLegalMove(checkmate));
+        assertTrue(Rules.DEFAULT.hasAnyLegalMove(open));
+        assertTrue(Rules.DEFAULT.generateMoves(stalemate).isEmpty());
+    }
+
+    @Test
+    public void givenRules_whenDetectGameEndCause_thenLegalMovesOfTheseRulesAreSearched() {
+        // Given
+        GameState open = new GameState(BoardUtility.fromFen(STALEMATE), new MoveHistory(), true);
+        Rules withoutMoves = Rules.DEFAULT.withGenerativeMoveRules(List.of());
+        // When
+        Optional<GameConclusion> conclusion = withoutMoves.detectGameEndCause(open);
+        // Then
+        assertTrue(Rules.DEFAULT.detectGameEndCause(open).isEmpty());
+        assertEquals(Optional.of(new GameConclusion(GameConclusion.Winner.NONE, "Stalemate")), conclusion);
+        assertEquals(GameConclusion.Winner.WHITE, Rules.DEFAULT.detectGameEndCause(blackToMove(CHECKMATE))
+                .map(GameConclusion::winner).orElse(null));
+    }
+
+    @Test
+    public void givenOpenPosition_whenHasAnyMove_thenLegalMovesAreSearchedOnce() {
+        // Given
+        GameState open = new GameState(BoardUtility.fromFen(STALEMATE), new MoveHistory(), true);
+        int[] searches = new int[1];
+        GenerativeMoveRule first = Rules.DEFAULT.generativeMoveRules().get(0);
+        List<GenerativeMoveRule> generativeMoveRules = new ArrayList<>(Rules.DEFAULT.generativeMoveRules());
+        generativeMoveRules.set(0, (gameState, sink) -> {
+            // Attack lookups generate the moves of the other side
+            if (gameState.isWhiteTurn() == open.isWhiteTurn()) searches[0]++;
+            first.generateMoves(gameState, sink);
+        });
+        Rules rules = Rules.DEFAULT.withGenerativeMoveRules(generativeMoveRules);
+        // When
+        boolean hasAnyMove = rules.hasAnyMove(open);
+        // Then
+        assertTrue(hasAnyMove);
+        assertEquals(1, searches[0]);
+    }
+}
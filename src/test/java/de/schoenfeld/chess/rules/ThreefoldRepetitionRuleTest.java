@@ -0,0 +1,78 @@
+package de.schoenfeld.chess.rules;
+
+import de.schoenfeld.chess.board.BoardUtility;
+import de.schoenfeld.chess.events.GameConclusion;
+import de.schoenfeld.chess.model.GameState;
+import de.schoenfeld.chess.model.MoveHistory;
+import de.schoenfeld.chess.model.Position;
+import de.schoenfeld.chess.move.Move;
+import de.schoenfeld.chess.rules.gameend.ThreefoldRepetitionRule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThreefoldRepetitionRuleTest {
+    private ThreefoldRepetitionRule tested;
+    private GameState initial;
+
+    private static GameState move(GameState gameState, Position from, Position to) {
+        return Move.of(gameState.chessBoard().getPieceAt(from), from, to).executeOn(gameState);
+    }
+
+    /**
+     * Moves both knights out and back, which repeats the position.
+     */
+    private static GameState shuffleKnights(GameState gameState) {
+        gameState = move(gameState, Position.of(1, 0), Position.of(2, 2));
+        gameState = move(gameState, Position.of(6, 7), Position.of(5, 5));
+        gameState = move(gameState, Position.of(2, 2), Position.of(1, 0));
+        return move(gameState, Position.of(5, 5), Position.of(6, 7));
+    }
+
+    @BeforeEach
+    public void setup() {
+        tested = new ThreefoldRepetitionRule();
+        initial = new GameState(BoardUtility.fromFen("4k1n1/4p3/8/8/8/8/4P3/1N2K3"), new MoveHistory(), true);
+    }
+
+    @Test
+    public void givenPositionOccurredTwice_whenDetectGameEndCause_thenGameGoesOn() {
+        // Given
+        GameState gameState = shuffleKnights(initial);
+        // When
+        Optional<GameConclusion> conclusion = tested.detectGameEndCause(gameState);
+        // Then
+        assertEquals(2, gameState.repetitionCount());
+        assertTrue(conclusion.isEmpty());
+    }
+
+    @Test
+    public void givenPositionOccurredThreeTimes_whenDetectGameEndCause_thenDraw() {
+        // Given
+        GameState gameState = shuffleKnights(shuffleKnights(initial));
+        // When
+        Optional<GameConclusion> conclusion = tested.detectGameEndCause(gameState);
+        // Then
+        assertEquals(3, gameState.repetitionCount());
+        assertTrue(conclusion.isPresent());
+        assertTrue(conclusion.get().isDraw());
+    }
+
+    @Test
+    public void givenPawnMoveBetweenRepetitions_whenDetectGameEndCause_thenGameGoesOn() {
+        // Given
+        GameState gameState = shuffleKnights(initial);
+        gameState = move(gameState, Position.of(4, 1), Position.of(4, 2));
+        gameState = move(gameState, Position.of(4, 6), Position.of(4, 5));
+        gameState = shuffleKnights(gameState);
+        // When
+        Optional<GameConclusion> conclusion = tested.detectGameEndCause(gameState);
+        // Then
+        assertEquals(4, gameState.halfmoveClock());
+        assertEquals(2, gameState.repetitionCount());
+        assertTrue(conclusion.isEmpty());
+    }
+}